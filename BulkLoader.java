@@ -0,0 +1,177 @@
+package rtree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import rtree.Constants;
+
+public class BulkLoader {
+    protected final RTree rtree;
+    protected final int nodeSize;
+    protected final int dimension;
+    protected long[] ids;
+
+    public BulkLoader(RTree rtree, float fillFactor) {
+        if (rtree == null)
+            throw new IllegalArgumentException("RTree cannot be null.");
+        if (fillFactor <= 0 || fillFactor > 1)
+            throw new IllegalArgumentException("Fill factor must be in (0, 1].");
+
+        this.rtree = rtree;
+        this.dimension = rtree.getDimension();
+        int size = Math.round(rtree.getNodeCapacity() * fillFactor);
+        this.nodeSize = Math.min(rtree.getNodeCapacity(), Math.max(2, size));
+    }
+
+    public RTNode load(Collection<Rectangle> rectangles) {
+        return load(rectangles, null);
+    }
+
+    public RTNode load(Collection<Rectangle> rectangles, long[] ids) {
+        if (rectangles == null)
+            throw new IllegalArgumentException("Rectangles cannot be null.");
+
+        Rectangle[] rects = rectangles.toArray(new Rectangle[rectangles.size()]);
+        if (ids != null && ids.length != rects.length)
+            throw new IllegalArgumentException("Ids must match rectangles.");
+        if (rects.length == 0)
+            return new RTDataNode(rtree, Constants.NULL);
+
+        this.ids = ids;
+        RTNode[] nodes = packLevel(rects, null, 0);
+        int level = 1;
+        while (nodes.length > 1) {
+            nodes = packLevel(nodeRectangles(nodes), nodes, level++);
+        }
+
+        RTNode root = nodes[0];
+        root.parent = Constants.NULL;
+        return root;
+    }
+
+    RTNode[] pack(Rectangle[] rects, long[] ids, int level) {
+        this.ids = ids;
+        RTNode[] nodes = packLevel(rects, null, 0);
+        for (int l = 1; l <= level && nodes.length > 1; l++) {
+            nodes = packLevel(nodeRectangles(nodes), nodes, l);
+        }
+        return nodes;
+    }
+
+    protected Rectangle[] nodeRectangles(RTNode[] nodes) {
+        Rectangle[] mbrs = new Rectangle[nodes.length];
+        for (int i = 0; i < nodes.length; i++) {
+            mbrs[i] = nodes[i].getNodeRectangle();
+        }
+        return mbrs;
+    }
+
+    protected RTNode[] packLevel(Rectangle[] rects, RTNode[] children, int level) {
+        int[] perm = new int[rects.length];
+        for (int i = 0; i < perm.length; i++) {
+            perm[i] = i;
+        }
+
+        List<RTNode> out = new ArrayList<RTNode>(rects.length / nodeSize + 1);
+        if (rtree.getTreeType() == Constants.HILBERT) {
+            if (children == null)
+                sortByKey(rects, perm);
+            paginate(rects, children, level, perm, 0, perm.length, out);
+        } else {
+            tile(rects, children, level, perm, 0, perm.length, 0, out);
+        }
+        return out.toArray(new RTNode[out.size()]);
+    }
+
+    protected void tile(Rectangle[] rects, RTNode[] children, int level, int[] perm, int from, int to, int dim,
+            List<RTNode> out) {
+        sortByCenter(rects, perm, from, to, dim);
+
+        int pages = (to - from + nodeSize - 1) / nodeSize;
+        if (dim == dimension - 1 || pages <= 1) {
+            paginate(rects, children, level, perm, from, to, out);
+            return;
+        }
+
+        tileSlices(rects, children, level, perm, from, to, dim, sliceSize(pages, dim) * nodeSize, out);
+    }
+
+    protected void paginate(Rectangle[] rects, RTNode[] children, int level, int[] perm, int from, int to,
+            List<RTNode> out) {
+        int count = to - from;
+        int pages = (count + nodeSize - 1) / nodeSize;
+        int base = count / pages;
+        int extra = count % pages;
+        int start = from;
+        for (int i = 0; i < pages; i++) {
+            int end = start + base + (i < extra ? 1 : 0);
+            out.add(createNode(rects, children, level, perm, start, end));
+            start = end;
+        }
+    }
+
+    protected void tileSlices(Rectangle[] rects, RTNode[] children, int level, int[] perm, int from, int to, int dim,
+            int sliceSize, List<RTNode> out) {
+        for (int start = from; start < to; start += sliceSize) {
+            tile(rects, children, level, perm, start, Math.min(to, start + sliceSize), dim + 1, out);
+        }
+    }
+
+    protected int sliceSize(int pages, int dim) {
+        int slices = (int) Math.ceil(Math.pow(pages, 1.0 / (dimension - dim)));
+        return (pages + slices - 1) / slices;
+    }
+
+    protected RTNode createNode(Rectangle[] rects, RTNode[] children, int level, int[] perm, int from, int to) {
+        if (children == null) {
+            RTDataNode leaf = new RTDataNode(rtree, Constants.NULL);
+            for (int i = from; i < to; i++) {
+                leaf.addEntry(rects[perm[i]], ids == null ? Constants.NIL : ids[perm[i]]);
+            }
+            return leaf;
+        }
+
+        RTDirNode node = new RTDirNode(rtree, Constants.NULL, level);
+        for (int i = from; i < to; i++) {
+            RTNode child = children[perm[i]];
+            node.addData(rects[perm[i]]);
+            node.setChildKey(node.usedSpace - 1, child);
+            node.children.add(child);
+            child.parent = node;
+        }
+        return node;
+    }
+
+    protected void sortByCenter(Rectangle[] rects, int[] perm, int from, int to, int dim) {
+        long[] keys = centerKeys(rects, perm, from, to, dim);
+        Arrays.sort(keys);
+        for (int i = from; i < to; i++) {
+            perm[i] = (int) keys[i - from];
+        }
+    }
+
+    protected void sortByKey(Rectangle[] rects, int[] perm) {
+        final long[] keys = new long[rects.length];
+        Integer[] order = new Integer[rects.length];
+        for (int i = 0; i < rects.length; i++) {
+            keys[i] = rtree.hilbertKey(rects[i]);
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(keys[a], keys[b]));
+        for (int i = 0; i < rects.length; i++) {
+            perm[i] = order[i];
+        }
+    }
+
+    protected static long[] centerKeys(Rectangle[] rects, int[] perm, int from, int to, int dim) {
+        long[] keys = new long[to - from];
+        for (int i = from; i < to; i++) {
+            int bits = Float.floatToIntBits(rects[perm[i]].getCenter(dim));
+            bits ^= (bits >> 31) & 0x7fffffff;
+            keys[i - from] = ((long) bits << 32) | (perm[i] & 0xffffffffL);
+        }
+        return keys;
+    }
+}
\ No newline at end of file
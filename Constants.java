@@ -12,6 +12,16 @@ public class Constants {
     public static final int RTREE_QUADRATIC = 1;
     public static final int RTREE_EXPONENTIAL = 2;
     public static final int RSTAR = 3;
+    public static final int HILBERT = 4;
+
+    public static final int FLOAT_COORDINATES = 0;
+    public static final int DOUBLE_COORDINATES = 1;
+    public static final int INT_COORDINATES = 2;
+    public static final int LONG_COORDINATES = 3;
+
+    public static final float RSTAR_REINSERT_FACTOR = 0.3f;
+    public static final int MAX_EXPONENTIAL_SPLIT_ENTRIES = 16;
+    public static final int CONDENSE_BATCH = 32;
 
     public static final int NIL = -1;
     public static final RTNode NULL = null;
@@ -0,0 +1,305 @@
+package rtree;
+
+abstract class Coordinates {
+    protected final int dimension;
+    protected final int stride;
+
+    protected Coordinates(int dimension, int stride) {
+        this.dimension = dimension;
+        this.stride = stride;
+    }
+
+    static Coordinates create(int type, int dimension, int stride, float[] bounds) {
+        switch (type) {
+            case Constants.DOUBLE_COORDINATES:
+                return new DoubleCoordinates(dimension, stride);
+            case Constants.INT_COORDINATES:
+                return new IntCoordinates(dimension, stride);
+            case Constants.LONG_COORDINATES:
+                return new LongCoordinates(dimension, stride);
+            default:
+                return new FloatCoordinates(dimension, stride, bounds);
+        }
+    }
+
+    abstract void set(int i, Rectangle rectangle);
+
+    abstract Rectangle get(int i);
+
+    abstract void move(int from, int to);
+
+    abstract void delete(int i, int count);
+
+    abstract double value(int offset);
+
+    abstract int compare(int offset, Rectangle rectangle, int d, boolean high);
+
+    boolean matches(int i, Rectangle window, int mode) {
+        for (int d = 0; d < dimension; d++) {
+            int lo = 2 * d * stride + i;
+            int hi = lo + stride;
+            switch (mode) {
+                case NodeScanner.WITHIN:
+                    if (compare(lo, window, d, false) < 0 || compare(hi, window, d, true) > 0)
+                        return false;
+                    break;
+                case NodeScanner.CONTAINS:
+                    if (compare(lo, window, d, false) > 0 || compare(hi, window, d, true) < 0)
+                        return false;
+                    break;
+                default:
+                    if (compare(lo, window, d, true) > 0 || compare(hi, window, d, false) < 0)
+                        return false;
+            }
+        }
+        return true;
+    }
+
+    boolean equals(int i, Rectangle rectangle) {
+        if (rectangle.getDimension() != dimension)
+            return false;
+        for (int d = 0; d < dimension; d++) {
+            int lo = 2 * d * stride + i;
+            if (compare(lo, rectangle, d, false) != 0 || compare(lo + stride, rectangle, d, true) != 0)
+                return false;
+        }
+        return true;
+    }
+
+    double minDistance(int i, double[] point) {
+        double distance = 0;
+        for (int d = 0; d < dimension; d++) {
+            int lo = 2 * d * stride + i;
+            double gap = Math.max(value(lo) - point[d], point[d] - value(lo + stride));
+            if (gap > 0)
+                distance += gap * gap;
+        }
+        return distance;
+    }
+
+    static int compareValue(double value, Rectangle rectangle, int d, boolean high) {
+        if (rectangle instanceof LongRectangle) {
+            LongRectangle other = (LongRectangle) rectangle;
+            return LongPoint.compare(value, high ? other.getHighLongCoordinate(d) : other.getLowLongCoordinate(d));
+        }
+        double other = high ? rectangle.getHighDoubleCoordinate(d) : rectangle.getLowDoubleCoordinate(d);
+        return (value < other) ? -1 : ((value > other) ? 1 : 0);
+    }
+
+    static final class FloatCoordinates extends Coordinates {
+        private final float[] bounds;
+
+        FloatCoordinates(int dimension, int stride, float[] bounds) {
+            super(dimension, stride);
+            this.bounds = bounds;
+        }
+
+        @Override
+        void set(int i, Rectangle rectangle) {
+        }
+
+        @Override
+        Rectangle get(int i) {
+            float[] low = new float[dimension];
+            float[] high = new float[dimension];
+            for (int d = 0; d < dimension; d++) {
+                low[d] = bounds[2 * d * stride + i];
+                high[d] = bounds[(2 * d + 1) * stride + i];
+            }
+            return Rectangle.wrap(low, high);
+        }
+
+        @Override
+        void move(int from, int to) {
+        }
+
+        @Override
+        void delete(int i, int count) {
+        }
+
+        @Override
+        double value(int offset) {
+            return bounds[offset];
+        }
+
+        @Override
+        int compare(int offset, Rectangle rectangle, int d, boolean high) {
+            return compareValue(bounds[offset], rectangle, d, high);
+        }
+    }
+
+    static final class DoubleCoordinates extends Coordinates {
+        private final double[] values;
+
+        DoubleCoordinates(int dimension, int stride) {
+            super(dimension, stride);
+            values = new double[2 * dimension * stride];
+        }
+
+        @Override
+        void set(int i, Rectangle rectangle) {
+            for (int d = 0; d < dimension; d++) {
+                int lo = 2 * d * stride + i;
+                values[lo] = rectangle.getLowDoubleCoordinate(d);
+                values[lo + stride] = rectangle.getHighDoubleCoordinate(d);
+            }
+        }
+
+        @Override
+        Rectangle get(int i) {
+            double[] low = new double[dimension];
+            double[] high = new double[dimension];
+            for (int d = 0; d < dimension; d++) {
+                low[d] = values[2 * d * stride + i];
+                high[d] = values[(2 * d + 1) * stride + i];
+            }
+            return DoubleRectangle.wrap(low, high);
+        }
+
+        @Override
+        void move(int from, int to) {
+            for (int row = 0; row < values.length; row += stride) {
+                values[row + to] = values[row + from];
+            }
+        }
+
+        @Override
+        void delete(int i, int count) {
+            for (int row = 0; row < values.length; row += stride) {
+                System.arraycopy(values, row + i + 1, values, row + i, count - i - 1);
+            }
+        }
+
+        @Override
+        double value(int offset) {
+            return values[offset];
+        }
+
+        @Override
+        int compare(int offset, Rectangle rectangle, int d, boolean high) {
+            return compareValue(values[offset], rectangle, d, high);
+        }
+    }
+
+    static final class IntCoordinates extends Coordinates {
+        private final int[] values;
+
+        IntCoordinates(int dimension, int stride) {
+            super(dimension, stride);
+            values = new int[2 * dimension * stride];
+        }
+
+        @Override
+        void set(int i, Rectangle rectangle) {
+            for (int d = 0; d < dimension; d++) {
+                int lo = 2 * d * stride + i;
+                if (rectangle instanceof IntRectangle) {
+                    values[lo] = ((IntRectangle) rectangle).getLowIntCoordinate(d);
+                    values[lo + stride] = ((IntRectangle) rectangle).getHighIntCoordinate(d);
+                } else {
+                    values[lo] = (int) rectangle.getLowDoubleCoordinate(d);
+                    values[lo + stride] = (int) rectangle.getHighDoubleCoordinate(d);
+                }
+            }
+        }
+
+        @Override
+        Rectangle get(int i) {
+            int[] low = new int[dimension];
+            int[] high = new int[dimension];
+            for (int d = 0; d < dimension; d++) {
+                low[d] = values[2 * d * stride + i];
+                high[d] = values[(2 * d + 1) * stride + i];
+            }
+            return new IntRectangle(low, high);
+        }
+
+        @Override
+        void move(int from, int to) {
+            for (int row = 0; row < values.length; row += stride) {
+                values[row + to] = values[row + from];
+            }
+        }
+
+        @Override
+        void delete(int i, int count) {
+            for (int row = 0; row < values.length; row += stride) {
+                System.arraycopy(values, row + i + 1, values, row + i, count - i - 1);
+            }
+        }
+
+        @Override
+        double value(int offset) {
+            return values[offset];
+        }
+
+        @Override
+        int compare(int offset, Rectangle rectangle, int d, boolean high) {
+            return compareValue(values[offset], rectangle, d, high);
+        }
+    }
+
+    static final class LongCoordinates extends Coordinates {
+        private final long[] values;
+
+        LongCoordinates(int dimension, int stride) {
+            super(dimension, stride);
+            values = new long[2 * dimension * stride];
+        }
+
+        @Override
+        void set(int i, Rectangle rectangle) {
+            for (int d = 0; d < dimension; d++) {
+                int lo = 2 * d * stride + i;
+                if (rectangle instanceof LongRectangle) {
+                    values[lo] = ((LongRectangle) rectangle).getLowLongCoordinate(d);
+                    values[lo + stride] = ((LongRectangle) rectangle).getHighLongCoordinate(d);
+                } else {
+                    values[lo] = (long) rectangle.getLowDoubleCoordinate(d);
+                    values[lo + stride] = (long) rectangle.getHighDoubleCoordinate(d);
+                }
+            }
+        }
+
+        @Override
+        Rectangle get(int i) {
+            long[] low = new long[dimension];
+            long[] high = new long[dimension];
+            for (int d = 0; d < dimension; d++) {
+                low[d] = values[2 * d * stride + i];
+                high[d] = values[(2 * d + 1) * stride + i];
+            }
+            return new LongRectangle(low, high);
+        }
+
+        @Override
+        void move(int from, int to) {
+            for (int row = 0; row < values.length; row += stride) {
+                values[row + to] = values[row + from];
+            }
+        }
+
+        @Override
+        void delete(int i, int count) {
+            for (int row = 0; row < values.length; row += stride) {
+                System.arraycopy(values, row + i + 1, values, row + i, count - i - 1);
+            }
+        }
+
+        @Override
+        double value(int offset) {
+            return values[offset];
+        }
+
+        @Override
+        int compare(int offset, Rectangle rectangle, int d, boolean high) {
+            long value = values[offset];
+            if (rectangle instanceof LongRectangle) {
+                LongRectangle other = (LongRectangle) rectangle;
+                return Long.compare(value, high ? other.getHighLongCoordinate(d) : other.getLowLongCoordinate(d));
+            }
+            double other = high ? rectangle.getHighDoubleCoordinate(d) : rectangle.getLowDoubleCoordinate(d);
+            return -LongPoint.compare(other, value);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,300 @@
+package rtree;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+public class CopyOnWriteRTree {
+    private final int nodeCapacity;
+    private final float fillFactor;
+    private final int dimension;
+    private final SplitPolicy splitPolicy;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile Version version;
+
+    public CopyOnWriteRTree(int capacity, float fillFactor, int type, int dimension) {
+        this(capacity, fillFactor, dimension, RTree.defaultSplitPolicy(type));
+    }
+
+    public CopyOnWriteRTree(int capacity, float fillFactor, int dimension, SplitPolicy splitPolicy) {
+        if (capacity < 2)
+            throw new IllegalArgumentException("Node capacity must be at least 2.");
+        if (splitPolicy == null)
+            throw new IllegalArgumentException("Split policy cannot be null.");
+
+        this.nodeCapacity = capacity;
+        this.fillFactor = fillFactor;
+        this.dimension = dimension;
+        this.splitPolicy = splitPolicy;
+        this.version = new Version(new Node(0, new Rectangle[0], null, 0, dimension), 0);
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    public int getNodeCapacity() {
+        return nodeCapacity;
+    }
+
+    public long size() {
+        return version.size;
+    }
+
+    public int getHeight() {
+        return version.root.level + 1;
+    }
+
+    public boolean insert(Rectangle rectangle) {
+        checkRectangle(rectangle);
+
+        writeLock.lock();
+        try {
+            Version current = version;
+            version = new Version(insert(current.root, rectangle), current.size + 1);
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public boolean delete(Rectangle rectangle) {
+        checkRectangle(rectangle);
+
+        writeLock.lock();
+        try {
+            Version current = version;
+            List<Rectangle> orphans = new ArrayList<Rectangle>();
+            Node root = delete(current.root, rectangle, orphans, true);
+            if (root == null)
+                return false;
+
+            while (!root.isLeaf() && root.count == 1) {
+                root = root.children[0];
+            }
+            if (!root.isLeaf() && root.count == 0) {
+                root = new Node(0, new Rectangle[0], null, 0, dimension);
+            }
+            for (int i = 0; i < orphans.size(); i++) {
+                root = insert(root, orphans.get(i));
+            }
+            version = new Version(root, current.size - 1);
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public int search(Rectangle window, Consumer<Rectangle> consumer) {
+        checkRectangle(window);
+        if (consumer == null)
+            throw new IllegalArgumentException("Consumer cannot be null.");
+
+        float[] box = new float[2 * dimension];
+        window.copyBounds(box, 1, 0);
+
+        Node[] stack = new Node[32];
+        int top = 0;
+        int found = 0;
+        stack[top++] = version.root;
+
+        while (top > 0) {
+            Node node = stack[--top];
+            for (int i = 0; i < node.count; i++) {
+                if (!node.intersects(i, box))
+                    continue;
+
+                if (node.isLeaf()) {
+                    consumer.accept(node.entries[i]);
+                    found++;
+                } else {
+                    if (top == stack.length) {
+                        Node[] grown = new Node[stack.length * 2];
+                        System.arraycopy(stack, 0, grown, 0, top);
+                        stack = grown;
+                    }
+                    stack[top++] = node.children[i];
+                }
+            }
+        }
+        return found;
+    }
+
+    private void checkRectangle(Rectangle rectangle) {
+        if (rectangle == null)
+            throw new IllegalArgumentException("Rectangle cannot be null.");
+
+        if (rectangle.getDimension() != getDimension()) {
+            throw new IllegalArgumentException("Rectangle dimension different than RTree dimension.");
+        }
+    }
+
+    private Node insert(Node root, Rectangle rectangle) {
+        Node[] nodes = insertInto(root, rectangle);
+        if (nodes.length == 1)
+            return nodes[0];
+
+        return new Node(root.level + 1, new Rectangle[] { nodes[0].getNodeRectangle(), nodes[1].getNodeRectangle() },
+                nodes, 2, dimension);
+    }
+
+    private Node[] insertInto(Node node, Rectangle rectangle) {
+        Rectangle[] entries = new Rectangle[nodeCapacity + 1];
+        Node[] children = node.isLeaf() ? null : new Node[nodeCapacity + 1];
+        System.arraycopy(node.entries, 0, entries, 0, node.count);
+        if (children != null)
+            System.arraycopy(node.children, 0, children, 0, node.count);
+        int count = node.count;
+
+        if (node.isLeaf()) {
+            entries[count++] = rectangle;
+        } else {
+            int index = node.chooseSubtree(rectangle);
+            Node[] nodes = insertInto(node.children[index], rectangle);
+            entries[index] = nodes[0].getNodeRectangle();
+            children[index] = nodes[0];
+            if (nodes.length == 2) {
+                entries[count] = nodes[1].getNodeRectangle();
+                children[count++] = nodes[1];
+            }
+        }
+
+        if (count <= nodeCapacity)
+            return new Node[] { new Node(node.level, entries, children, count, dimension) };
+
+        int minNodeSize = Math.round(nodeCapacity * fillFactor);
+        if (minNodeSize < 1)
+            minNodeSize = 1;
+        if (minNodeSize > count / 2)
+            minNodeSize = count / 2;
+
+        int[][] group = splitPolicy.split(MbrKernel.pack(entries, count), count, count, minNodeSize);
+        return new Node[] { node(node.level, entries, children, group[0]),
+                node(node.level, entries, children, group[1]) };
+    }
+
+    private Node node(int level, Rectangle[] entries, Node[] children, int[] group) {
+        Rectangle[] e = new Rectangle[group.length];
+        Node[] c = (children == null) ? null : new Node[group.length];
+        for (int i = 0; i < group.length; i++) {
+            e[i] = entries[group[i]];
+            if (c != null)
+                c[i] = children[group[i]];
+        }
+        return new Node(level, e, c, group.length, dimension);
+    }
+
+    private Node delete(Node node, Rectangle rectangle, List<Rectangle> orphans, boolean isRoot) {
+        for (int i = 0; i < node.count; i++) {
+            if (node.isLeaf()) {
+                if (!node.entries[i].equals(rectangle))
+                    continue;
+                return rebuild(node, i, null, orphans, isRoot);
+            }
+
+            if (!node.entries[i].enclosure(rectangle))
+                continue;
+
+            Node child = delete(node.children[i], rectangle, orphans, false);
+            if (child != null)
+                return rebuild(node, i, child, orphans, isRoot);
+        }
+        return null;
+    }
+
+    private Node rebuild(Node node, int index, Node child, List<Rectangle> orphans, boolean isRoot) {
+        boolean drop = (child == null) || child.count == 0;
+        int count = drop ? node.count - 1 : node.count;
+
+        Rectangle[] entries = new Rectangle[count];
+        Node[] children = node.isLeaf() ? null : new Node[count];
+        for (int i = 0, j = 0; i < node.count; i++) {
+            if (i == index) {
+                if (drop)
+                    continue;
+                entries[j] = child.getNodeRectangle();
+                children[j++] = child;
+            } else {
+                entries[j] = node.entries[i];
+                if (children != null)
+                    children[j] = node.children[i];
+                j++;
+            }
+        }
+
+        int min = Math.round(nodeCapacity * fillFactor);
+        if (!isRoot && count < min) {
+            for (int i = 0; i < count; i++) {
+                collect(node.isLeaf() ? null : children[i], entries[i], orphans);
+            }
+            return new Node(node.level, new Rectangle[0], node.isLeaf() ? null : new Node[0], 0, dimension);
+        }
+        return new Node(node.level, entries, children, count, dimension);
+    }
+
+    private static void collect(Node node, Rectangle entry, List<Rectangle> orphans) {
+        if (node == null) {
+            orphans.add(entry);
+            return;
+        }
+        for (int i = 0; i < node.count; i++) {
+            collect(node.isLeaf() ? null : node.children[i], node.entries[i], orphans);
+        }
+    }
+
+    private static final class Version {
+        final Node root;
+        final long size;
+
+        Version(Node root, long size) {
+            this.root = root;
+            this.size = size;
+        }
+    }
+
+    private static final class Node {
+        final int level;
+        final int count;
+        final Rectangle[] entries;
+        final Node[] children;
+        final float[] bounds;
+
+        Node(int level, Rectangle[] entries, Node[] children, int count, int dimension) {
+            this.level = level;
+            this.count = count;
+            this.entries = entries;
+            this.children = children;
+            this.bounds = new float[2 * dimension * Math.max(count, 1)];
+            for (int i = 0; i < count; i++) {
+                entries[i].copyBounds(bounds, Math.max(count, 1), i);
+            }
+        }
+
+        boolean isLeaf() {
+            return level == 0;
+        }
+
+        boolean intersects(int i, float[] box) {
+            int stride = Math.max(count, 1);
+            for (int d = 0, row = 0; row < bounds.length; d += 2, row += 2 * stride) {
+                if (bounds[row + i] > box[d + 1] || bounds[row + stride + i] < box[d])
+                    return false;
+            }
+            return true;
+        }
+
+        int chooseSubtree(Rectangle rectangle) {
+            int stride = Math.max(count, 1);
+            int dims = bounds.length / (2 * stride);
+            float[] box = new float[2 * dims];
+            rectangle.copyBounds(box, 1, 0);
+            return MbrKernel.leastEnlargement(bounds, stride, count, box, 1, 0, dims);
+        }
+
+        Rectangle getNodeRectangle() {
+            int stride = Math.max(count, 1);
+            return MbrKernel.bounds(bounds, stride, count, bounds.length / (2 * stride));
+        }
+    }
+}
\ No newline at end of file
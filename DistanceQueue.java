@@ -0,0 +1,107 @@
+package rtree;
+
+class DistanceQueue {
+    private double[] keys;
+    private Object[] values;
+    private long[] tags;
+    private int size;
+
+    DistanceQueue(int capacity) {
+        if (capacity < 1)
+            capacity = 1;
+        keys = new double[capacity];
+        values = new Object[capacity];
+        tags = new long[capacity];
+        size = 0;
+    }
+
+    void add(double key, Object value) {
+        add(key, value, Constants.NIL);
+    }
+
+    void add(double key, Object value, long tag) {
+        if (size == keys.length) {
+            double[] k = new double[size * 2];
+            Object[] v = new Object[size * 2];
+            long[] t = new long[size * 2];
+            System.arraycopy(keys, 0, k, 0, size);
+            System.arraycopy(values, 0, v, 0, size);
+            System.arraycopy(tags, 0, t, 0, size);
+            keys = k;
+            values = v;
+            tags = t;
+        }
+
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (keys[parent] <= key)
+                break;
+            keys[i] = keys[parent];
+            values[i] = values[parent];
+            tags[i] = tags[parent];
+            i = parent;
+        }
+        keys[i] = key;
+        values[i] = value;
+        tags[i] = tag;
+    }
+
+    double peekKey() {
+        if (size == 0)
+            throw new IllegalStateException("Queue is empty.");
+        return keys[0];
+    }
+
+    Object peekValue() {
+        if (size == 0)
+            throw new IllegalStateException("Queue is empty.");
+        return values[0];
+    }
+
+    long peekTag() {
+        if (size == 0)
+            throw new IllegalStateException("Queue is empty.");
+        return tags[0];
+    }
+
+    Object poll() {
+        if (size == 0)
+            throw new IllegalStateException("Queue is empty.");
+
+        Object top = values[0];
+        size--;
+        double key = keys[size];
+        Object value = values[size];
+        long tag = tags[size];
+        values[size] = null;
+
+        int i = 0;
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && keys[child + 1] < keys[child])
+                child++;
+            if (key <= keys[child])
+                break;
+            keys[i] = keys[child];
+            values[i] = values[child];
+            tags[i] = tags[child];
+            i = child;
+        }
+        if (size > 0) {
+            keys[i] = key;
+            values[i] = value;
+            tags[i] = tag;
+        }
+        return top;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,78 @@
+package rtree;
+
+import java.util.Arrays;
+
+public class DoublePoint implements Cloneable {
+    private double[] data;
+
+    private DoublePoint() {
+    }
+
+    static DoublePoint wrap(double[] data) {
+        DoublePoint point = new DoublePoint();
+        point.data = data;
+        return point;
+    }
+
+    public DoublePoint(double[] data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Coordinates cannot be null.");
+        }
+        if (data.length < 2) {
+            throw new IllegalArgumentException("Point dimension should be greater than 1.");
+        }
+
+        this.data = new double[data.length];
+        System.arraycopy(data, 0, this.data, 0, data.length);
+    }
+
+    double[] copy() {
+        double[] copy = new double[data.length];
+        System.arraycopy(data, 0, copy, 0, data.length);
+        return copy;
+    }
+
+    public int getDimension() {
+        return data.length;
+    }
+
+    public double getDoubleCoordinate(int index) {
+        return data[index];
+    }
+
+    public Point toPoint() {
+        float[] point = new float[data.length];
+        for (int i = 0; i < data.length; i++) {
+            point[i] = (float) data[i];
+        }
+        return Point.wrap(point);
+    }
+
+    @Override
+    protected Object clone() {
+        return wrap(copy());
+    }
+
+    @Override
+    public String toString() {
+        StringBuffer sBuffer = new StringBuffer("(");
+
+        for (int i = 0; i < data.length - 1; i++) {
+            sBuffer.append(data[i]).append(",");
+        }
+
+        sBuffer.append(data[data.length - 1]).append(")");
+
+        return sBuffer.toString();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return (obj instanceof DoublePoint) && Arrays.equals(data, ((DoublePoint) obj).data);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(data);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,185 @@
+package rtree;
+
+public class DoubleRectangle extends Rectangle {
+    private final double[] low;
+    private final double[] high;
+
+    public DoubleRectangle(DoublePoint p1, DoublePoint p2) {
+        this(check(p1, p2).copy(), p2.copy());
+    }
+
+    private DoubleRectangle(double[] low, double[] high) {
+        super(roundDown(low), roundUp(high));
+        this.low = low;
+        this.high = high;
+    }
+
+    static DoubleRectangle wrap(double[] low, double[] high) {
+        return new DoubleRectangle(low, high);
+    }
+
+    private static DoublePoint check(DoublePoint p1, DoublePoint p2) {
+        if (p1 == null || p2 == null)
+            throw new IllegalArgumentException("Points cannot be null.");
+        if (p1.getDimension() != p2.getDimension())
+            throw new IllegalArgumentException("Points must be of same dimension.");
+
+        for (int i = 0; i < p1.getDimension(); i++) {
+            if (!(p1.getDoubleCoordinate(i) <= p2.getDoubleCoordinate(i)))
+                throw new IllegalArgumentException("Low coordinate cannot exceed high coordinate.");
+        }
+        return p1;
+    }
+
+    private static float[] roundDown(double[] values) {
+        float[] rounded = new float[values.length];
+        for (int i = 0; i < values.length; i++) {
+            float f = (float) values[i];
+            rounded[i] = (f > values[i]) ? Math.nextDown(f) : f;
+        }
+        return rounded;
+    }
+
+    private static float[] roundUp(double[] values) {
+        float[] rounded = new float[values.length];
+        for (int i = 0; i < values.length; i++) {
+            float f = (float) values[i];
+            rounded[i] = (f < values[i]) ? Math.nextUp(f) : f;
+        }
+        return rounded;
+    }
+
+    @Override
+    public double getLowDoubleCoordinate(int index) {
+        return low[index];
+    }
+
+    @Override
+    public double getHighDoubleCoordinate(int index) {
+        return high[index];
+    }
+
+    @Override
+    boolean isFloat() {
+        return false;
+    }
+
+    public DoublePoint getDoubleLow() {
+        return DoublePoint.wrap(low.clone());
+    }
+
+    public DoublePoint getDoubleHigh() {
+        return DoublePoint.wrap(high.clone());
+    }
+
+    @Override
+    public boolean isIntersection(Rectangle rectangle) {
+        check(rectangle);
+        return matches(rectangle, this, NodeScanner.INTERSECTS);
+    }
+
+    @Override
+    public boolean enclosure(Rectangle rectangle) {
+        check(rectangle);
+        return matches(rectangle, this, NodeScanner.WITHIN);
+    }
+
+    @Override
+    public double minDistance(Point point) {
+        if (point == null)
+            throw new IllegalArgumentException("Point cannot be null.");
+
+        if (point.getDimension() != low.length)
+            throw new IllegalArgumentException("Point dimension is different from current dimension.");
+
+        double distance = 0;
+        for (int i = 0; i < low.length; i++) {
+            double p = point.getFloatCoordinate(i);
+            double gap = Math.max(low[i] - p, p - high[i]);
+            if (gap > 0)
+                distance += gap * gap;
+        }
+        return distance;
+    }
+
+    private void check(Rectangle rectangle) {
+        if (rectangle == null)
+            throw new IllegalArgumentException("Rectangle cannot be null.");
+
+        if (rectangle.getDimension() != low.length)
+            throw new IllegalArgumentException("Rectangle dimension is different from current dimension.");
+    }
+
+    static boolean matches(Rectangle entry, Rectangle window, int mode) {
+        int dims = window.getDimension();
+        for (int d = 0; d < dims; d++) {
+            double lo = entry.getLowDoubleCoordinate(d);
+            double hi = entry.getHighDoubleCoordinate(d);
+            double wlo = window.getLowDoubleCoordinate(d);
+            double whi = window.getHighDoubleCoordinate(d);
+            switch (mode) {
+                case NodeScanner.WITHIN:
+                    if (lo < wlo || hi > whi)
+                        return false;
+                    break;
+                case NodeScanner.CONTAINS:
+                    if (wlo < lo || whi > hi)
+                        return false;
+                    break;
+                default:
+                    if (lo > whi || hi < wlo)
+                        return false;
+            }
+        }
+        return true;
+    }
+
+    static double distanceSquared(Rectangle a, Rectangle b) {
+        int dims = a.getDimension();
+        double sum = 0;
+        for (int d = 0; d < dims; d++) {
+            double gap = Math.max(b.getLowDoubleCoordinate(d) - a.getHighDoubleCoordinate(d),
+                    a.getLowDoubleCoordinate(d) - b.getHighDoubleCoordinate(d));
+            if (gap > 0)
+                sum += gap * gap;
+        }
+        return sum;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof Rectangle))
+            return false;
+
+        Rectangle rectangle = (Rectangle) obj;
+        if (rectangle instanceof LongRectangle)
+            return rectangle.equals(this);
+        if (rectangle.getDimension() != low.length)
+            return false;
+        for (int i = 0; i < low.length; i++) {
+            if (low[i] != rectangle.getLowDoubleCoordinate(i) || high[i] != rectangle.getHighDoubleCoordinate(i))
+                return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = 0; i < low.length; i++) {
+            hash = 31 * hash + Double.hashCode(low[i] + 0.0);
+            hash = 31 * hash + Double.hashCode(high[i] + 0.0);
+        }
+        return hash;
+    }
+
+    @Override
+    protected Object clone() {
+        return new DoubleRectangle(low.clone(), high.clone());
+    }
+
+    @Override
+    public String toString() {
+        return "DoubleRectangle Low:" + DoublePoint.wrap(low) + " High:" + DoublePoint.wrap(high);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,6 @@
+package rtree;
+
+@FunctionalInterface
+public interface EntryConsumer {
+    void accept(long id, Rectangle rectangle);
+}
\ No newline at end of file
@@ -0,0 +1,60 @@
+package rtree;
+
+public class ExponentialSplitPolicy implements SplitPolicy {
+    private final SplitPolicy fallback = new QuadraticSplitPolicy();
+
+    @Override
+    public int[][] split(float[] bounds, int stride, int total, int minNodeSize) {
+        if (total > Constants.MAX_EXPONENTIAL_SPLIT_ENTRIES) {
+            return fallback.split(bounds, stride, total, minNodeSize);
+        }
+
+        int dims = bounds.length / (2 * stride);
+        float[] mbr1 = new float[dims * 2];
+        float[] mbr2 = new float[dims * 2];
+
+        int best = -1;
+        double bestArea = Double.POSITIVE_INFINITY;
+        double bestOverlap = Double.POSITIVE_INFINITY;
+
+        int masks = 1 << (total - 1);
+        for (int mask = 0; mask < masks; mask++) {
+            int size2 = Integer.bitCount(mask);
+            int size1 = total - size2;
+            if (size1 < minNodeSize || size2 < minNodeSize)
+                continue;
+
+            MbrKernel.reset(mbr1, 1, 0, dims);
+            MbrKernel.reset(mbr2, 1, 0, dims);
+            for (int i = 0; i < total; i++) {
+                if (i > 0 && (mask & (1 << (i - 1))) != 0) {
+                    MbrKernel.include(mbr2, 1, 0, bounds, stride, i, dims);
+                } else {
+                    MbrKernel.include(mbr1, 1, 0, bounds, stride, i, dims);
+                }
+            }
+
+            double area = MbrKernel.area(mbr1, 1, 0, dims) + MbrKernel.area(mbr2, 1, 0, dims);
+            double overlap = MbrKernel.overlap(mbr1, 1, 0, mbr2, 1, 0, dims);
+            if (area < bestArea || (area == bestArea && overlap < bestOverlap)) {
+                bestArea = area;
+                bestOverlap = overlap;
+                best = mask;
+            }
+        }
+
+        int size2 = Integer.bitCount(best);
+        int[][] ret = new int[2][];
+        ret[0] = new int[total - size2];
+        ret[1] = new int[size2];
+        int i1 = 0, i2 = 0;
+        for (int i = 0; i < total; i++) {
+            if (i > 0 && (best & (1 << (i - 1))) != 0) {
+                ret[1][i2++] = i;
+            } else {
+                ret[0][i1++] = i;
+            }
+        }
+        return ret;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,127 @@
+package rtree;
+
+public final class HilbertCurve {
+
+    private HilbertCurve() {
+    }
+
+    public static int bits(int dimension) {
+        if (dimension < 1)
+            throw new IllegalArgumentException("Dimension must be positive.");
+        if (dimension > 63)
+            throw new IllegalArgumentException("Dimension must be at most 63.");
+        return Math.min(31, 63 / dimension);
+    }
+
+    public static long key(Rectangle rectangle) {
+        if (rectangle == null)
+            throw new IllegalArgumentException("Rectangle cannot be null.");
+
+        int dims = rectangle.getDimension();
+        int bits = bits(dims);
+        int[] x = new int[dims];
+        for (int d = 0; d < dims; d++) {
+            x[d] = ordinal(rectangle.getCenter(d)) >>> (32 - bits);
+        }
+        return index(x, bits);
+    }
+
+    public static long key(Rectangle rectangle, Rectangle extent) {
+        if (rectangle == null || extent == null)
+            throw new IllegalArgumentException("Rectangle cannot be null.");
+
+        int dims = rectangle.getDimension();
+        int bits = bits(dims);
+        int[] x = new int[dims];
+        for (int d = 0; d < dims; d++) {
+            x[d] = quantize(rectangle.getCenter(d), extent.getLowCoordinate(d), extent.getHighCoordinate(d), bits);
+        }
+        return index(x, bits);
+    }
+
+    public static long key(float[] point) {
+        if (point == null)
+            throw new IllegalArgumentException("Point cannot be null.");
+
+        int bits = bits(point.length);
+        int[] x = new int[point.length];
+        for (int d = 0; d < point.length; d++) {
+            x[d] = ordinal(point[d]) >>> (32 - bits);
+        }
+        return index(x, bits);
+    }
+
+    static int quantize(double value, double low, double high, int bits) {
+        double t = (value - low) / (high - low);
+        if (!(t > 0))
+            return 0;
+        long cells = 1L << bits;
+        return (int) Math.min(cells - 1, (long) (t * cells));
+    }
+
+    static int ordinal(float value) {
+        int bits = Float.floatToIntBits(value);
+        bits ^= (bits >> 31) & 0x7fffffff;
+        return bits ^ 0x80000000;
+    }
+
+    static long index(int[] x, int bits) {
+        if (x.length == 2)
+            return index(x[0], x[1], bits);
+
+        int n = x.length;
+        int m = 1 << (bits - 1);
+
+        for (int q = m; q > 1; q >>>= 1) {
+            int p = q - 1;
+            for (int i = 0; i < n; i++) {
+                if ((x[i] & q) != 0) {
+                    x[0] ^= p;
+                } else {
+                    int t = (x[0] ^ x[i]) & p;
+                    x[0] ^= t;
+                    x[i] ^= t;
+                }
+            }
+        }
+
+        for (int i = 1; i < n; i++) {
+            x[i] ^= x[i - 1];
+        }
+        int t = 0;
+        for (int q = m; q > 1; q >>>= 1) {
+            if ((x[n - 1] & q) != 0)
+                t ^= q - 1;
+        }
+        for (int i = 0; i < n; i++) {
+            x[i] ^= t;
+        }
+
+        long key = 0;
+        for (int b = bits - 1; b >= 0; b--) {
+            for (int i = 0; i < n; i++) {
+                key = (key << 1) | ((x[i] >>> b) & 1);
+            }
+        }
+        return key;
+    }
+
+    private static long index(int x, int y, int bits) {
+        long key = 0;
+        for (int s = 1 << (bits - 1); s > 0; s >>>= 1) {
+            int rx = (x & s) != 0 ? 1 : 0;
+            int ry = (y & s) != 0 ? 1 : 0;
+            key += (long) s * s * ((3 * rx) ^ ry);
+            if (ry == 0) {
+                if (rx == 1) {
+                    x = ~x;
+                    y = ~y;
+                }
+                int t = x;
+                x = y;
+                y = t;
+            }
+        }
+        return key;
+    }
+}
\ No newline at end of file
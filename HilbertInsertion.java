@@ -0,0 +1,201 @@
+package rtree;
+
+final class HilbertInsertion {
+
+    private HilbertInsertion() {
+    }
+
+    static RTDataNode chooseLeaf(RTDirNode node, long key) {
+        while (true) {
+            node.insertIndex = chooseSubtree(node, key);
+            RTNode child = node.getChild(node.insertIndex);
+            if (child.isLeaf())
+                return (RTDataNode) child;
+            node = (RTDirNode) child;
+        }
+    }
+
+    static int chooseSubtree(RTDirNode node, long key) {
+        int lo = 0;
+        int hi = node.usedSpace - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (node.largestKeys[mid] < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    static long largestKey(RTNode node) {
+        if (node.usedSpace == 0)
+            return Long.MIN_VALUE;
+        long[] keys = node.isLeaf() ? ((RTDataNode) node).keys : ((RTDirNode) node).largestKeys;
+        return keys[node.usedSpace - 1];
+    }
+
+    static boolean fits(RTDataNode leaf, int i, long key) {
+        long[] keys = leaf.keys;
+        if (i == 0 ? key < keys[0] : key < keys[i - 1])
+            return false;
+        return i == leaf.usedSpace - 1 ? key <= keys[i] : key <= keys[i + 1];
+    }
+
+    static boolean insert(RTDataNode leaf, Rectangle rectangle, long id) {
+        long key = leaf.rtree.hilbertKey(rectangle);
+        int pos = 0;
+        while (pos < leaf.usedSpace && leaf.keys[pos] <= key) {
+            pos++;
+        }
+
+        if (leaf.usedSpace < leaf.rtree.getNodeCapacity()) {
+            for (int i = leaf.usedSpace; i > pos; i--) {
+                leaf.moveData(i - 1, i);
+            }
+            leaf.setEntry(pos, rectangle, id, key);
+            leaf.usedSpace++;
+            refresh(leaf);
+        } else {
+            overflow(leaf, pos, rectangle, id, key, null);
+        }
+        return true;
+    }
+
+    private static void overflow(RTNode node, int pos, Rectangle rectangle, long id, long key, RTNode child) {
+        RTree rtree = node.rtree;
+        int capacity = rtree.getNodeCapacity();
+        RTDirNode parent = (RTDirNode) node.getParent();
+
+        int index = (parent == null) ? 0 : parent.children.indexOf(node);
+        int first = index;
+        int count = 1;
+        if (parent != null && parent.usedSpace > 1) {
+            if (index + 1 == parent.usedSpace)
+                first = index - 1;
+            count = 2;
+        }
+
+        RTNode[] group = new RTNode[count + 1];
+        int total = 1;
+        for (int k = 0; k < count; k++) {
+            group[k] = (parent == null) ? node : parent.getChild(first + k);
+            total += group[k].usedSpace;
+        }
+
+        Rectangle[] rects = new Rectangle[total];
+        long[] ids = new long[total];
+        long[] keys = new long[total];
+        RTNode[] nodes = node.isLeaf() ? null : new RTNode[total];
+        RTNode[] from = new RTNode[total];
+        int n = 0;
+        for (int k = 0; k < count; k++) {
+            RTNode g = group[k];
+            for (int i = 0; i <= g.usedSpace; i++) {
+                if (g == node && i == pos) {
+                    rects[n] = rectangle;
+                    ids[n] = id;
+                    keys[n] = key;
+                    if (nodes != null)
+                        nodes[n] = child;
+                    n++;
+                }
+                if (i == g.usedSpace)
+                    break;
+
+                from[n] = g;
+                if (nodes != null) {
+                    nodes[n] = ((RTDirNode) g).getChild(i);
+                } else {
+                    rects[n] = ((RTDataNode) g).getData(i);
+                    ids[n] = ((RTDataNode) g).ids[i];
+                    keys[n] = ((RTDataNode) g).keys[i];
+                }
+                n++;
+            }
+        }
+
+        int parts = count;
+        if (total > count * capacity) {
+            rtree.countSplit();
+            group[count] = node.isLeaf() ? new RTDataNode(rtree, parent) : new RTDirNode(rtree, parent, node.level);
+            parts++;
+        }
+        distribute(group, parts, rects, ids, keys, nodes, from, total);
+
+        if (parent == null) {
+            RTDirNode root = new RTDirNode(rtree, Constants.NULL, node.level + 1);
+            for (int k = 0; k < parts; k++) {
+                root.addChild(group[k]);
+            }
+            rtree.setRoot(root);
+            return;
+        }
+
+        for (int k = 0; k < count; k++) {
+            parent.setChildBounds(first + k, group[k]);
+        }
+        if (parts == count) {
+            refresh(parent);
+            return;
+        }
+
+        RTNode extra = group[count];
+        int at = first + count;
+        if (parent.usedSpace < capacity) {
+            for (int i = parent.usedSpace; i > at; i--) {
+                parent.moveData(i - 1, i);
+            }
+            parent.setChildBounds(at, extra);
+            parent.children.add(at, extra);
+            parent.usedSpace++;
+            refresh(parent);
+        } else {
+            overflow(parent, at, null, Constants.NIL, 0, extra);
+        }
+    }
+
+    private static void distribute(RTNode[] group, int parts, Rectangle[] rects, long[] ids, long[] keys,
+            RTNode[] nodes, RTNode[] from, int total) {
+        int base = total / parts;
+        int extra = total % parts;
+        int next = 0;
+        for (int k = 0; k < parts; k++) {
+            RTNode g = group[k];
+            int size = base + (k < extra ? 1 : 0);
+            g.usedSpace = size;
+
+            if (nodes == null) {
+                RTDataNode leaf = (RTDataNode) g;
+                for (int i = 0; i < size; i++, next++) {
+                    if (from[next] == leaf) {
+                        leaf.setData(i, rects[next]);
+                        leaf.ids[i] = ids[next];
+                        leaf.keys[i] = keys[next];
+                    } else {
+                        leaf.setEntry(i, rects[next], ids[next], keys[next]);
+                    }
+                }
+            } else {
+                RTDirNode dirNode = (RTDirNode) g;
+                dirNode.children.clear();
+                for (int i = 0; i < size; i++, next++) {
+                    dirNode.setChildBounds(i, nodes[next]);
+                    dirNode.children.add(nodes[next]);
+                    nodes[next].parent = dirNode;
+                }
+            }
+        }
+    }
+
+    private static void refresh(RTNode node) {
+        RTDirNode parent = (RTDirNode) node.getParent();
+        while (parent != null) {
+            if (!parent.setChildBounds(parent.children.indexOf(node), node))
+                return;
+            node = parent;
+            parent = (RTDirNode) node.getParent();
+        }
+    }
+}
\ No newline at end of file
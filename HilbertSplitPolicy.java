@@ -0,0 +1,52 @@
+package rtree;
+
+import java.util.Arrays;
+
+public class HilbertSplitPolicy implements SplitPolicy {
+
+    @Override
+    public int[][] split(float[] bounds, int stride, int total, int minNodeSize) {
+        int dims = bounds.length / (2 * stride);
+        int bits = HilbertCurve.bits(dims);
+
+        float[] min = new float[dims];
+        float[] max = new float[dims];
+        for (int d = 0, row = 0; d < dims; d++, row += 2 * stride) {
+            min[d] = Float.POSITIVE_INFINITY;
+            max[d] = Float.NEGATIVE_INFINITY;
+            for (int i = 0; i < total; i++) {
+                float center = (bounds[row + i] + bounds[row + stride + i]) / 2;
+                min[d] = Math.min(min[d], center);
+                max[d] = Math.max(max[d], center);
+            }
+        }
+
+        long[] keys = new long[total];
+        int[] x = new int[dims];
+        for (int i = 0; i < total; i++) {
+            for (int d = 0, row = 0; d < dims; d++, row += 2 * stride) {
+                float center = (bounds[row + i] + bounds[row + stride + i]) / 2;
+                x[d] = HilbertCurve.quantize(center, min[d], max[d], bits);
+            }
+            keys[i] = HilbertCurve.index(x, bits);
+        }
+
+        Integer[] order = new Integer[total];
+        for (int i = 0; i < total; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(keys[a], keys[b]));
+
+        int half = Math.max(minNodeSize, total / 2);
+        int[] group1 = new int[half];
+        int[] group2 = new int[total - half];
+        for (int i = 0; i < total; i++) {
+            if (i < half) {
+                group1[i] = order[i];
+            } else {
+                group2[i - half] = order[i];
+            }
+        }
+        return new int[][] { group1, group2 };
+    }
+}
\ No newline at end of file
@@ -0,0 +1,78 @@
+package rtree;
+
+import java.util.Arrays;
+
+public class IntPoint implements Cloneable {
+    private int[] data;
+
+    private IntPoint() {
+    }
+
+    static IntPoint wrap(int[] data) {
+        IntPoint point = new IntPoint();
+        point.data = data;
+        return point;
+    }
+
+    public IntPoint(int[] data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Coordinates cannot be null.");
+        }
+        if (data.length < 2) {
+            throw new IllegalArgumentException("Point dimension should be greater than 1.");
+        }
+
+        this.data = new int[data.length];
+        System.arraycopy(data, 0, this.data, 0, data.length);
+    }
+
+    int[] copy() {
+        int[] copy = new int[data.length];
+        System.arraycopy(data, 0, copy, 0, data.length);
+        return copy;
+    }
+
+    public int getDimension() {
+        return data.length;
+    }
+
+    public int getIntCoordinate(int index) {
+        return data[index];
+    }
+
+    public Point toPoint() {
+        return new Point(data);
+    }
+
+    static boolean onGrid(double value) {
+        return value == Math.rint(value) && value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE;
+    }
+
+    @Override
+    protected Object clone() {
+        return wrap(copy());
+    }
+
+    @Override
+    public String toString() {
+        StringBuffer sBuffer = new StringBuffer("(");
+
+        for (int i = 0; i < data.length - 1; i++) {
+            sBuffer.append(data[i]).append(",");
+        }
+
+        sBuffer.append(data[data.length - 1]).append(")");
+
+        return sBuffer.toString();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return (obj instanceof IntPoint) && Arrays.equals(data, ((IntPoint) obj).data);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(data);
+    }
+}
\ No newline at end of file
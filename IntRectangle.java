@@ -0,0 +1,138 @@
+package rtree;
+
+public class IntRectangle extends Rectangle {
+    private final int[] low;
+    private final int[] high;
+    private Point highView;
+
+    public IntRectangle(IntPoint p1, IntPoint p2) {
+        this(check(p1, p2).copy(), p2.copy());
+    }
+
+    IntRectangle(int[] low, int[] high) {
+        this.low = low;
+        this.high = high;
+    }
+
+    private static IntPoint check(IntPoint p1, IntPoint p2) {
+        if (p1 == null || p2 == null)
+            throw new IllegalArgumentException("Points cannot be null.");
+        if (p1.getDimension() != p2.getDimension())
+            throw new IllegalArgumentException("Points must be of same dimension.");
+
+        for (int i = 0; i < p1.getDimension(); i++) {
+            if (p1.getIntCoordinate(i) > p2.getIntCoordinate(i))
+                throw new IllegalArgumentException("Low coordinate cannot exceed high coordinate.");
+        }
+        return p1;
+    }
+
+    private static float roundDown(int value) {
+        float f = value;
+        return ((double) f > value) ? Math.nextDown(f) : f;
+    }
+
+    private static float roundUp(int value) {
+        float f = value;
+        return ((double) f < value) ? Math.nextUp(f) : f;
+    }
+
+    @Override
+    public Point getLow() {
+        float[] rounded = new float[low.length];
+        for (int i = 0; i < low.length; i++) {
+            rounded[i] = roundDown(low[i]);
+        }
+        return Point.wrap(rounded);
+    }
+
+    @Override
+    public Point getHigh() {
+        if (highView == null) {
+            float[] rounded = new float[high.length];
+            for (int i = 0; i < high.length; i++) {
+                rounded[i] = roundUp(high[i]);
+            }
+            highView = Point.wrap(rounded);
+        }
+        return highView;
+    }
+
+    @Override
+    public float getLowCoordinate(int index) {
+        return roundDown(low[index]);
+    }
+
+    @Override
+    public float getHighCoordinate(int index) {
+        return roundUp(high[index]);
+    }
+
+    public int getLowIntCoordinate(int index) {
+        return low[index];
+    }
+
+    public int getHighIntCoordinate(int index) {
+        return high[index];
+    }
+
+    @Override
+    public double getLowDoubleCoordinate(int index) {
+        return low[index];
+    }
+
+    @Override
+    public double getHighDoubleCoordinate(int index) {
+        return high[index];
+    }
+
+    public IntPoint getIntLow() {
+        return IntPoint.wrap(low.clone());
+    }
+
+    public IntPoint getIntHigh() {
+        return IntPoint.wrap(high.clone());
+    }
+
+    @Override
+    boolean isFloat() {
+        return false;
+    }
+
+    @Override
+    int getDimension() {
+        return low.length;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof Rectangle))
+            return false;
+
+        Rectangle rectangle = (Rectangle) obj;
+        if (rectangle instanceof LongRectangle)
+            return rectangle.equals(this);
+        if (rectangle.getDimension() != low.length)
+            return false;
+        for (int i = 0; i < low.length; i++) {
+            if (low[i] != rectangle.getLowDoubleCoordinate(i) || high[i] != rectangle.getHighDoubleCoordinate(i))
+                return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+
+    @Override
+    protected Object clone() {
+        return new IntRectangle(low.clone(), high.clone());
+    }
+
+    @Override
+    public String toString() {
+        return "IntRectangle Low:" + getIntLow() + " High:" + getIntHigh();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,103 @@
+package rtree;
+
+public class LinearSplitPolicy implements SplitPolicy {
+
+    @Override
+    public int[][] split(float[] bounds, int stride, int total, int minNodeSize) {
+        int dims = bounds.length / (2 * stride);
+
+        int[] seed = pickSeeds(bounds, stride, total, dims);
+
+        int[] group1 = new int[total];
+        int[] group2 = new int[total];
+        int i1 = 0, i2 = 0;
+        group1[i1++] = seed[0];
+        group2[i2++] = seed[1];
+
+        float[] mbr1 = new float[dims * 2];
+        float[] mbr2 = new float[dims * 2];
+        MbrKernel.copy(bounds, stride, seed[0], mbr1, 1, 0, dims);
+        MbrKernel.copy(bounds, stride, seed[1], mbr2, 1, 0, dims);
+
+        int rem = total - 2;
+        for (int i = 0; i < total; i++) {
+            if (i == seed[0] || i == seed[1])
+                continue;
+
+            boolean first;
+            if (minNodeSize - i1 == rem) {
+                first = true;
+            } else if (minNodeSize - i2 == rem) {
+                first = false;
+            } else {
+                double area1 = MbrKernel.area(mbr1, 1, 0, dims);
+                double area2 = MbrKernel.area(mbr2, 1, 0, dims);
+                double d1 = MbrKernel.unionArea(mbr1, 1, 0, bounds, stride, i, dims) - area1;
+                double d2 = MbrKernel.unionArea(mbr2, 1, 0, bounds, stride, i, dims) - area2;
+                if (d1 != d2) {
+                    first = d1 < d2;
+                } else if (area1 != area2) {
+                    first = area1 < area2;
+                } else {
+                    first = i1 <= i2;
+                }
+            }
+
+            if (first) {
+                group1[i1++] = i;
+                MbrKernel.include(mbr1, 1, 0, bounds, stride, i, dims);
+            } else {
+                group2[i2++] = i;
+                MbrKernel.include(mbr2, 1, 0, bounds, stride, i, dims);
+            }
+            rem--;
+        }
+
+        int[][] ret = new int[2][];
+        ret[0] = new int[i1];
+        ret[1] = new int[i2];
+        System.arraycopy(group1, 0, ret[0], 0, i1);
+        System.arraycopy(group2, 0, ret[1], 0, i2);
+        return ret;
+    }
+
+    protected int[] pickSeeds(float[] bounds, int stride, int total, int dims) {
+        double separation = Double.NEGATIVE_INFINITY;
+        int s1 = 0, s2 = 1;
+
+        for (int d = 0; d < dims; d++) {
+            int low = 2 * d * stride;
+            int high = low + stride;
+            int highestLow = 0;
+            int lowestHigh = 0;
+            float minLow = Float.POSITIVE_INFINITY;
+            float maxHigh = Float.NEGATIVE_INFINITY;
+
+            for (int i = 0; i < total; i++) {
+                float l = bounds[low + i];
+                float h = bounds[high + i];
+                if (l > bounds[low + highestLow])
+                    highestLow = i;
+                if (h < bounds[high + lowestHigh])
+                    lowestHigh = i;
+                minLow = Math.min(minLow, l);
+                maxHigh = Math.max(maxHigh, h);
+            }
+
+            if (highestLow == lowestHigh)
+                continue;
+
+            double width = maxHigh - minLow;
+            double s = bounds[low + highestLow] - bounds[high + lowestHigh];
+            if (width > 0)
+                s /= width;
+
+            if (s > separation) {
+                separation = s;
+                s1 = lowestHigh;
+                s2 = highestLow;
+            }
+        }
+        return new int[] { s1, s2 };
+    }
+}
\ No newline at end of file
@@ -0,0 +1,102 @@
+package rtree;
+
+import java.util.Arrays;
+
+class LongNodeMap {
+    private static final long EMPTY = Constants.NIL;
+
+    private long[] keys;
+    private RTDataNode[] values;
+    private int size;
+    private int mask;
+
+    LongNodeMap(int capacity) {
+        int n = 16;
+        while (n < capacity * 2)
+            n <<= 1;
+        allocate(n);
+    }
+
+    private void allocate(int n) {
+        keys = new long[n];
+        values = new RTDataNode[n];
+        mask = n - 1;
+        size = 0;
+        Arrays.fill(keys, EMPTY);
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    RTDataNode get(long key) {
+        if (key == EMPTY)
+            return null;
+
+        for (int i = slot(key); keys[i] != EMPTY; i = (i + 1) & mask) {
+            if (keys[i] == key)
+                return values[i];
+        }
+        return null;
+    }
+
+    void put(long key, RTDataNode value) {
+        if (key == EMPTY)
+            return;
+
+        int i = slot(key);
+        while (keys[i] != EMPTY) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size * 2 > keys.length)
+            rehash();
+    }
+
+    void remove(long key, RTDataNode value) {
+        if (key == EMPTY)
+            return;
+
+        int i = slot(key);
+        while (keys[i] != key) {
+            if (keys[i] == EMPTY)
+                return;
+            i = (i + 1) & mask;
+        }
+        if (values[i] != value)
+            return;
+
+        size--;
+        int hole = i;
+        for (i = (i + 1) & mask; keys[i] != EMPTY; i = (i + 1) & mask) {
+            int home = slot(keys[i]);
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                keys[hole] = keys[i];
+                values[hole] = values[i];
+                hole = i;
+            }
+        }
+        keys[hole] = EMPTY;
+        values[hole] = null;
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        RTDataNode[] oldValues = values;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY)
+                put(oldKeys[i], oldValues[i]);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,86 @@
+package rtree;
+
+import java.util.Arrays;
+
+public class LongPoint implements Cloneable {
+    private long[] data;
+
+    private LongPoint() {
+    }
+
+    static LongPoint wrap(long[] data) {
+        LongPoint point = new LongPoint();
+        point.data = data;
+        return point;
+    }
+
+    public LongPoint(long[] data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Coordinates cannot be null.");
+        }
+        if (data.length < 2) {
+            throw new IllegalArgumentException("Point dimension should be greater than 1.");
+        }
+
+        this.data = new long[data.length];
+        System.arraycopy(data, 0, this.data, 0, data.length);
+    }
+
+    long[] copy() {
+        long[] copy = new long[data.length];
+        System.arraycopy(data, 0, copy, 0, data.length);
+        return copy;
+    }
+
+    public int getDimension() {
+        return data.length;
+    }
+
+    public long getLongCoordinate(int index) {
+        return data[index];
+    }
+
+    static boolean onGrid(double value) {
+        return value == Math.rint(value) && value >= -0x1p63 && value < 0x1p63;
+    }
+
+    static int compare(double value, long coordinate) {
+        if (value >= 0x1p63)
+            return 1;
+        if (value < -0x1p63)
+            return -1;
+
+        long floor = (long) Math.floor(value);
+        if (floor != coordinate)
+            return Long.compare(floor, coordinate);
+        return (value > floor) ? 1 : 0;
+    }
+
+    @Override
+    protected Object clone() {
+        return wrap(copy());
+    }
+
+    @Override
+    public String toString() {
+        StringBuffer sBuffer = new StringBuffer("(");
+
+        for (int i = 0; i < data.length - 1; i++) {
+            sBuffer.append(data[i]).append(",");
+        }
+
+        sBuffer.append(data[data.length - 1]).append(")");
+
+        return sBuffer.toString();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return (obj instanceof LongPoint) && Arrays.equals(data, ((LongPoint) obj).data);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(data);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,155 @@
+package rtree;
+
+public class LongRectangle extends Rectangle {
+    private final long[] low;
+    private final long[] high;
+    private Point highView;
+
+    public LongRectangle(LongPoint p1, LongPoint p2) {
+        this(check(p1, p2).copy(), p2.copy());
+    }
+
+    LongRectangle(long[] low, long[] high) {
+        this.low = low;
+        this.high = high;
+    }
+
+    private static LongPoint check(LongPoint p1, LongPoint p2) {
+        if (p1 == null || p2 == null)
+            throw new IllegalArgumentException("Points cannot be null.");
+        if (p1.getDimension() != p2.getDimension())
+            throw new IllegalArgumentException("Points must be of same dimension.");
+
+        for (int i = 0; i < p1.getDimension(); i++) {
+            if (p1.getLongCoordinate(i) > p2.getLongCoordinate(i))
+                throw new IllegalArgumentException("Low coordinate cannot exceed high coordinate.");
+        }
+        return p1;
+    }
+
+    private static float roundDown(long value) {
+        float f = value;
+        return (LongPoint.compare(f, value) > 0) ? Math.nextDown(f) : f;
+    }
+
+    private static float roundUp(long value) {
+        float f = value;
+        return (LongPoint.compare(f, value) < 0) ? Math.nextUp(f) : f;
+    }
+
+    @Override
+    public Point getLow() {
+        float[] rounded = new float[low.length];
+        for (int i = 0; i < low.length; i++) {
+            rounded[i] = roundDown(low[i]);
+        }
+        return Point.wrap(rounded);
+    }
+
+    @Override
+    public Point getHigh() {
+        if (highView == null) {
+            float[] rounded = new float[high.length];
+            for (int i = 0; i < high.length; i++) {
+                rounded[i] = roundUp(high[i]);
+            }
+            highView = Point.wrap(rounded);
+        }
+        return highView;
+    }
+
+    @Override
+    public float getLowCoordinate(int index) {
+        return roundDown(low[index]);
+    }
+
+    @Override
+    public float getHighCoordinate(int index) {
+        return roundUp(high[index]);
+    }
+
+    public long getLowLongCoordinate(int index) {
+        return low[index];
+    }
+
+    public long getHighLongCoordinate(int index) {
+        return high[index];
+    }
+
+    @Override
+    public double getLowDoubleCoordinate(int index) {
+        return low[index];
+    }
+
+    @Override
+    public double getHighDoubleCoordinate(int index) {
+        return high[index];
+    }
+
+    public LongPoint getLongLow() {
+        return LongPoint.wrap(low.clone());
+    }
+
+    public LongPoint getLongHigh() {
+        return LongPoint.wrap(high.clone());
+    }
+
+    @Override
+    boolean isFloat() {
+        return false;
+    }
+
+    @Override
+    int getDimension() {
+        return low.length;
+    }
+
+    @Override
+    boolean isExact() {
+        for (int i = 0; i < low.length; i++) {
+            if (LongPoint.compare(getLowCoordinate(i), low[i]) != 0
+                    || LongPoint.compare(getHighCoordinate(i), high[i]) != 0)
+                return false;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof Rectangle))
+            return false;
+
+        Rectangle rectangle = (Rectangle) obj;
+        if (rectangle.getDimension() != low.length)
+            return false;
+        if (rectangle instanceof LongRectangle) {
+            LongRectangle other = (LongRectangle) rectangle;
+            for (int i = 0; i < low.length; i++) {
+                if (low[i] != other.low[i] || high[i] != other.high[i])
+                    return false;
+            }
+            return true;
+        }
+        for (int i = 0; i < low.length; i++) {
+            if (LongPoint.compare(rectangle.getLowDoubleCoordinate(i), low[i]) != 0
+                    || LongPoint.compare(rectangle.getHighDoubleCoordinate(i), high[i]) != 0)
+                return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+
+    @Override
+    protected Object clone() {
+        return new LongRectangle(low.clone(), high.clone());
+    }
+
+    @Override
+    public String toString() {
+        return "LongRectangle Low:" + getLongLow() + " High:" + getLongHigh();
+    }
+}
\ No newline at end of file
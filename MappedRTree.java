@@ -0,0 +1,760 @@
+package rtree;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+public class MappedRTree implements Closeable {
+    private static final int MAGIC = 0x52545047;
+    private static final int VERSION = 3;
+    private static final int HEADER_SIZE = 64;
+    private static final int NODE_HEADER_SIZE = 12;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] chunks;
+    private final int pagesPerChunk;
+    private final int pageSize;
+    private final int version;
+    private final int dimension;
+    private final int capacity;
+    private final int pageCount;
+    private final int height;
+    private final long size;
+    private final int root;
+    private final Set<Long> deleted = new HashSet<Long>();
+    private RTree delta;
+    private long inserted;
+    private long[] idKeys;
+    private long[] idPositions;
+
+    private MappedRTree(FileChannel channel) throws IOException {
+        this.channel = channel;
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0)
+                throw new IOException("Truncated page file header.");
+        }
+        header.flip();
+
+        if (header.getInt() != MAGIC)
+            throw new IOException("Not an RTree page file.");
+        version = header.getInt();
+        if (version < 1 || version > VERSION)
+            throw new IOException("Unsupported page file version.");
+
+        dimension = header.getInt();
+        capacity = header.getInt();
+        pageSize = header.getInt();
+        pageCount = header.getInt();
+        height = header.getInt();
+        size = header.getLong();
+        root = (version >= 3) ? header.getInt() : 0;
+
+        if (pageSize != pageSize(version, dimension, capacity) || root < 0 || root >= pageCount)
+            throw new IOException("Corrupt page file header.");
+        if (channel.size() < HEADER_SIZE + (long) pageCount * pageSize)
+            throw new IOException("Truncated page file.");
+
+        pagesPerChunk = Math.max(1, Integer.MAX_VALUE / pageSize);
+        int chunkCount = (pageCount + pagesPerChunk - 1) / pagesPerChunk;
+        chunks = new MappedByteBuffer[chunkCount];
+        for (int i = 0; i < chunkCount; i++) {
+            long offset = HEADER_SIZE + (long) i * pagesPerChunk * pageSize;
+            int pages = Math.min(pagesPerChunk, pageCount - i * pagesPerChunk);
+            chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset, (long) pages * pageSize);
+            chunks[i].order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    public static MappedRTree open(Path file) throws IOException {
+        if (file == null)
+            throw new IllegalArgumentException("File cannot be null.");
+
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new MappedRTree(channel);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public static void write(RTree rtree, Path file) throws IOException {
+        if (rtree == null)
+            throw new IllegalArgumentException("RTree cannot be null.");
+        if (file == null)
+            throw new IllegalArgumentException("File cannot be null.");
+        if (rtree.getCoordinateType() != Constants.FLOAT_COORDINATES)
+            throw new IllegalArgumentException("Only float coordinate trees can be paged.");
+
+        int dimension = rtree.getDimension();
+        int capacity = rtree.getNodeCapacity();
+        int pageSize = pageSize(VERSION, dimension, capacity);
+
+        List<RTNode> nodes = new ArrayList<RTNode>();
+        nodes.add(rtree.getRoot());
+        int[] firstChild = new int[16];
+        long size = 0;
+        for (int i = 0; i < nodes.size(); i++) {
+            RTNode node = nodes.get(i);
+            if (i == firstChild.length) {
+                int[] grown = new int[firstChild.length * 2];
+                System.arraycopy(firstChild, 0, grown, 0, i);
+                firstChild = grown;
+            }
+            firstChild[i] = nodes.size();
+            if (node.isLeaf()) {
+                size += node.usedSpace;
+            } else {
+                nodes.addAll(((RTDirNode) node).children);
+            }
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC);
+            header.putInt(VERSION);
+            header.putInt(dimension);
+            header.putInt(capacity);
+            header.putInt(pageSize);
+            header.putInt(nodes.size());
+            header.putInt(rtree.getRoot().level + 1);
+            header.putLong(size);
+            header.putInt(0);
+            header.clear();
+            writeFully(channel, header);
+
+            ByteBuffer page = ByteBuffer.allocate(pageSize).order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = 0; i < nodes.size(); i++) {
+                RTNode node = nodes.get(i);
+                page.clear();
+                page.putInt(node.level);
+                page.putInt(node.usedSpace);
+                page.putInt(node.isLeaf() ? Constants.NIL : firstChild[i]);
+                for (int row = 0; row < 2 * dimension; row++) {
+                    for (int j = 0; j < capacity; j++) {
+                        page.putFloat(j < node.usedSpace ? node.bounds[row * node.stride + j] : 0);
+                    }
+                }
+                for (int j = 0; j < capacity; j++) {
+                    page.putLong(node.isLeaf() && j < node.usedSpace ? ((RTDataNode) node).ids[j] : Constants.NIL);
+                }
+                page.clear();
+                writeFully(channel, page);
+            }
+        }
+    }
+
+    public static Builder builder(Path file, int dimension, int capacity) throws IOException {
+        if (file == null)
+            throw new IllegalArgumentException("File cannot be null.");
+        if (dimension < 2)
+            throw new IllegalArgumentException("RTree dimension should be greater than 1.");
+        if (capacity < 2)
+            throw new IllegalArgumentException("Node capacity must be at least 2.");
+
+        return new Builder(file, dimension, capacity);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static int pageSize(int version, int dimension, int capacity) {
+        int size = NODE_HEADER_SIZE + 2 * dimension * capacity * 4;
+        return (version >= 2) ? size + capacity * 8 : size;
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    public int getNodeCapacity() {
+        return capacity;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public long size() {
+        return size - deleted.size() + inserted;
+    }
+
+    public void insert(Rectangle rectangle, long id) {
+        checkRectangle(rectangle);
+        if (contains(id))
+            throw new IllegalArgumentException("Duplicate id.");
+
+        delta().insert(rectangle, id);
+        inserted++;
+    }
+
+    public boolean delete(long id) {
+        if (delta != null && delta.delete(id)) {
+            inserted--;
+            return true;
+        }
+        long position = position(id);
+        return position >= 0 && deleted.add(position);
+    }
+
+    public boolean delete(Rectangle rectangle) {
+        checkRectangle(rectangle);
+        if (delta != null && delta.delete(rectangle) >= 0) {
+            inserted--;
+            return true;
+        }
+
+        float[] box = new float[2 * dimension];
+        rectangle.copyBounds(box, 1, 0);
+        long[] match = { -1 };
+        scan(box, (buffer, entries, i, position) -> {
+            if (match[0] < 0 && sameBounds(buffer, entries, i, box))
+                match[0] = position;
+        });
+        return match[0] >= 0 && deleted.add(match[0]);
+    }
+
+    public boolean update(long id, Rectangle rectangle) {
+        checkRectangle(rectangle);
+        if (delta != null && delta.contains(id))
+            return delta.update(id, rectangle);
+
+        long position = position(id);
+        if (position < 0 || deleted.contains(position))
+            return false;
+        delta().insert(rectangle, id);
+        deleted.add(position);
+        inserted++;
+        return true;
+    }
+
+    public boolean contains(long id) {
+        if (delta != null && delta.contains(id))
+            return true;
+        long position = position(id);
+        return position >= 0 && !deleted.contains(position);
+    }
+
+    public void writeTo(Path file) throws IOException {
+        try (Builder builder = builder(file, dimension, capacity)) {
+            for (int page = 0; page < pageCount; page++) {
+                ByteBuffer buffer = chunks[page / pagesPerChunk];
+                int base = (page % pagesPerChunk) * pageSize;
+                if (buffer.getInt(base) != 0)
+                    continue;
+
+                int count = buffer.getInt(base + 4);
+                int entries = base + NODE_HEADER_SIZE;
+                for (int i = 0; i < count; i++) {
+                    if (deleted.isEmpty() || !deleted.contains((long) page * capacity + i))
+                        builder.add(readRectangle(buffer, entries, i), readId(buffer, entries, i));
+                }
+            }
+
+            if (delta != null) {
+                List<RTNode> stack = new ArrayList<RTNode>();
+                stack.add(delta.getRoot());
+                while (!stack.isEmpty()) {
+                    RTNode node = stack.remove(stack.size() - 1);
+                    if (node.isLeaf()) {
+                        for (int i = 0; i < node.usedSpace; i++) {
+                            builder.add(node.getData(i), ((RTDataNode) node).ids[i]);
+                        }
+                    } else {
+                        stack.addAll(((RTDirNode) node).children);
+                    }
+                }
+            }
+            builder.finish();
+        }
+    }
+
+    private RTree delta() {
+        if (delta == null)
+            delta = new RTree(Math.max(capacity, 4), 0.4f, Constants.RSTAR, dimension);
+        return delta;
+    }
+
+    private void checkRectangle(Rectangle rectangle) {
+        if (rectangle == null)
+            throw new IllegalArgumentException("Rectangle cannot be null.");
+        if (rectangle.getDimension() != dimension)
+            throw new IllegalArgumentException("Rectangle dimension different than RTree dimension.");
+    }
+
+    private long position(long id) {
+        if (id == Constants.NIL || version < 2)
+            return -1;
+        if (idKeys == null)
+            indexIds();
+
+        int mask = idKeys.length - 1;
+        for (int i = slot(id, mask); idKeys[i] != Constants.NIL; i = (i + 1) & mask) {
+            if (idKeys[i] == id)
+                return idPositions[i];
+        }
+        return -1;
+    }
+
+    private void indexIds() {
+        int n = 16;
+        while (n < size * 2)
+            n <<= 1;
+        long[] keys = new long[n];
+        long[] positions = new long[n];
+        Arrays.fill(keys, Constants.NIL);
+
+        for (int page = 0; page < pageCount; page++) {
+            ByteBuffer buffer = chunks[page / pagesPerChunk];
+            int base = (page % pagesPerChunk) * pageSize;
+            if (buffer.getInt(base) != 0)
+                continue;
+
+            int count = buffer.getInt(base + 4);
+            for (int i = 0; i < count; i++) {
+                long id = readId(buffer, base + NODE_HEADER_SIZE, i);
+                if (id == Constants.NIL)
+                    continue;
+                int s = slot(id, n - 1);
+                while (keys[s] != Constants.NIL && keys[s] != id)
+                    s = (s + 1) & (n - 1);
+                if (keys[s] == Constants.NIL) {
+                    keys[s] = id;
+                    positions[s] = (long) page * capacity + i;
+                }
+            }
+        }
+        idKeys = keys;
+        idPositions = positions;
+    }
+
+    private static int slot(long id, int mask) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    public long search(Rectangle window, Consumer<Rectangle> consumer) {
+        if (consumer == null)
+            throw new IllegalArgumentException("Consumer cannot be null.");
+
+        return search(window, consumer, null);
+    }
+
+    public long searchEntries(Rectangle window, EntryConsumer consumer) {
+        if (consumer == null)
+            throw new IllegalArgumentException("Consumer cannot be null.");
+
+        return search(window, null, consumer);
+    }
+
+    private long search(Rectangle window, Consumer<Rectangle> consumer, EntryConsumer entryConsumer) {
+        if (window == null)
+            throw new IllegalArgumentException("Rectangle cannot be null.");
+
+        if (window.getDimension() != dimension) {
+            throw new IllegalArgumentException("Rectangle dimension different than RTree dimension.");
+        }
+
+        float[] box = new float[2 * dimension];
+        window.copyBounds(box, 1, 0);
+
+        long found = scan(box, (buffer, entries, i, position) -> {
+            if (entryConsumer != null) {
+                entryConsumer.accept(readId(buffer, entries, i), readRectangle(buffer, entries, i));
+            } else {
+                consumer.accept(readRectangle(buffer, entries, i));
+            }
+        });
+        if (delta != null)
+            found += (entryConsumer != null) ? delta.searchEntries(window, entryConsumer)
+                    : delta.search(window, consumer);
+        return found;
+    }
+
+    private long scan(float[] box, LeafVisitor visitor) {
+        int[] stack = new int[32];
+        int top = 0;
+        long found = 0;
+        stack[top++] = root;
+
+        while (top > 0) {
+            int page = stack[--top];
+            ByteBuffer buffer = chunks[page / pagesPerChunk];
+            int base = (page % pagesPerChunk) * pageSize;
+
+            int level = buffer.getInt(base);
+            int count = buffer.getInt(base + 4);
+            int firstChild = buffer.getInt(base + 8);
+            int entries = base + NODE_HEADER_SIZE;
+
+            for (int i = 0; i < count; i++) {
+                if (!intersects(buffer, entries, i, box))
+                    continue;
+
+                if (level == 0) {
+                    long position = (long) page * capacity + i;
+                    if (!deleted.isEmpty() && deleted.contains(position))
+                        continue;
+                    visitor.visit(buffer, entries, i, position);
+                    found++;
+                } else {
+                    if (top == stack.length) {
+                        int[] grown = new int[stack.length * 2];
+                        System.arraycopy(stack, 0, grown, 0, top);
+                        stack = grown;
+                    }
+                    stack[top++] = firstChild + i;
+                }
+            }
+        }
+        return found;
+    }
+
+    public List<Rectangle> nearest(Point point, int k) {
+        List<Rectangle> list = new ArrayList<Rectangle>(Math.min(k, 64));
+        nearestEntries(point, k, (id, rectangle) -> list.add(rectangle));
+        return list;
+    }
+
+    public int nearestEntries(Point point, int k, EntryConsumer consumer) {
+        if (point == null)
+            throw new IllegalArgumentException("Point cannot be null.");
+        if (point.getDimension() != dimension)
+            throw new IllegalArgumentException("Point dimension different than RTree dimension.");
+        if (k < 1)
+            throw new IllegalArgumentException("k must be positive.");
+        if (consumer == null)
+            throw new IllegalArgumentException("Consumer cannot be null.");
+
+        float[] p = new float[dimension];
+        for (int d = 0; d < dimension; d++) {
+            p[d] = point.getFloatCoordinate(d);
+        }
+
+        DistanceQueue queue = new DistanceQueue(capacity * 4);
+        DistanceQueue best = new DistanceQueue(Math.min(k, 64));
+        double bound = Double.POSITIVE_INFINITY;
+        int found = 0;
+        queue.add(0, null, root);
+        if (delta != null) {
+            NearestNeighborIterator iterator = delta.nearestIterator(point);
+            for (int n = 0; n < k && iterator.hasNext(); n++) {
+                Rectangle rectangle = iterator.next();
+                double d = minDistance(rectangle, p);
+                queue.add(d, rectangle, iterator.id());
+                bound = offer(best, k, d, bound);
+            }
+        }
+
+        while (found < k && !queue.isEmpty()) {
+            double distance = queue.peekKey();
+            long tag = queue.peekTag();
+            Object top = queue.poll();
+
+            if (top != null) {
+                consumer.accept(tag, (Rectangle) top);
+                found++;
+                continue;
+            }
+            if (distance > bound)
+                continue;
+
+            int page = (int) tag;
+            ByteBuffer buffer = chunks[page / pagesPerChunk];
+            int base = (page % pagesPerChunk) * pageSize;
+
+            int level = buffer.getInt(base);
+            int count = buffer.getInt(base + 4);
+            int firstChild = buffer.getInt(base + 8);
+            int entries = base + NODE_HEADER_SIZE;
+
+            for (int i = 0; i < count; i++) {
+                if (level == 0 && !deleted.isEmpty() && deleted.contains((long) page * capacity + i))
+                    continue;
+                double d = minDistance(buffer, entries, i, p);
+                if (d > bound)
+                    continue;
+
+                if (level == 0) {
+                    queue.add(d, readRectangle(buffer, entries, i), readId(buffer, entries, i));
+                    bound = offer(best, k, d, bound);
+                } else {
+                    queue.add(d, null, firstChild + i);
+                }
+            }
+        }
+        return found;
+    }
+
+    private static double offer(DistanceQueue best, int k, double d, double bound) {
+        if (best.size() < k) {
+            best.add(-d, null);
+        } else if (d < -best.peekKey()) {
+            best.poll();
+            best.add(-d, null);
+        }
+        return (best.size() == k && -best.peekKey() < bound) ? -best.peekKey() : bound;
+    }
+
+    private double minDistance(Rectangle rectangle, float[] point) {
+        double distance = 0;
+        for (int d = 0; d < dimension; d++) {
+            float p = point[d];
+            float l = rectangle.getLowCoordinate(d);
+            float h = rectangle.getHighCoordinate(d);
+            double delta = 0;
+            if (p < l) {
+                delta = l - p;
+            } else if (p > h) {
+                delta = p - h;
+            }
+            distance += delta * delta;
+        }
+        return distance;
+    }
+
+    private double minDistance(ByteBuffer buffer, int entries, int i, float[] point) {
+        int rowSize = capacity * 4;
+        double distance = 0;
+        for (int d = 0, row = entries + i * 4; d < dimension; d++, row += 2 * rowSize) {
+            float p = point[d];
+            float l = buffer.getFloat(row);
+            float h = buffer.getFloat(row + rowSize);
+            double delta = 0;
+            if (p < l) {
+                delta = l - p;
+            } else if (p > h) {
+                delta = p - h;
+            }
+            distance += delta * delta;
+        }
+        return distance;
+    }
+
+    private boolean intersects(ByteBuffer buffer, int entries, int i, float[] box) {
+        int rowSize = capacity * 4;
+        for (int d = 0, row = entries + i * 4; d < box.length; d += 2, row += 2 * rowSize) {
+            if (buffer.getFloat(row) > box[d + 1] || buffer.getFloat(row + rowSize) < box[d])
+                return false;
+        }
+        return true;
+    }
+
+    private boolean sameBounds(ByteBuffer buffer, int entries, int i, float[] box) {
+        int rowSize = capacity * 4;
+        for (int d = 0, row = entries + i * 4; d < box.length; d += 2, row += 2 * rowSize) {
+            if (buffer.getFloat(row) != box[d] || buffer.getFloat(row + rowSize) != box[d + 1])
+                return false;
+        }
+        return true;
+    }
+
+    private Rectangle readRectangle(ByteBuffer buffer, int entries, int i) {
+        int rowSize = capacity * 4;
+        float[] low = new float[dimension];
+        float[] high = new float[dimension];
+        for (int d = 0, row = entries + i * 4; d < dimension; d++, row += 2 * rowSize) {
+            low[d] = buffer.getFloat(row);
+            high[d] = buffer.getFloat(row + rowSize);
+        }
+        return new Rectangle(new Point(low), new Point(high));
+    }
+
+    private long readId(ByteBuffer buffer, int entries, int i) {
+        if (version < 2)
+            return Constants.NIL;
+        return buffer.getLong(entries + 2 * dimension * capacity * 4 + i * 8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private interface LeafVisitor {
+        void visit(ByteBuffer buffer, int entries, int i, long position);
+    }
+
+    public static final class Builder implements Closeable {
+        private final Path file;
+        private final FileChannel channel;
+        private final int dimension;
+        private final int capacity;
+        private final int pageSize;
+        private final List<Level> levels = new ArrayList<Level>();
+        private final float[] box;
+        private long size;
+        private boolean finished;
+
+        private Builder(Path file, int dimension, int capacity) throws IOException {
+            this.file = file;
+            this.dimension = dimension;
+            this.capacity = capacity;
+            this.pageSize = pageSize(VERSION, dimension, capacity);
+            this.box = new float[2 * dimension];
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            channel.position(HEADER_SIZE);
+            levels.add(new Level(channel, pageSize, dimension));
+        }
+
+        public void add(Rectangle rectangle, long id) throws IOException {
+            if (finished)
+                throw new IllegalStateException("Builder is finished.");
+            if (rectangle == null)
+                throw new IllegalArgumentException("Rectangle cannot be null.");
+            if (rectangle.getDimension() != dimension)
+                throw new IllegalArgumentException("Rectangle dimension different than RTree dimension.");
+            if (rectangle instanceof DoubleRectangle)
+                throw new IllegalArgumentException("Double rectangles cannot be paged.");
+
+            rectangle.copyBounds(box, 1, 0);
+            put(0, box, id);
+            size++;
+        }
+
+        public void finish() throws IOException {
+            if (finished)
+                throw new IllegalStateException("Builder is finished.");
+            finished = true;
+
+            int top = 0;
+            while (top < levels.size() - 1 || levels.get(top).pages > 0) {
+                if (levels.get(top).count > 0)
+                    flush(top);
+                top++;
+            }
+            writePage(top);
+
+            int pageCount = 0;
+            for (int k = 0; k <= top; k++) {
+                Level level = levels.get(k);
+                if (k > 0)
+                    level.copyTo(channel, pageCount - levels.get(k - 1).pages);
+                pageCount += level.pages;
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC);
+            header.putInt(VERSION);
+            header.putInt(dimension);
+            header.putInt(capacity);
+            header.putInt(pageSize);
+            header.putInt(pageCount);
+            header.putInt(top + 1);
+            header.putLong(size);
+            header.putInt(pageCount - 1);
+            header.clear();
+            channel.position(0);
+            writeFully(channel, header);
+            close();
+        }
+
+        private void put(int k, float[] box, long ref) throws IOException {
+            if (k == levels.size()) {
+                Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), "rtree", ".level");
+                levels.add(new Level(FileChannel.open(temp, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                        StandardOpenOption.DELETE_ON_CLOSE), pageSize, dimension));
+            }
+
+            Level level = levels.get(k);
+            if (level.count == capacity)
+                flush(k);
+
+            int slot = level.count++;
+            ByteBuffer page = level.page;
+            for (int row = 0; row < 2 * dimension; row++) {
+                page.putFloat(NODE_HEADER_SIZE + (row * capacity + slot) * 4, box[row]);
+            }
+            for (int d = 0; d < box.length; d += 2) {
+                level.mbr[d] = (slot == 0) ? box[d] : Math.min(level.mbr[d], box[d]);
+                level.mbr[d + 1] = (slot == 0) ? box[d + 1] : Math.max(level.mbr[d + 1], box[d + 1]);
+            }
+            if (k == 0) {
+                page.putLong(NODE_HEADER_SIZE + 2 * dimension * capacity * 4 + slot * 8, ref);
+            } else if (slot == 0) {
+                level.firstChild = (int) ref;
+            }
+        }
+
+        private void flush(int k) throws IOException {
+            int index = writePage(k);
+            put(k + 1, levels.get(k).mbr, index);
+        }
+
+        private int writePage(int k) throws IOException {
+            Level level = levels.get(k);
+            ByteBuffer page = level.page;
+            for (int slot = level.count; slot < capacity; slot++) {
+                for (int row = 0; row < 2 * dimension; row++) {
+                    page.putFloat(NODE_HEADER_SIZE + (row * capacity + slot) * 4, 0);
+                }
+                page.putLong(NODE_HEADER_SIZE + 2 * dimension * capacity * 4 + slot * 8, Constants.NIL);
+            }
+            page.putInt(0, k);
+            page.putInt(4, level.count);
+            page.putInt(8, (k == 0) ? Constants.NIL : level.firstChild);
+            page.clear();
+            writeFully(level.channel, page);
+            level.count = 0;
+            return level.pages++;
+        }
+
+        @Override
+        public void close() throws IOException {
+            for (int k = 1; k < levels.size(); k++) {
+                levels.get(k).channel.close();
+            }
+            channel.close();
+            if (!finished)
+                Files.deleteIfExists(file);
+        }
+    }
+
+    private static final class Level {
+        final FileChannel channel;
+        final ByteBuffer page;
+        final float[] mbr;
+        int count;
+        int pages;
+        int firstChild;
+
+        Level(FileChannel channel, int pageSize, int dimension) {
+            this.channel = channel;
+            this.page = ByteBuffer.allocate(pageSize).order(ByteOrder.LITTLE_ENDIAN);
+            this.mbr = new float[2 * dimension];
+        }
+
+        void copyTo(FileChannel target, int childBase) throws IOException {
+            channel.position(0);
+            for (int i = 0; i < pages; i++) {
+                page.clear();
+                while (page.hasRemaining()) {
+                    if (channel.read(page) < 0)
+                        throw new IOException("Truncated page file level.");
+                }
+                page.putInt(8, page.getInt(8) + childBase);
+                page.clear();
+                writeFully(target, page);
+            }
+        }
+    }
+}
\ No newline at end of file
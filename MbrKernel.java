@@ -0,0 +1,172 @@
+package rtree;
+
+public final class MbrKernel {
+
+    private MbrKernel() {
+    }
+
+    public static double area(float[] a, int aStride, int aSlot, int dims) {
+        if (dims == 2)
+            return (double) (a[aSlot + aStride] - a[aSlot]) * (a[aSlot + 3 * aStride] - a[aSlot + 2 * aStride]);
+        if (dims == 3)
+            return (double) (a[aSlot + aStride] - a[aSlot]) * (a[aSlot + 3 * aStride] - a[aSlot + 2 * aStride])
+                    * (a[aSlot + 5 * aStride] - a[aSlot + 4 * aStride]);
+
+        double area = 1;
+        for (int d = 0, row = aSlot; d < dims; d++, row += 2 * aStride) {
+            area *= a[row + aStride] - a[row];
+        }
+        return area;
+    }
+
+    public static double margin(float[] a, int aStride, int aSlot, int dims) {
+        double margin = 0;
+        for (int d = 0, row = aSlot; d < dims; d++, row += 2 * aStride) {
+            margin += a[row + aStride] - a[row];
+        }
+        return margin;
+    }
+
+    public static double unionArea(float[] a, int aStride, int aSlot, float[] b, int bStride, int bSlot, int dims) {
+        double area = 1;
+        for (int d = 0, ra = aSlot, rb = bSlot; d < dims; d++, ra += 2 * aStride, rb += 2 * bStride) {
+            area *= Math.max(a[ra + aStride], b[rb + bStride]) - Math.min(a[ra], b[rb]);
+        }
+        return area;
+    }
+
+    public static double enlargement(float[] a, int aStride, int aSlot, float[] b, int bStride, int bSlot, int dims) {
+        if (dims == 2)
+            return enlargement2(a, aStride, aSlot, b, bStride, bSlot);
+        if (dims == 3)
+            return enlargement3(a, aStride, aSlot, b, bStride, bSlot);
+
+        double union = 1;
+        double area = 1;
+        for (int d = 0, ra = aSlot, rb = bSlot; d < dims; d++, ra += 2 * aStride, rb += 2 * bStride) {
+            float lo = a[ra];
+            float hi = a[ra + aStride];
+            union *= Math.max(hi, b[rb + bStride]) - Math.min(lo, b[rb]);
+            area *= hi - lo;
+        }
+        return union - area;
+    }
+
+    private static double enlargement2(float[] a, int aStride, int aSlot, float[] b, int bStride, int bSlot) {
+        float xl = a[aSlot], xh = a[aSlot + aStride], yl = a[aSlot + 2 * aStride], yh = a[aSlot + 3 * aStride];
+        double union = (double) (Math.max(xh, b[bSlot + bStride]) - Math.min(xl, b[bSlot]))
+                * (Math.max(yh, b[bSlot + 3 * bStride]) - Math.min(yl, b[bSlot + 2 * bStride]));
+        return union - (double) (xh - xl) * (yh - yl);
+    }
+
+    private static double enlargement3(float[] a, int aStride, int aSlot, float[] b, int bStride, int bSlot) {
+        float xl = a[aSlot], xh = a[aSlot + aStride], yl = a[aSlot + 2 * aStride], yh = a[aSlot + 3 * aStride],
+                zl = a[aSlot + 4 * aStride], zh = a[aSlot + 5 * aStride];
+        double union = (double) (Math.max(xh, b[bSlot + bStride]) - Math.min(xl, b[bSlot]))
+                * (Math.max(yh, b[bSlot + 3 * bStride]) - Math.min(yl, b[bSlot + 2 * bStride]))
+                * (Math.max(zh, b[bSlot + 5 * bStride]) - Math.min(zl, b[bSlot + 4 * bStride]));
+        return union - (double) (xh - xl) * (yh - yl) * (zh - zl);
+    }
+
+    public static int leastEnlargement(float[] a, int aStride, int count, float[] b, int bStride, int bSlot,
+            int dims) {
+        double best = Double.POSITIVE_INFINITY;
+        int sel = -1;
+
+        for (int i = 0; i < count; i++) {
+            double enlargement = enlargement(a, aStride, i, b, bStride, bSlot, dims);
+            if (enlargement < best) {
+                best = enlargement;
+                sel = i;
+            } else if (enlargement == best) {
+                sel = (area(a, aStride, sel, dims) < area(a, aStride, i, dims)) ? sel : i;
+            }
+        }
+        return sel;
+    }
+
+    public static double overlap(float[] a, int aStride, int aSlot, float[] b, int bStride, int bSlot, int dims) {
+        if (dims == 2)
+            return overlap2(a, aStride, aSlot, b, bStride, bSlot);
+        if (dims == 3)
+            return overlap3(a, aStride, aSlot, b, bStride, bSlot);
+
+        double overlap = 1;
+        for (int d = 0, ra = aSlot, rb = bSlot; d < dims; d++, ra += 2 * aStride, rb += 2 * bStride) {
+            float extent = Math.min(a[ra + aStride], b[rb + bStride]) - Math.max(a[ra], b[rb]);
+            if (extent < 0)
+                return 0;
+            overlap *= extent;
+        }
+        return overlap;
+    }
+
+    private static double overlap2(float[] a, int aStride, int aSlot, float[] b, int bStride, int bSlot) {
+        float x = Math.min(a[aSlot + aStride], b[bSlot + bStride]) - Math.max(a[aSlot], b[bSlot]);
+        float y = Math.min(a[aSlot + 3 * aStride], b[bSlot + 3 * bStride])
+                - Math.max(a[aSlot + 2 * aStride], b[bSlot + 2 * bStride]);
+        return (x < 0 || y < 0) ? 0 : (double) x * y;
+    }
+
+    private static double overlap3(float[] a, int aStride, int aSlot, float[] b, int bStride, int bSlot) {
+        float x = Math.min(a[aSlot + aStride], b[bSlot + bStride]) - Math.max(a[aSlot], b[bSlot]);
+        float y = Math.min(a[aSlot + 3 * aStride], b[bSlot + 3 * bStride])
+                - Math.max(a[aSlot + 2 * aStride], b[bSlot + 2 * bStride]);
+        float z = Math.min(a[aSlot + 5 * aStride], b[bSlot + 5 * bStride])
+                - Math.max(a[aSlot + 4 * aStride], b[bSlot + 4 * bStride]);
+        return (x < 0 || y < 0 || z < 0) ? 0 : (double) x * y * z;
+    }
+
+    public static void copy(float[] src, int srcStride, int srcSlot, float[] dst, int dstStride, int dstSlot,
+            int dims) {
+        for (int d = 0, rs = srcSlot, rd = dstSlot; d < dims; d++, rs += 2 * srcStride, rd += 2 * dstStride) {
+            dst[rd] = src[rs];
+            dst[rd + dstStride] = src[rs + srcStride];
+        }
+    }
+
+    public static void include(float[] dst, int dstStride, int dstSlot, float[] src, int srcStride, int srcSlot,
+            int dims) {
+        for (int d = 0, rd = dstSlot, rs = srcSlot; d < dims; d++, rd += 2 * dstStride, rs += 2 * srcStride) {
+            dst[rd] = Math.min(dst[rd], src[rs]);
+            dst[rd + dstStride] = Math.max(dst[rd + dstStride], src[rs + srcStride]);
+        }
+    }
+
+    public static void reset(float[] dst, int dstStride, int dstSlot, int dims) {
+        for (int d = 0, rd = dstSlot; d < dims; d++, rd += 2 * dstStride) {
+            dst[rd] = Float.POSITIVE_INFINITY;
+            dst[rd + dstStride] = Float.NEGATIVE_INFINITY;
+        }
+    }
+
+    public static Rectangle bounds(float[] a, int aStride, int count, int dims) {
+        float[] min = new float[dims];
+        float[] max = new float[dims];
+        if (count > 0) {
+            for (int d = 0, row = 0; d < dims; d++, row += 2 * aStride) {
+                float lo = a[row];
+                float hi = a[row + aStride];
+                for (int i = 1; i < count; i++) {
+                    lo = Math.min(lo, a[row + i]);
+                    hi = Math.max(hi, a[row + aStride + i]);
+                }
+                min[d] = lo;
+                max[d] = hi;
+            }
+        }
+        return Rectangle.wrap(min, max);
+    }
+
+    public static float[] pack(Rectangle[] entries, int total) {
+        if (entries == null || total < 1 || entries.length < total)
+            throw new IllegalArgumentException("Rectangle array is empty.");
+
+        int dims = entries[0].getDimension();
+        float[] bounds = new float[2 * dims * total];
+        for (int i = 0; i < total; i++) {
+            entries[i].copyBounds(bounds, total, i);
+        }
+        return bounds;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,154 @@
+package rtree;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+public class NearestNeighborIterator implements Iterator<Rectangle> {
+    private final Point point;
+    private final double[] query;
+    private final int k;
+    private final DistanceQueue queue;
+    private final DistanceQueue best;
+    private final boolean minMax;
+    private final boolean floatLeaves;
+    private double bound = Double.POSITIVE_INFINITY;
+    private Rectangle next;
+    private double nextDistance;
+    private double lastDistance;
+    private long nextId;
+    private long lastId;
+    private int returned;
+    private long nodesVisited;
+    private long entriesTested;
+
+    NearestNeighborIterator(RTNode root, Point point, int k) {
+        this(root, point, null, k);
+    }
+
+    NearestNeighborIterator(RTNode root, DoublePoint point, int k) {
+        this(root, null, point, k);
+    }
+
+    private NearestNeighborIterator(RTNode root, Point point, DoublePoint doublePoint, int k) {
+        if (point == null && doublePoint == null)
+            throw new IllegalArgumentException("Point cannot be null.");
+        if (k < 1)
+            throw new IllegalArgumentException("k must be positive.");
+
+        this.point = point;
+        query = new double[root.rtree.getDimension()];
+        for (int d = 0; d < query.length; d++) {
+            query[d] = (point != null) ? point.getFloatCoordinate(d) : doublePoint.getDoubleCoordinate(d);
+        }
+        this.k = k;
+        queue = new DistanceQueue(root.rtree.getNodeCapacity() * 4);
+        best = (k == Integer.MAX_VALUE) ? null : new DistanceQueue(Math.min(k, 64));
+        floatLeaves = root.rtree.getCoordinateType() == Constants.FLOAT_COORDINATES;
+        minMax = k == 1 && point != null && floatLeaves;
+        returned = 0;
+        queue.add(0, root);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next != null)
+            return true;
+        if (returned >= k)
+            return false;
+
+        while (!queue.isEmpty()) {
+            double distance = queue.peekKey();
+            long id = queue.peekTag();
+            Object top = queue.poll();
+
+            if (top instanceof Rectangle) {
+                next = (Rectangle) top;
+                nextDistance = distance;
+                nextId = id;
+                return true;
+            }
+
+            RTNode node = (RTNode) top;
+            if (distance > bound)
+                continue;
+
+            nodesVisited++;
+            entriesTested += node.usedSpace;
+            for (int i = 0; i < node.usedSpace; i++) {
+                if (node.isLeaf()) {
+                    RTDataNode leaf = (RTDataNode) node;
+                    double d;
+                    if (point != null && floatLeaves)
+                        d = node.minDistance(i, point);
+                    else
+                        d = leaf.coordinates.minDistance(i, query);
+                    if (d > bound)
+                        continue;
+                    queue.add(d, leaf.getData(i), leaf.ids[i]);
+                    tighten(d);
+                } else {
+                    double d = (point != null) ? node.minDistance(i, point) : node.minDistance(i, query);
+                    if (d > bound)
+                        continue;
+                    queue.add(d, ((RTDirNode) node).getChild(i));
+                    if (minMax) {
+                        double mm = node.minMaxDistance(i, point);
+                        if (mm < bound)
+                            bound = mm;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private void tighten(double distance) {
+        if (best == null)
+            return;
+
+        if (best.size() < k) {
+            best.add(-distance, null);
+        } else if (distance < -best.peekKey()) {
+            best.poll();
+            best.add(-distance, null);
+        } else {
+            return;
+        }
+
+        if (best.size() == k && -best.peekKey() < bound)
+            bound = -best.peekKey();
+    }
+
+    @Override
+    public Rectangle next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+
+        Rectangle ret = next;
+        lastDistance = nextDistance;
+        lastId = nextId;
+        next = null;
+        returned++;
+        return ret;
+    }
+
+    public double distance() {
+        if (returned == 0)
+            throw new IllegalStateException("next() has not been called.");
+        return Math.sqrt(lastDistance);
+    }
+
+    long getNodesVisited() {
+        return nodesVisited;
+    }
+
+    long getEntriesTested() {
+        return entriesTested;
+    }
+
+    public long id() {
+        if (returned == 0)
+            throw new IllegalStateException("next() has not been called.");
+        return lastId;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,11 @@
+package rtree;
+
+public interface NodeScanner {
+    int INTERSECTS = 0;
+    int WITHIN = 1;
+    int CONTAINS = 2;
+
+    int scan(float[] bounds, int stride, int count, float[] box, int mode, int[] hits);
+
+    int leastEnlargement(float[] bounds, int stride, int count, float[] box);
+}
\ No newline at end of file
@@ -0,0 +1,24 @@
+package rtree;
+
+final class NodeScanners {
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final NodeScanner DEFAULT = create();
+
+    private NodeScanners() {
+    }
+
+    static NodeScanner getDefault() {
+        return DEFAULT;
+    }
+
+    private static NodeScanner create() {
+        if (Boolean.getBoolean("rtree.scalar") || !ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent())
+            return new ScalarNodeScanner();
+
+        try {
+            return (NodeScanner) Class.forName("rtree.VectorNodeScanner").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return new ScalarNodeScanner();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,145 @@
+package rtree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+public class ParallelBulkLoader extends BulkLoader {
+    private static final int SEQUENTIAL_THRESHOLD = 8192;
+
+    private final ForkJoinPool pool;
+
+    public ParallelBulkLoader(RTree rtree, float fillFactor, ForkJoinPool pool) {
+        super(rtree, fillFactor);
+        if (pool == null)
+            throw new IllegalArgumentException("Pool cannot be null.");
+        this.pool = pool;
+    }
+
+    @Override
+    public RTNode load(final Collection<Rectangle> rectangles, final long[] ids) {
+        return pool.invoke(new RecursiveTask<RTNode>() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected RTNode compute() {
+                return ParallelBulkLoader.super.load(rectangles, ids);
+            }
+        });
+    }
+
+    @Override
+    protected Rectangle[] nodeRectangles(final RTNode[] nodes) {
+        final Rectangle[] mbrs = new Rectangle[nodes.length];
+        new RangeAction(0, nodes.length) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected void compute(int from, int to) {
+                for (int i = from; i < to; i++) {
+                    mbrs[i] = nodes[i].getNodeRectangle();
+                }
+            }
+        }.invoke();
+        return mbrs;
+    }
+
+    @Override
+    protected void tileSlices(final Rectangle[] rects, final RTNode[] children, final int level, final int[] perm,
+            int from, int to, final int dim, int sliceSize, List<RTNode> out) {
+        if (to - from <= SEQUENTIAL_THRESHOLD) {
+            super.tileSlices(rects, children, level, perm, from, to, dim, sliceSize, out);
+            return;
+        }
+
+        List<RecursiveTask<List<RTNode>>> tasks = new ArrayList<RecursiveTask<List<RTNode>>>();
+        for (int start = from; start < to; start += sliceSize) {
+            final int sliceFrom = start;
+            final int sliceTo = Math.min(to, start + sliceSize);
+            tasks.add(new RecursiveTask<List<RTNode>>() {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected List<RTNode> compute() {
+                    List<RTNode> slice = new ArrayList<RTNode>((sliceTo - sliceFrom) / nodeSize + 1);
+                    tile(rects, children, level, perm, sliceFrom, sliceTo, dim + 1, slice);
+                    return slice;
+                }
+            });
+        }
+
+        ForkJoinTask.invokeAll(tasks);
+        for (RecursiveTask<List<RTNode>> task : tasks) {
+            out.addAll(task.join());
+        }
+    }
+
+    @Override
+    protected void sortByCenter(Rectangle[] rects, int[] perm, int from, int to, int dim) {
+        if (to - from <= SEQUENTIAL_THRESHOLD) {
+            super.sortByCenter(rects, perm, from, to, dim);
+            return;
+        }
+
+        final long[] keys = centerKeys(rects, perm, from, to, dim);
+        Arrays.parallelSort(keys);
+
+        final int[] target = perm;
+        final int offset = from;
+        new RangeAction(0, keys.length) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected void compute(int start, int end) {
+                for (int i = start; i < end; i++) {
+                    target[offset + i] = (int) keys[i];
+                }
+            }
+        }.invoke();
+    }
+
+    private abstract static class RangeAction extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+
+        RangeAction(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                compute(from, to);
+                return;
+            }
+
+            final int mid = (from + to) >>> 1;
+            final RangeAction parent = this;
+            invokeAll(new RangeAction(from, mid) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected void compute(int start, int end) {
+                    parent.compute(start, end);
+                }
+            }, new RangeAction(mid, to) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected void compute(int start, int end) {
+                    parent.compute(start, end);
+                }
+            });
+        }
+
+        protected abstract void compute(int from, int to);
+    }
+}
\ No newline at end of file
@@ -3,6 +3,15 @@ package rtree;
 public class Point implements Cloneable {
     private float[] data;
 
+    private Point() {
+    }
+
+    static Point wrap(float[] data) {
+        Point point = new Point();
+        point.data = data;
+        return point;
+    }
+
     public Point(float[] data) {
         if (data == null) {
             throw new IllegalArgumentException("Coordinates cannot be null.");
@@ -33,7 +42,7 @@ public class Point implements Cloneable {
     protected Object clone() {
         float[] copy = new float[data.length];
         System.arraycopy(data, 0, copy, 0, data.length);
-        return new Point(copy);
+        return wrap(copy);
     }
 
     @Override
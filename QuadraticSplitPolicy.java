@@ -0,0 +1,136 @@
+package rtree;
+
+public class QuadraticSplitPolicy implements SplitPolicy {
+
+    @Override
+    public int[][] split(float[] bounds, int stride, int total, int minNodeSize) {
+        int dims = bounds.length / (2 * stride);
+        int[] mask = new int[total];
+        for (int i = 0; i < total; i++) {
+            mask[i] = 1;
+        }
+
+        int rem = total;
+
+        int[] group1 = new int[total];
+        int[] group2 = new int[total];
+        int i1 = 0, i2 = 0;
+
+        int[] seed = pickSeeds(bounds, stride, total, dims);
+        group1[i1++] = seed[0];
+        group2[i2++] = seed[1];
+
+        float[] mbr1 = new float[2 * dims];
+        float[] mbr2 = new float[2 * dims];
+        MbrKernel.copy(bounds, stride, seed[0], mbr1, 1, 0, dims);
+        MbrKernel.copy(bounds, stride, seed[1], mbr2, 1, 0, dims);
+        rem -= 2;
+        mask[group1[0]] = -1;
+        mask[group2[0]] = -1;
+
+        while (rem > 0) {
+            if (minNodeSize - i1 == rem) {
+                for (int i = 0; i < total; i++)
+                {
+                    if (mask[i] != -1)
+                    {
+                        group1[i1++] = i;
+                        MbrKernel.include(mbr1, 1, 0, bounds, stride, i, dims);
+                        mask[i] = -1;
+                        rem--;
+                    }
+                }
+            } else if (minNodeSize - i2 == rem) {
+                for (int i = 0; i < total; i++)
+                {
+                    if (mask[i] != -1)
+                    {
+                        group2[i2++] = i;
+                        MbrKernel.include(mbr2, 1, 0, bounds, stride, i, dims);
+                        mask[i] = -1;
+                        rem--;
+                    }
+                }
+            } else {
+                double area1 = MbrKernel.area(mbr1, 1, 0, dims);
+                double area2 = MbrKernel.area(mbr2, 1, 0, dims);
+
+                double dif = Double.NEGATIVE_INFINITY;
+                double areaDiff1 = 0, areaDiff2 = 0;
+                int sel = -1;
+                for (int i = 0; i < total; i++) {
+                    if (mask[i] != -1)
+                    {
+                        double d1 = MbrKernel.unionArea(mbr1, 1, 0, bounds, stride, i, dims) - area1;
+                        double d2 = MbrKernel.unionArea(mbr2, 1, 0, bounds, stride, i, dims) - area2;
+
+                        if (Math.abs(d1 - d2) > dif) {
+                            dif = Math.abs(d1 - d2);
+                            areaDiff1 = d1;
+                            areaDiff2 = d2;
+                            sel = i;
+                        }
+                    }
+                }
+
+                boolean first;
+                if (areaDiff1 < areaDiff2)
+                {
+                    first = true;
+                } else if (areaDiff1 > areaDiff2) {
+                    first = false;
+                } else if (area1 < area2)
+                {
+                    first = true;
+                } else if (area1 > area2) {
+                    first = false;
+                } else {
+                    first = i1 <= i2;
+                }
+
+                if (first) {
+                    group1[i1++] = sel;
+                    MbrKernel.include(mbr1, 1, 0, bounds, stride, sel, dims);
+                } else {
+                    group2[i2++] = sel;
+                    MbrKernel.include(mbr2, 1, 0, bounds, stride, sel, dims);
+                }
+                mask[sel] = -1;
+                rem--;
+
+            }
+        }
+
+        int[][] ret = new int[2][];
+        ret[0] = new int[i1];
+        ret[1] = new int[i2];
+
+        for (int i = 0; i < i1; i++) {
+            ret[0][i] = group1[i];
+        }
+        for (int i = 0; i < i2; i++) {
+            ret[1][i] = group2[i];
+        }
+        return ret;
+    }
+
+    protected int[] pickSeeds(float[] bounds, int stride, int total, int dims) {
+        double inefficiency = Double.NEGATIVE_INFINITY;
+        int i1 = 0, i2 = 0;
+
+        for (int i = 0; i < total - 1; i++) {
+            for (int j = i + 1; j < total; j++)
+            {
+                double d = MbrKernel.unionArea(bounds, stride, i, bounds, stride, j, dims)
+                        - MbrKernel.area(bounds, stride, i, dims) - MbrKernel.area(bounds, stride, j, dims);
+
+                if (d > inefficiency) {
+                    inefficiency = d;
+                    i1 = i;
+                    i2 = j;
+                }
+            }
+        }
+        return new int[] { i1, i2 };
+    }
+}
\ No newline at end of file
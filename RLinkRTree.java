@@ -0,0 +1,540 @@
+package rtree;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+public class RLinkRTree {
+    private static final long SPLITTING = Long.MAX_VALUE;
+
+    private final int nodeCapacity;
+    private final float fillFactor;
+    private final int dimension;
+    private final SplitPolicy splitPolicy;
+    private final AtomicLong counter = new AtomicLong();
+    private final AtomicLong size = new AtomicLong();
+    private final Object rootLock = new Object();
+    private volatile Node root;
+    private volatile Node[] leftmost;
+
+    public RLinkRTree(int capacity, float fillFactor, int type, int dimension) {
+        this(capacity, fillFactor, dimension, RTree.defaultSplitPolicy(type));
+    }
+
+    public RLinkRTree(int capacity, float fillFactor, int dimension, SplitPolicy splitPolicy) {
+        if (capacity < 2)
+            throw new IllegalArgumentException("Node capacity must be at least 2.");
+        if (splitPolicy == null)
+            throw new IllegalArgumentException("Split policy cannot be null.");
+
+        this.nodeCapacity = capacity;
+        this.fillFactor = fillFactor;
+        this.dimension = dimension;
+        this.splitPolicy = splitPolicy;
+        root = new Node(0);
+        leftmost = new Node[] { root };
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    public int getNodeCapacity() {
+        return nodeCapacity;
+    }
+
+    public long size() {
+        return size.get();
+    }
+
+    public Rectangle getBounds() {
+        Node node = root;
+        node.latch.readLock().lock();
+        try {
+            return node.getNodeRectangle();
+        } finally {
+            node.latch.readLock().unlock();
+        }
+    }
+
+    int countLeaves() {
+        int leaves = 0;
+        Node[] nodes = { root };
+        int top = 1;
+        while (top > 0) {
+            Node node = nodes[--top];
+            if (node.isLeaf()) {
+                leaves++;
+                continue;
+            }
+            for (int i = 0; i < node.count; i++) {
+                if (top == nodes.length)
+                    nodes = grow(nodes);
+                nodes[top++] = node.children[i];
+            }
+        }
+        return leaves;
+    }
+
+    public int search(Rectangle window, Consumer<Rectangle> consumer) {
+        checkRectangle(window);
+        if (consumer == null)
+            throw new IllegalArgumentException("Consumer cannot be null.");
+
+        float[] box = new float[2 * dimension];
+        window.copyBounds(box, 1, 0);
+
+        Node[] nodes = new Node[32];
+        long[] memorized = new long[32];
+        int top = 0;
+        int found = 0;
+
+        nodes[top] = root;
+        memorized[top++] = counter.get();
+
+        while (top > 0) {
+            Node node = nodes[--top];
+            long m = memorized[top];
+            nodes[top] = null;
+
+            node.latch.readLock().lock();
+            try {
+                if (node.nsn > m && node.right != null) {
+                    if (top == nodes.length) {
+                        nodes = grow(nodes);
+                        memorized = grow(memorized);
+                    }
+                    nodes[top] = node.right;
+                    memorized[top++] = m;
+                }
+
+                long childM = counter.get();
+                for (int i = 0; i < node.count; i++) {
+                    if (!node.intersects(i, box))
+                        continue;
+
+                    if (node.isLeaf()) {
+                        consumer.accept(node.entries[i]);
+                        found++;
+                    } else {
+                        if (top == nodes.length) {
+                            nodes = grow(nodes);
+                            memorized = grow(memorized);
+                        }
+                        nodes[top] = node.children[i];
+                        memorized[top++] = childM;
+                    }
+                }
+            } finally {
+                node.latch.readLock().unlock();
+            }
+        }
+        return found;
+    }
+
+    public boolean insert(Rectangle rectangle) {
+        checkRectangle(rectangle);
+
+        Node[] path = new Node[8];
+        int depth;
+        Node node;
+        while (true) {
+            depth = 0;
+            node = root;
+            while (true) {
+                node.latch.readLock().lock();
+                Node child;
+                try {
+                    if (node.isLeaf())
+                        break;
+                    child = node.children[node.chooseSubtree(rectangle)];
+                } finally {
+                    node.latch.readLock().unlock();
+                }
+                if (depth == path.length)
+                    path = grow(path);
+                path[depth++] = node;
+                node = child;
+            }
+
+            node.latch.writeLock().lock();
+            if (!node.unlinked)
+                break;
+            node.latch.writeLock().unlock();
+        }
+        Node sibling = node.add(rectangle, null);
+        size.incrementAndGet();
+
+        while (true) {
+            Node parent;
+            if (depth > 0) {
+                parent = path[--depth];
+            } else {
+                parent = installRoot(node, sibling);
+                if (parent == null)
+                    return true;
+            }
+
+            parent = latchParent(parent, node);
+            int index = parent.indexOf(node);
+
+            Rectangle old = parent.entries[index];
+            Rectangle mbr = node.getNodeRectangle();
+            boolean grew = !old.enclosure(mbr);
+            parent.set(index, mbr, node);
+
+            Node split = null;
+            if (sibling != null) {
+                mbr = sibling.getNodeRectangle();
+                grew |= !old.enclosure(mbr);
+                split = parent.add(mbr, sibling);
+                node.nsn = counter.incrementAndGet();
+            }
+            node.latch.writeLock().unlock();
+
+            if (!grew && split == null) {
+                parent.latch.writeLock().unlock();
+                return true;
+            }
+            node = parent;
+            sibling = split;
+        }
+    }
+
+    public boolean delete(Rectangle rectangle) {
+        checkRectangle(rectangle);
+
+        Step[] steps = new Step[32];
+        long[] memorized = new long[32];
+        int top = 0;
+
+        steps[top] = new Step(root, null);
+        memorized[top++] = counter.get();
+
+        while (top > 0) {
+            Step step = steps[--top];
+            Node node = step.node;
+            long m = memorized[top];
+            steps[top] = null;
+
+            if (node.isLeaf()) {
+                node.latch.writeLock().lock();
+                if (node.remove(rectangle)) {
+                    size.decrementAndGet();
+                    tighten(node, step.up);
+                    return true;
+                }
+                if (node.nsn > m && node.right != null) {
+                    steps[top] = new Step(node.right, step.up);
+                    memorized[top++] = m;
+                }
+                node.latch.writeLock().unlock();
+                continue;
+            }
+
+            node.latch.readLock().lock();
+            try {
+                if (node.nsn > m && node.right != null) {
+                    if (top == steps.length) {
+                        steps = grow(steps);
+                        memorized = grow(memorized);
+                    }
+                    steps[top] = new Step(node.right, step.up);
+                    memorized[top++] = m;
+                }
+
+                long childM = counter.get();
+                for (int i = 0; i < node.count; i++) {
+                    if (node.encloses(i, rectangle)) {
+                        if (top == steps.length) {
+                            steps = grow(steps);
+                            memorized = grow(memorized);
+                        }
+                        steps[top] = new Step(node.children[i], step);
+                        memorized[top++] = childM;
+                    }
+                }
+            } finally {
+                node.latch.readLock().unlock();
+            }
+        }
+        return false;
+    }
+
+    private void tighten(Node leaf, Step path) {
+        Node node = leaf;
+        boolean empty = leaf.count == 0;
+        while (true) {
+            Node parent;
+            if (path != null) {
+                parent = path.node;
+                path = path.up;
+            } else {
+                synchronized (rootLock) {
+                    parent = (root == node) ? null : leftmost[node.level + 1];
+                }
+                if (parent == null)
+                    break;
+            }
+
+            parent = latchParent(parent, node);
+            int index = parent.indexOf(node);
+            boolean changed = true;
+            if (empty) {
+                if (parent.count > 1) {
+                    leaf.unlinked = true;
+                    parent.removeAt(index);
+                    empty = false;
+                }
+            } else {
+                Rectangle mbr = node.getNodeRectangle();
+                changed = !mbr.equals(parent.entries[index]);
+                if (changed)
+                    parent.set(index, mbr, node);
+            }
+            if (node != leaf)
+                node.latch.writeLock().unlock();
+            node = parent;
+            if (!changed)
+                break;
+        }
+        if (node != leaf)
+            node.latch.writeLock().unlock();
+        leaf.latch.writeLock().unlock();
+    }
+
+    private static Node latchParent(Node parent, Node node) {
+        parent.latch.writeLock().lock();
+        while (parent.indexOf(node) < 0) {
+            Node right = parent.right;
+            if (right == null) {
+                parent.latch.writeLock().unlock();
+                node.latch.writeLock().unlock();
+                throw new IllegalStateException("Lost parent entry.");
+            }
+            right.latch.writeLock().lock();
+            parent.latch.writeLock().unlock();
+            parent = right;
+        }
+        return parent;
+    }
+
+    private Node installRoot(Node node, Node sibling) {
+        synchronized (rootLock) {
+            if (root == node) {
+                if (sibling == null) {
+                    node.latch.writeLock().unlock();
+                    return null;
+                }
+
+                Node newRoot = new Node(node.level + 1);
+                newRoot.add(node.getNodeRectangle(), node);
+                newRoot.add(sibling.getNodeRectangle(), sibling);
+
+                Node[] levels = new Node[leftmost.length + 1];
+                System.arraycopy(leftmost, 0, levels, 0, leftmost.length);
+                levels[leftmost.length] = newRoot;
+                leftmost = levels;
+
+                node.nsn = counter.incrementAndGet();
+                root = newRoot;
+                node.latch.writeLock().unlock();
+                return null;
+            }
+            return leftmost[node.level + 1];
+        }
+    }
+
+    private void checkRectangle(Rectangle rectangle) {
+        if (rectangle == null)
+            throw new IllegalArgumentException("Rectangle cannot be null.");
+
+        if (rectangle.getDimension() != getDimension()) {
+            throw new IllegalArgumentException("Rectangle dimension different than RTree dimension.");
+        }
+    }
+
+    private static Node[] grow(Node[] array) {
+        Node[] grown = new Node[array.length * 2];
+        System.arraycopy(array, 0, grown, 0, array.length);
+        return grown;
+    }
+
+    private static Step[] grow(Step[] array) {
+        Step[] grown = new Step[array.length * 2];
+        System.arraycopy(array, 0, grown, 0, array.length);
+        return grown;
+    }
+
+    private static long[] grow(long[] array) {
+        long[] grown = new long[array.length * 2];
+        System.arraycopy(array, 0, grown, 0, array.length);
+        return grown;
+    }
+
+    private static final class Step {
+        final Node node;
+        final Step up;
+
+        Step(Node node, Step up) {
+            this.node = node;
+            this.up = up;
+        }
+    }
+
+    private final class Node {
+        final ReentrantReadWriteLock latch = new ReentrantReadWriteLock();
+        final int level;
+        final Rectangle[] entries;
+        final Node[] children;
+        final float[] bounds;
+        final int stride;
+        int count;
+        long nsn;
+        Node right;
+        boolean unlinked;
+
+        Node(int level) {
+            this.level = level;
+            entries = new Rectangle[nodeCapacity + 1];
+            children = (level == 0) ? null : new Node[nodeCapacity + 1];
+            stride = nodeCapacity + 1;
+            bounds = new float[2 * dimension * stride];
+        }
+
+        boolean isLeaf() {
+            return level == 0;
+        }
+
+        Node add(Rectangle rectangle, Node child) {
+            set(count, rectangle, child);
+            count++;
+            if (count <= nodeCapacity)
+                return null;
+
+            int minNodeSize = Math.round(nodeCapacity * fillFactor);
+            if (minNodeSize < 1)
+                minNodeSize = 1;
+            if (minNodeSize > count / 2)
+                minNodeSize = count / 2;
+
+            int[][] group = splitPolicy.split(bounds, stride, count, minNodeSize);
+
+            Node sibling = new Node(level);
+            for (int i = 0; i < group[1].length; i++) {
+                sibling.set(sibling.count++, entries[group[1][i]], isLeaf() ? null : children[group[1][i]]);
+            }
+
+            Rectangle[] e = new Rectangle[group[0].length];
+            Node[] c = new Node[group[0].length];
+            for (int i = 0; i < group[0].length; i++) {
+                e[i] = entries[group[0][i]];
+                c[i] = isLeaf() ? null : children[group[0][i]];
+            }
+            for (int i = 0; i < count; i++) {
+                entries[i] = null;
+                if (!isLeaf())
+                    children[i] = null;
+            }
+            count = 0;
+            for (int i = 0; i < e.length; i++) {
+                set(count++, e[i], c[i]);
+            }
+
+            sibling.nsn = nsn;
+            sibling.right = right;
+            nsn = SPLITTING;
+            right = sibling;
+            return sibling;
+        }
+
+        void set(int i, Rectangle rectangle, Node child) {
+            entries[i] = rectangle;
+            if (!isLeaf())
+                children[i] = child;
+            rectangle.copyBounds(bounds, stride, i);
+        }
+
+        boolean remove(Rectangle rectangle) {
+            for (int i = 0; i < count; i++) {
+                if (entries[i].equals(rectangle)) {
+                    removeAt(i);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void removeAt(int i) {
+            count--;
+            if (i < count)
+                set(i, entries[count], isLeaf() ? null : children[count]);
+            entries[count] = null;
+            if (!isLeaf())
+                children[count] = null;
+        }
+
+        int indexOf(Node child) {
+            for (int i = 0; i < count; i++) {
+                if (children[i] == child)
+                    return i;
+            }
+            return -1;
+        }
+
+        boolean intersects(int i, float[] box) {
+            for (int d = 0, row = 0; row < bounds.length; d += 2, row += 2 * stride) {
+                if (bounds[row + i] > box[d + 1] || bounds[row + stride + i] < box[d])
+                    return false;
+            }
+            return true;
+        }
+
+        boolean encloses(int i, Rectangle rectangle) {
+            for (int d = 0, row = 0; row < bounds.length; d++, row += 2 * stride) {
+                if (rectangle.getLowCoordinate(d) < bounds[row + i]
+                        || rectangle.getHighCoordinate(d) > bounds[row + stride + i])
+                    return false;
+            }
+            return true;
+        }
+
+        int chooseSubtree(Rectangle rectangle) {
+            double best = Double.POSITIVE_INFINITY;
+            double bestArea = Double.POSITIVE_INFINITY;
+            int sel = 0;
+            for (int i = 0; i < count; i++) {
+                double area = 1;
+                double union = 1;
+                for (int d = 0, row = 0; row < bounds.length; d++, row += 2 * stride) {
+                    float lo = bounds[row + i];
+                    float hi = bounds[row + stride + i];
+                    area *= hi - lo;
+                    union *= Math.max(hi, rectangle.getHighCoordinate(d)) - Math.min(lo, rectangle.getLowCoordinate(d));
+                }
+                double enlargement = union - area;
+                if (enlargement < best || (enlargement == best && area < bestArea)) {
+                    best = enlargement;
+                    bestArea = area;
+                    sel = i;
+                }
+            }
+            return sel;
+        }
+
+        Rectangle getNodeRectangle() {
+            float[] min = new float[dimension];
+            float[] max = new float[dimension];
+            for (int d = 0; d < dimension; d++) {
+                int row = 2 * d * stride;
+                min[d] = bounds[row];
+                max[d] = bounds[row + stride];
+                for (int i = 1; i < count; i++) {
+                    min[d] = Math.min(min[d], bounds[row + i]);
+                    max[d] = Math.max(max[d], bounds[row + stride + i]);
+                }
+            }
+            return Rectangle.wrap(min, max);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,103 @@
+package rtree;
+
+public class RStarSplitPolicy implements SplitPolicy {
+
+    @Override
+    public int[][] split(float[] bounds, int stride, int total, int minNodeSize) {
+        int dims = bounds.length / (2 * stride);
+
+        int distributions = total - 2 * minNodeSize + 1;
+        int[][] sorted = new int[2][total];
+        float[] lower = new float[total * dims * 2];
+        float[] upper = new float[total * dims * 2];
+
+        int axis = 0;
+        double minMargin = Double.POSITIVE_INFINITY;
+        for (int d = 0; d < dims; d++) {
+            double margin = 0;
+            for (int s = 0; s < 2; s++) {
+                sortEntries(bounds, stride, sorted[s], total, d, s == 1);
+                boundsOf(bounds, stride, sorted[s], total, dims, lower, upper);
+                for (int k = 0; k < distributions; k++) {
+                    int split = minNodeSize + k;
+                    margin += MbrKernel.margin(lower, 1, (split - 1) * dims * 2, dims)
+                            + MbrKernel.margin(upper, 1, split * dims * 2, dims);
+                }
+            }
+            if (margin < minMargin) {
+                minMargin = margin;
+                axis = d;
+            }
+        }
+
+        int bestSort = 0;
+        int bestSplit = minNodeSize;
+        double minOverlap = Double.POSITIVE_INFINITY;
+        double minArea = Double.POSITIVE_INFINITY;
+        for (int s = 0; s < 2; s++) {
+            sortEntries(bounds, stride, sorted[s], total, axis, s == 1);
+            boundsOf(bounds, stride, sorted[s], total, dims, lower, upper);
+            for (int k = 0; k < distributions; k++) {
+                int split = minNodeSize + k;
+                int o1 = (split - 1) * dims * 2;
+                int o2 = split * dims * 2;
+                double overlap = MbrKernel.overlap(lower, 1, o1, upper, 1, o2, dims);
+                double area = MbrKernel.area(lower, 1, o1, dims) + MbrKernel.area(upper, 1, o2, dims);
+                if (overlap < minOverlap || (overlap == minOverlap && area < minArea)) {
+                    minOverlap = overlap;
+                    minArea = area;
+                    bestSort = s;
+                    bestSplit = split;
+                }
+            }
+        }
+
+        int[] order = sorted[bestSort];
+        sortEntries(bounds, stride, order, total, axis, bestSort == 1);
+
+        int[][] ret = new int[2][];
+        ret[0] = new int[bestSplit];
+        ret[1] = new int[total - bestSplit];
+        System.arraycopy(order, 0, ret[0], 0, bestSplit);
+        System.arraycopy(order, bestSplit, ret[1], 0, total - bestSplit);
+        return ret;
+    }
+
+    private static void sortEntries(float[] bounds, int stride, int[] order, int total, int axis, boolean byHigh) {
+        for (int i = 0; i < total; i++) {
+            order[i] = i;
+        }
+        for (int i = 1; i < total; i++) {
+            int index = order[i];
+            int j = i - 1;
+            while (j >= 0 && compareEntries(bounds, stride, order[j], index, axis, byHigh) > 0) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = index;
+        }
+    }
+
+    private static int compareEntries(float[] bounds, int stride, int a, int b, int axis, boolean byHigh) {
+        int first = (byHigh ? 2 * axis + 1 : 2 * axis) * stride;
+        int second = (byHigh ? 2 * axis : 2 * axis + 1) * stride;
+        int c = Float.compare(bounds[first + a], bounds[first + b]);
+        if (c == 0)
+            c = Float.compare(bounds[second + a], bounds[second + b]);
+        return c;
+    }
+
+    private static void boundsOf(float[] bounds, int stride, int[] order, int total, int dims, float[] lower,
+            float[] upper) {
+        for (int i = 0; i < total; i++) {
+            int o1 = i * dims * 2;
+            int o2 = (total - 1 - i) * dims * 2;
+            MbrKernel.copy(bounds, stride, order[i], lower, 1, o1, dims);
+            MbrKernel.copy(bounds, stride, order[total - 1 - i], upper, 1, o2, dims);
+            if (i > 0) {
+                MbrKernel.include(lower, 1, o1, lower, 1, o1 - dims * 2, dims);
+                MbrKernel.include(upper, 1, o2, upper, 1, o2 + dims * 2, dims);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -1,20 +1,102 @@
 package rtree;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import rtree.Constants;
 
 public class RTDataNode extends RTNode {
+    protected long[] ids;
+    protected long[] keys;
+    final Coordinates coordinates;
+    boolean exactBounds = true;
 
     public RTDataNode(RTree rTree, RTNode parent) {
         super(rTree, parent, 0);
+        coordinates = Coordinates.create(rTree.getCoordinateType(), rTree.getDimension(), stride, bounds);
+        ids = new long[stride];
+        if (rTree.getTreeType() == Constants.HILBERT)
+            keys = new long[stride];
+    }
+
+    public long getId(int index) {
+        return ids[index];
+    }
+
+    @Override
+    protected Rectangle getData(int i) {
+        return coordinates.get(i);
+    }
+
+    @Override
+    protected void setData(int i, Rectangle rectangle) {
+        coordinates.set(i, rectangle);
+        super.setData(i, rectangle);
+        if (exactBounds && !rectangle.isExact())
+            exactBounds = false;
+    }
+
+    boolean matches(int i, Rectangle window, int mode) {
+        return coordinates.matches(i, window, mode);
+    }
+
+    boolean equalsEntry(int i, Rectangle rectangle) {
+        return coordinates.equals(i, rectangle);
+    }
+
+    @Override
+    protected void addData(Rectangle rectangle) {
+        addEntry(rectangle, Constants.NIL);
+    }
+
+    protected void addEntry(Rectangle rectangle, long id) {
+        if (usedSpace == rtree.getNodeCapacity()) {
+            throw new IllegalArgumentException("Node is full.");
+        }
+        setEntry(usedSpace++, rectangle, id);
+    }
+
+    protected void setEntry(int i, Rectangle rectangle, long id) {
+        setEntry(i, rectangle, id, keys != null ? rtree.hilbertKey(rectangle) : 0);
+    }
+
+    void setEntry(int i, Rectangle rectangle, long id, long key) {
+        setData(i, rectangle);
+        ids[i] = id;
+        if (keys != null)
+            keys[i] = key;
+        rtree.indexId(id, this);
+    }
+
+    @Override
+    protected void moveData(int from, int to) {
+        super.moveData(from, to);
+        coordinates.move(from, to);
+        ids[to] = ids[from];
+        if (keys != null)
+            keys[to] = keys[from];
+    }
+
+    @Override
+    protected void deleteData(int i) {
+        rtree.unindexId(ids[i], this);
+        if (i < usedSpace - 1) {
+            coordinates.delete(i, usedSpace);
+            System.arraycopy(ids, i + 1, ids, i, usedSpace - i - 1);
+            if (keys != null)
+                System.arraycopy(keys, i + 1, keys, i, usedSpace - i - 1);
+        }
+        super.deleteData(i);
     }
 
     public boolean insert(Rectangle rectangle) {
+        return insert(rectangle, Constants.NIL);
+    }
+
+    public boolean insert(Rectangle rectangle, long id) {
+        if (keys != null)
+            return HilbertInsertion.insert(this, rectangle, id);
+
         if (usedSpace < rtree.getNodeCapacity())
         {
-            datas[usedSpace++] = rectangle;
+            setEntry(usedSpace++, rectangle, id);
             RTDirNode parent = (RTDirNode) getParent();
 
             if (parent != null)
@@ -22,7 +104,12 @@ public class RTDataNode extends RTNode {
             return true;
 
         }
+        else if (rtree.getTreeType() == Constants.RSTAR && !isRoot() && rtree.markOverflow(level)) {
+            setEntry(usedSpace, rectangle, id);
+            reinsert(rectangle);
+        }
         else {
+            setEntry(usedSpace, rectangle, id);
             RTDataNode[] splitNodes = splitLeaf(rectangle);
             RTDataNode l = splitNodes[0];
             RTDataNode ll = splitNodes[1];
@@ -30,14 +117,8 @@ public class RTDataNode extends RTNode {
             if (isRoot()) {
                 RTDirNode rDirNode = new RTDirNode(rtree, Constants.NULL, level + 1);
                 rtree.setRoot(rDirNode);
-                rDirNode.addData(l.getNodeRectangle());
-                rDirNode.addData(ll.getNodeRectangle());
-
-                ll.parent = rDirNode;
-                l.parent = rDirNode;
-
-                rDirNode.children.add(l);
-                rDirNode.children.add(ll);
+                rDirNode.addChild(l);
+                rDirNode.addChild(ll);
 
             } else {
                 RTDirNode parentNode = (RTDirNode) getParent();
@@ -49,21 +130,7 @@ public class RTDataNode extends RTNode {
     }
 
     public RTDataNode[] splitLeaf(Rectangle rectangle) {
-        int[][] group = null;
-
-        switch (rtree.getTreeType()) {
-            case Constants.RTREE_LINEAR:
-                break;
-            case Constants.RTREE_QUADRATIC:
-                group = quadraticSplit(rectangle);
-                break;
-            case Constants.RTREE_EXPONENTIAL:
-                break;
-            case Constants.RSTAR:
-                break;
-            default:
-                throw new IllegalArgumentException("Invalid tree type.");
-        }
+        int[][] group = split(rectangle);
 
         RTDataNode l = new RTDataNode(rtree, parent);
         RTDataNode ll = new RTDataNode(rtree, parent);
@@ -72,15 +139,34 @@ public class RTDataNode extends RTNode {
         int[] group2 = group[1];
 
         for (int i = 0; i < group1.length; i++) {
-            l.addData(datas[group1[i]]);
+            l.addEntry(getData(group1[i]), ids[group1[i]]);
         }
 
         for (int i = 0; i < group2.length; i++) {
-            ll.addData(datas[group2[i]]);
+            ll.addEntry(getData(group2[i]), ids[group2[i]]);
         }
         return new RTDataNode[] { l, ll };
     }
 
+    private void reinsert(Rectangle rectangle) {
+        rtree.countReinsertion();
+        int total = usedSpace + 1;
+        int[] indexes = pickReinsertEntries(rectangle);
+        Rectangle[] entries = new Rectangle[indexes.length];
+        long[] entryIds = new long[indexes.length];
+        for (int i = 0; i < indexes.length; i++) {
+            entries[i] = getData(indexes[i]);
+            entryIds[i] = ids[indexes[i]];
+        }
+        removeEntries(indexes, total);
+
+        ((RTDirNode) getParent()).adjustTree(this, null);
+
+        for (int i = entries.length - 1; i >= 0; i--) {
+            rtree.insertData(entries[i], entryIds[i]);
+        }
+    }
+
     @Override
     public RTDataNode chooseLeaf(Rectangle rectangle) {
         insertIndex = usedSpace;
@@ -89,43 +175,60 @@ public class RTDataNode extends RTNode {
 
     protected int delete(Rectangle rectangle) {
         for (int i = 0; i < usedSpace; i++) {
-            if (datas[i].equals(rectangle)) {
-                deleteData(i);
-                List<RTNode> deleteEntriesList = new ArrayList<RTNode>();
-                condenseTree(deleteEntriesList);
-
-                for (int j = 0; j < deleteEntriesList.size(); j++) {
-                    RTNode node = deleteEntriesList.get(j);
-                    if (node.isLeaf())
-                    {
-                        for (int k = 0; k < node.usedSpace; k++) {
-                            rtree.insert(node.datas[k]);
-                        }
-                    } else {
-                        List<RTNode> traverseNodes = rtree.traversePostOrder(node);
-
-                        for (int index = 0; index < traverseNodes.size(); index++) {
-                            RTNode traverseNode = traverseNodes.get(index);
-                            if (traverseNode.isLeaf()) {
-                                for (int t = 0; t < traverseNode.usedSpace; t++) {
-                                    rtree.insert(traverseNode.datas[t]);
-                                }
-                            }
-                        }
-
-                    }
-                }
-
+            if (equalsEntry(i, rectangle)) {
+                deleteEntry(i);
                 return deleteIndex;
             }
         }
         return -1;
     }
 
+    protected boolean delete(long id) {
+        for (int i = 0; i < usedSpace; i++) {
+            if (ids[i] == id) {
+                markPath();
+                deleteEntry(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    protected boolean update(long id, Rectangle rectangle) {
+        for (int i = 0; i < usedSpace; i++) {
+            if (ids[i] == id) {
+                if ((keys == null || HilbertInsertion.fits(this, i, rtree.hilbertKey(rectangle)))
+                        && (isRoot() || parent.encloses(((RTDirNode) parent).children.indexOf(this), rectangle))) {
+                    setEntry(i, rectangle, id);
+                    tighten();
+                    return true;
+                }
+                markPath();
+                deleteData(i);
+                condenseTree();
+                rtree.relocate(rectangle, id);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void markPath() {
+        for (RTNode node = this; !node.isRoot(); node = node.parent) {
+            node.parent.deleteIndex = ((RTDirNode) node.parent).children.indexOf(node);
+        }
+    }
+
+    private void deleteEntry(int i) {
+        deleteData(i);
+        condenseTree();
+        rtree.condenseDeferred();
+    }
+
     @Override
     protected RTDataNode findLeaf(Rectangle rectangle) {
         for (int i = 0; i < usedSpace; i++) {
-            if (datas[i].enclosure(rectangle)) {
+            if (equalsEntry(i, rectangle)) {
                 deleteIndex = i;
                 return this;
             }
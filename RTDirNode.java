@@ -6,10 +6,86 @@ import rtree.Constants;
 
 public class RTDirNode extends RTNode {
     protected List<RTNode> children;
+    long[] largestKeys;
 
     public RTDirNode(RTree rtree, RTNode parent, int level) {
         super(rtree, parent, level);
         children = new ArrayList<RTNode>();
+        if (rtree.getTreeType() == Constants.HILBERT)
+            largestKeys = new long[stride];
+    }
+
+    protected RTDirNode copy() {
+        RTDirNode copy = new RTDirNode(rtree, parent, level);
+        System.arraycopy(bounds, 0, copy.bounds, 0, bounds.length);
+        if (largestKeys != null)
+            System.arraycopy(largestKeys, 0, copy.largestKeys, 0, largestKeys.length);
+        copy.usedSpace = usedSpace;
+        copy.children.addAll(children);
+        return copy;
+    }
+
+    protected void addChild(RTNode child) {
+        if (usedSpace == rtree.getNodeCapacity()) {
+            throw new IllegalArgumentException("Node is full.");
+        }
+        setChildBounds(usedSpace++, child);
+        children.add(child);
+        child.parent = this;
+    }
+
+    protected boolean setChildBounds(int i, RTNode child) {
+        boolean changed = false;
+        int n = child.usedSpace;
+        for (int row = 0; row < bounds.length; row += 2 * stride) {
+            float lo = 0;
+            float hi = 0;
+            if (n > 0) {
+                lo = child.bounds[row];
+                hi = child.bounds[row + stride];
+                for (int j = 1; j < n; j++) {
+                    lo = Math.min(lo, child.bounds[row + j]);
+                    hi = Math.max(hi, child.bounds[row + stride + j]);
+                }
+            }
+            if (bounds[row + i] != lo || bounds[row + stride + i] != hi) {
+                bounds[row + i] = lo;
+                bounds[row + stride + i] = hi;
+                changed = true;
+            }
+        }
+        return setChildKey(i, child) || changed;
+    }
+
+    boolean setChildKey(int i, RTNode child) {
+        if (largestKeys == null)
+            return false;
+        long key = HilbertInsertion.largestKey(child);
+        if (largestKeys[i] == key)
+            return false;
+        largestKeys[i] = key;
+        return true;
+    }
+
+    @Override
+    protected void copyData(int to, RTNode from, int i) {
+        super.copyData(to, from, i);
+        if (largestKeys != null)
+            largestKeys[to] = ((RTDirNode) from).largestKeys[i];
+    }
+
+    @Override
+    protected void moveData(int from, int to) {
+        super.moveData(from, to);
+        if (largestKeys != null)
+            largestKeys[to] = largestKeys[from];
+    }
+
+    @Override
+    protected void deleteData(int i) {
+        if (largestKeys != null && i < usedSpace - 1)
+            System.arraycopy(largestKeys, i + 1, largestKeys, i, usedSpace - i - 1);
+        super.deleteData(i);
     }
 
     public RTNode getChild(int index) {
@@ -18,7 +94,28 @@ public class RTDirNode extends RTNode {
 
     @Override
     public RTDataNode chooseLeaf(Rectangle rectangle) {
+        if (rtree.getTreeType() == Constants.HILBERT)
+            return HilbertInsertion.chooseLeaf(this, rtree.hilbertKey(rectangle));
+
+        insertIndex = chooseSubtree(rectangle);
+
+        return getChild(insertIndex).chooseLeaf(rectangle);
+    }
+
+    protected RTDirNode chooseNode(Rectangle rectangle, int level) {
+        if (this.level == level)
+            return this;
+
+        insertIndex = chooseSubtree(rectangle);
+
+        return ((RTDirNode) getChild(insertIndex)).chooseNode(rectangle, level);
+    }
+
+    private int chooseSubtree(Rectangle rectangle) {
         int index;
+        int dims = rtree.getDimension();
+        float[] buffer = rtree.getChooseBuffer();
+        rectangle.copyBounds(buffer, 1, 0);
 
         switch (rtree.getTreeType()) {
             case Constants.RTREE_LINEAR:
@@ -26,74 +123,68 @@ public class RTDirNode extends RTNode {
             case Constants.RTREE_QUADRATIC:
 
             case Constants.RTREE_EXPONENTIAL:
-                index = findLeastEnlargement(rectangle);
+                index = findLeastEnlargement(buffer);
                 break;
             case Constants.RSTAR:
                 if (level == 1)
                 {
-                    index = findLeastOverlap(rectangle);
+                    index = findLeastOverlap(buffer, dims);
                 } else {
-                    index = findLeastEnlargement(rectangle);
+                    index = findLeastEnlargement(buffer);
                 }
                 break;
+            case Constants.HILBERT:
+                index = HilbertInsertion.chooseSubtree(this, rtree.hilbertKey(rectangle));
+                break;
 
             default:
                 throw new IllegalStateException("Invalid tree type.");
         }
 
-        insertIndex = index;
-
-        return getChild(index).chooseLeaf(rectangle);
+        return index;
     }
 
-    private int findLeastOverlap(Rectangle rectangle) {
-        float overlap = Float.POSITIVE_INFINITY;
+    private int findLeastOverlap(float[] buffer, int dims) {
+        double overlap = Double.POSITIVE_INFINITY;
+        double enlargement = Double.POSITIVE_INFINITY;
         int sel = -1;
+        int union = 2 * dims;
 
         for (int i = 0; i < usedSpace; i++) {
-            RTNode node = getChild(i);
-            float ol = 0;
+            MbrKernel.copy(bounds, stride, i, buffer, 1, union, dims);
+            MbrKernel.include(buffer, 1, union, buffer, 1, 0, dims);
+            double ol = 0;
 
-            for (int j = 0; j < node.datas.length; j++) {
-                ol += rectangle.intersectingArea(node.datas[j]);
+            for (int j = 0; j < usedSpace; j++) {
+                if (j != i) {
+                    ol += MbrKernel.overlap(buffer, 1, union, bounds, stride, j, dims)
+                            - MbrKernel.overlap(bounds, stride, i, bounds, stride, j, dims);
+                }
             }
+
+            double area = MbrKernel.enlargement(bounds, stride, i, buffer, 1, 0, dims);
             if (ol < overlap) {
                 overlap = ol;
+                enlargement = area;
                 sel = i;
-            }
-            else if (ol == overlap) {
-                double area1 = datas[i].getUnionRectangle(rectangle).getArea() - datas[i].getArea();
-                double area2 = datas[sel].getUnionRectangle(rectangle).getArea() - datas[sel].getArea();
-
-                if (area1 == area2) {
-                    sel = (datas[sel].getArea() <= datas[i].getArea()) ? sel : i;
-                } else {
-                    sel = (area1 < area2) ? i : sel;
+            } else if (ol == overlap) {
+                if (area < enlargement) {
+                    enlargement = area;
+                    sel = i;
+                } else if (area == enlargement && area(i) < area(sel)) {
+                    sel = i;
                 }
             }
         }
         return sel;
     }
 
-    private int findLeastEnlargement(Rectangle rectangle) {
-        double area = Double.POSITIVE_INFINITY;
-        int sel = -1;
-
-        for (int i = 0; i < usedSpace; i++) {
-            double enlargement = datas[i].getUnionRectangle(rectangle).getArea() - datas[i].getArea();
-            if (enlargement < area) {
-                area = enlargement;
-                sel = i;
-            } else if (enlargement == area) {
-                sel = (datas[sel].getArea() < datas[i].getArea()) ? sel : i;
-            }
-        }
-
-        return sel;
+    private int findLeastEnlargement(float[] buffer) {
+        return rtree.getNodeScanner().leastEnlargement(bounds, stride, usedSpace, buffer);
     }
 
     public void adjustTree(RTNode node1, RTNode node2) {
-        datas[insertIndex] = node1.getNodeRectangle();
+        setChildBounds(insertIndex, node1);
         children.set(insertIndex, node1);
 
         if (node2 != null) {
@@ -108,15 +199,15 @@ public class RTDirNode extends RTNode {
 
     protected boolean insert(RTNode node) {
         if (usedSpace < rtree.getNodeCapacity()) {
-            datas[usedSpace++] = node.getNodeRectangle();
-            children.add(node);
-            node.parent = this;
+            addChild(node);
             RTDirNode parent = (RTDirNode) getParent();
             if (parent != null)
             {
                 parent.adjustTree(this, null);
             }
             return false;
+        } else if (rtree.getTreeType() == Constants.RSTAR && !isRoot() && rtree.markOverflow(level)) {
+            reinsert(node);
         } else {
             RTDirNode[] a = splitIndex(node);
             RTDirNode n = a[0];
@@ -125,14 +216,8 @@ public class RTDirNode extends RTNode {
             if (isRoot()) {
                 RTDirNode newRoot = new RTDirNode(rtree, Constants.NULL, level + 1);
 
-                newRoot.addData(n.getNodeRectangle());
-                newRoot.addData(nn.getNodeRectangle());
-
-                newRoot.children.add(n);
-                newRoot.children.add(nn);
-
-                n.parent = newRoot;
-                nn.parent = newRoot;
+                newRoot.addChild(n);
+                newRoot.addChild(nn);
 
                 rtree.setRoot(newRoot);
             } else {
@@ -143,35 +228,49 @@ public class RTDirNode extends RTNode {
         return true;
     }
 
-    private RTDirNode[] splitIndex(RTNode node) {
-        int[][] group = null;
-        switch (rtree.getTreeType()) {
-            case Constants.RTREE_LINEAR:
-                break;
-            case Constants.RTREE_QUADRATIC:
-                group = quadraticSplit(node.getNodeRectangle());
-                children.add(node);
-                node.parent = this;
-                break;
-            case Constants.RTREE_EXPONENTIAL:
-                break;
-            case Constants.RSTAR:
-                break;
-            default:
-                throw new IllegalStateException("Invalid tree type.");
+    private void reinsert(RTNode node) {
+        rtree.countReinsertion();
+        int total = usedSpace + 1;
+        children.add(node);
+        node.parent = this;
+
+        setChildBounds(usedSpace, node);
+        int[] indexes = pickReinsertEntries();
+        RTNode[] nodes = new RTNode[indexes.length];
+        for (int i = 0; i < indexes.length; i++) {
+            nodes[i] = children.get(indexes[i]);
         }
+        removeEntries(indexes, total);
+        for (int i = 0; i < nodes.length; i++) {
+            children.remove(nodes[i]);
+            nodes[i].parent = null;
+        }
+
+        ((RTDirNode) getParent()).adjustTree(this, null);
+
+        for (int i = nodes.length - 1; i >= 0; i--) {
+            rtree.insertNode(nodes[i]);
+        }
+    }
+
+    private RTDirNode[] splitIndex(RTNode node) {
+        setChildBounds(usedSpace, node);
+        int[][] group = split();
+        children.add(node);
+        node.parent = this;
+
         RTDirNode index1 = new RTDirNode(rtree, parent, level);
         RTDirNode index2 = new RTDirNode(rtree, parent, level);
 
         int[] group1 = group[0];
         int[] group2 = group[1];
         for (int i = 0; i < group1.length; i++) {
-            index1.addData(datas[group1[i]]);
+            index1.copyData(index1.usedSpace++, this, group1[i]);
             index1.children.add(this.children.get(group1[i]));
             this.children.get(group1[i]).parent = index1;
         }
         for (int i = 0; i < group2.length; i++) {
-            index2.addData(datas[group2[i]]);
+            index2.copyData(index2.usedSpace++, this, group2[i]);
             index2.children.add(this.children.get(group2[i]));
             this.children.get(group2[i]).parent = index2;
         }
@@ -181,7 +280,7 @@ public class RTDirNode extends RTNode {
     @Override
     protected RTDataNode findLeaf(Rectangle rectangle) {
         for (int i = 0; i < usedSpace; i++) {
-            if (datas[i].enclosure(rectangle)) {
+            if (encloses(i, rectangle)) {
                 deleteIndex = i;
                 RTDataNode leaf = children.get(i).findLeaf(rectangle);
                 if (leaf != null)
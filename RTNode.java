@@ -1,12 +1,12 @@
 package rtree;
 
-import java.util.List;
 import rtree.Constants;
 
 public abstract class RTNode {
     protected RTree rtree;
     protected int level;
-    protected Rectangle[] datas;
+    protected float[] bounds;
+    protected int stride;
     protected RTNode parent;
     protected int usedSpace;
     protected int insertIndex;
@@ -16,7 +16,8 @@ public abstract class RTNode {
         this.rtree = rtree;
         this.parent = parent;
         this.level = level;
-        datas = new Rectangle[rtree.getNodeCapacity() + 1];
+        stride = rtree.getNodeCapacity() + 1;
+        bounds = new float[2 * rtree.getDimension() * stride];
         usedSpace = 0;
     }
 
@@ -28,20 +29,143 @@ public abstract class RTNode {
         if (usedSpace == rtree.getNodeCapacity()) {
             throw new IllegalArgumentException("Node is full.");
         }
-        datas[usedSpace++] = rectangle;
+        setData(usedSpace++, rectangle);
+    }
+
+    protected Rectangle getData(int i) {
+        int dims = bounds.length / (2 * stride);
+        float[] min = new float[dims];
+        float[] max = new float[dims];
+        for (int d = 0, row = 0; d < dims; d++, row += 2 * stride) {
+            min[d] = bounds[row + i];
+            max[d] = bounds[row + stride + i];
+        }
+        return Rectangle.wrap(min, max);
+    }
+
+    protected void setData(int i, Rectangle rectangle) {
+        rectangle.copyBounds(bounds, stride, i);
+    }
+
+    protected void copyData(int to, RTNode from, int i) {
+        for (int row = 0; row < bounds.length; row += stride) {
+            bounds[row + to] = from.bounds[row + i];
+        }
+    }
+
+    protected void moveData(int from, int to) {
+        for (int row = 0; row < bounds.length; row += stride) {
+            bounds[row + to] = bounds[row + from];
+        }
     }
 
     protected void deleteData(int i) {
-        if (datas[i + 1] != null)
+        if (i < usedSpace - 1)
         {
-            System.arraycopy(datas, i + 1, datas, i, usedSpace - i - 1);
-            datas[usedSpace - 1] = null;
-        } else
-            datas[i] = null;
+            for (int row = 0; row < bounds.length; row += stride) {
+                System.arraycopy(bounds, row + i + 1, bounds, row + i, usedSpace - i - 1);
+            }
+        }
         usedSpace--;
     }
 
-    protected void condenseTree(List<RTNode> list) {
+    protected boolean intersects(int i, float[] box) {
+        for (int d = 0, row = 0; row < bounds.length; d += 2, row += 2 * stride) {
+            if (bounds[row + i] > box[d + 1] || bounds[row + stride + i] < box[d])
+                return false;
+        }
+        return true;
+    }
+
+    protected boolean encloses(int i, float[] box) {
+        for (int d = 0, row = 0; row < bounds.length; d += 2, row += 2 * stride) {
+            if (box[d] < bounds[row + i] || box[d + 1] > bounds[row + stride + i])
+                return false;
+        }
+        return true;
+    }
+
+    protected boolean enclosedBy(int i, float[] box) {
+        for (int d = 0, row = 0; row < bounds.length; d += 2, row += 2 * stride) {
+            if (bounds[row + i] < box[d] || bounds[row + stride + i] > box[d + 1])
+                return false;
+        }
+        return true;
+    }
+
+    protected boolean encloses(int i, Rectangle rectangle) {
+        for (int d = 0, row = 0; row < bounds.length; d++, row += 2 * stride) {
+            if (rectangle.getLowCoordinate(d) < bounds[row + i]
+                    || rectangle.getHighCoordinate(d) > bounds[row + stride + i])
+                return false;
+        }
+        return true;
+    }
+
+    protected void tighten() {
+        for (RTNode node = this; !node.isRoot(); node = node.parent) {
+            RTDirNode parent = (RTDirNode) node.parent;
+            if (!parent.setChildBounds(parent.children.indexOf(node), node))
+                return;
+        }
+    }
+
+    protected double minDistance(int i, Point point) {
+        double distance = 0;
+        for (int d = 0, row = 0; row < bounds.length; d++, row += 2 * stride) {
+            float p = point.getFloatCoordinate(d);
+            float l = bounds[row + i];
+            float h = bounds[row + stride + i];
+            double delta = 0;
+            if (p < l) {
+                delta = l - p;
+            } else if (p > h) {
+                delta = p - h;
+            }
+            distance += delta * delta;
+        }
+        return distance;
+    }
+
+    protected double minDistance(int i, double[] point) {
+        double distance = 0;
+        for (int d = 0, row = 0; row < bounds.length; d++, row += 2 * stride) {
+            double gap = Math.max(bounds[row + i] - point[d], point[d] - bounds[row + stride + i]);
+            if (gap > 0)
+                distance += gap * gap;
+        }
+        return distance;
+    }
+
+    protected double minMaxDistance(int i, Point point) {
+        double farSum = 0;
+        for (int d = 0, row = 0; row < bounds.length; d++, row += 2 * stride) {
+            float p = point.getFloatCoordinate(d);
+            float l = bounds[row + i];
+            float h = bounds[row + stride + i];
+            double far = (p >= (l + h) / 2) ? p - l : h - p;
+            farSum += far * far;
+        }
+
+        double distance = Double.POSITIVE_INFINITY;
+        for (int d = 0, row = 0; row < bounds.length; d++, row += 2 * stride) {
+            float p = point.getFloatCoordinate(d);
+            float l = bounds[row + i];
+            float h = bounds[row + stride + i];
+            double near = (p <= (l + h) / 2) ? p - l : h - p;
+            double far = (p >= (l + h) / 2) ? p - l : h - p;
+            double dist = farSum - far * far + near * near;
+            if (dist < distance)
+                distance = dist;
+        }
+        return distance;
+    }
+
+    protected double area(int i) {
+        return MbrKernel.area(bounds, stride, i, rtree.getDimension());
+    }
+
+    protected void condenseTree() {
         if (isRoot()) {
             if (!isLeaf() && usedSpace == 1) {
                 RTDirNode root = (RTDirNode) this;
@@ -55,165 +179,106 @@ public abstract class RTNode {
         } else {
             RTNode parent = getParent();
             int min = Math.round(rtree.getNodeCapacity() * rtree.getFillFactor());
-            if (usedSpace < min) {
+            if (usedSpace == 0) {
+                rtree.countCondenseTree();
                 parent.deleteData(parent.deleteIndex);
                 ((RTDirNode) parent).children.remove(this);
                 this.parent = null;
-                list.add(this);
             } else {
-                parent.datas[parent.deleteIndex] = getNodeRectangle();
+                ((RTDirNode) parent).setChildBounds(parent.deleteIndex, this);
+                if (usedSpace < min)
+                    rtree.deferUnderflow(this);
             }
-            parent.condenseTree(list);
+            parent.condenseTree();
         }
     }
 
-    protected int[][] quadraticSplit(Rectangle rectangle) {
+    protected int[][] split(Rectangle rectangle) {
         if (rectangle == null) {
             throw new IllegalArgumentException("Rectangle cannot be null.");
         }
 
-        datas[usedSpace] = rectangle;
+        setData(usedSpace, rectangle);
+        return split();
+    }
 
+    protected int[][] split() {
         int total = usedSpace + 1;
+        int minNodeSize = Math.round(rtree.getNodeCapacity() * rtree.getFillFactor());
+        if (minNodeSize < 1)
+            minNodeSize = 1;
+        if (minNodeSize > total / 2)
+            minNodeSize = total / 2;
 
-        int[] mask = new int[total];
-        for (int i = 0; i < total; i++) {
-            mask[i] = 1;
-        }
+        rtree.countSplit();
+        return rtree.getSplitPolicy().split(bounds, stride, total, minNodeSize);
+    }
 
-        int c = total / 2 + 1;
-        int minNodeSize = Math.round(rtree.getNodeCapacity() * rtree.getFillFactor());
-        if (minNodeSize < 2)
-            minNodeSize = 2;
-
-        int rem = total;
-
-        int[] group1 = new int[c];
-        int[] group2 = new int[c];
-        int i1 = 0, i2 = 0;
-
-        int[] seed = pickSeeds();
-        group1[i1++] = seed[0];
-        group2[i2++] = seed[1];
-        rem -= 2;
-        mask[group1[0]] = -1;
-        mask[group2[0]] = -1;
-
-        while (rem > 0) {
-            if (minNodeSize - i1 == rem) {
-                for (int i = 0; i < total; i++)
-                {
-                    if (mask[i] != -1)
-                    {
-                        group1[i1++] = i;
-                        mask[i] = -1;
-                        rem--;
-                    }
-                }
-            } else if (minNodeSize - i2 == rem) {
-                for (int i = 0; i < total; i++)
-                {
-                    if (mask[i] != -1)
-                    {
-                        group2[i2++] = i;
-                        mask[i] = -1;
-                        rem--;
-                    }
-                }
-            } else {
-                Rectangle mbr1 = (Rectangle) datas[group1[0]].clone();
-                for (int i = 1; i < i1; i++) {
-                    mbr1 = mbr1.getUnionRectangle(datas[group1[i]]);
-                }
-                Rectangle mbr2 = (Rectangle) datas[group2[0]].clone();
-                for (int i = 1; i < i2; i++) {
-                    mbr2 = mbr2.getUnionRectangle(datas[group2[i]]);
-                }
-
-                double dif = Double.NEGATIVE_INFINITY;
-                double areaDiff1 = 0, areaDiff2 = 0;
-                int sel = -1;
-                for (int i = 0; i < total; i++) {
-                    if (mask[i] != -1)
-                    {
-                        Rectangle a = mbr1.getUnionRectangle(datas[i]);
-                        areaDiff1 = a.getArea() - mbr1.getArea();
-
-                        Rectangle b = mbr2.getUnionRectangle(datas[i]);
-                        areaDiff2 = b.getArea() - mbr2.getArea();
-
-                        if (Math.abs(areaDiff1 - areaDiff2) > dif) {
-                            dif = Math.abs(areaDiff1 - areaDiff2);
-                            sel = i;
-                        }
-                    }
-                }
-
-                if (areaDiff1 < areaDiff2)
-                {
-                    group1[i1++] = sel;
-                } else if (areaDiff1 > areaDiff2) {
-                    group2[i2++] = sel;
-                } else if (mbr1.getArea() < mbr2.getArea())
-                {
-                    group1[i1++] = sel;
-                } else if (mbr1.getArea() > mbr2.getArea()) {
-                    group2[i2++] = sel;
-                } else if (i1 < i2)
-                {
-                    group1[i1++] = sel;
-                } else if (i1 > i2) {
-                    group2[i2++] = sel;
-                } else {
-                    group1[i1++] = sel;
-                }
-                mask[sel] = -1;
-                rem--;
+    protected int[] pickReinsertEntries(Rectangle rectangle) {
+        setData(usedSpace, rectangle);
+        return pickReinsertEntries();
+    }
 
+    protected int[] pickReinsertEntries() {
+        int total = usedSpace + 1;
+        int count = Math.round(total * Constants.RSTAR_REINSERT_FACTOR);
+        if (count < 1)
+            count = 1;
+
+        int dims = rtree.getDimension();
+        float[] center = new float[dims];
+        for (int d = 0, row = 0; d < dims; d++, row += 2 * stride) {
+            float lo = Float.POSITIVE_INFINITY;
+            float hi = Float.NEGATIVE_INFINITY;
+            for (int i = 0; i < total; i++) {
+                lo = Math.min(lo, bounds[row + i]);
+                hi = Math.max(hi, bounds[row + stride + i]);
             }
+            center[d] = (lo + hi) / 2;
         }
 
-        int[][] ret = new int[2][];
-        ret[0] = new int[i1];
-        ret[1] = new int[i2];
-
-        for (int i = 0; i < i1; i++) {
-            ret[0][i] = group1[i];
+        double[] distance = new double[total];
+        int[] order = new int[total];
+        for (int i = 0; i < total; i++) {
+            order[i] = i;
+            for (int d = 0, row = 0; d < dims; d++, row += 2 * stride) {
+                double diff = (bounds[row + i] + bounds[row + stride + i]) / 2 - center[d];
+                distance[i] += diff * diff;
+            }
         }
-        for (int i = 0; i < i2; i++) {
-            ret[1][i] = group2[i];
+
+        for (int i = 1; i < total; i++) {
+            int index = order[i];
+            int j = i - 1;
+            while (j >= 0 && distance[order[j]] < distance[index]) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = index;
         }
+
+        int[] ret = new int[count];
+        System.arraycopy(order, 0, ret, 0, count);
         return ret;
     }
 
-    protected int[] pickSeeds() {
-        double inefficiency = Double.NEGATIVE_INFINITY;
-        int i1 = 0, i2 = 0;
-
-        for (int i = 0; i < usedSpace; i++) {
-            for (int j = i + 1; j <= usedSpace; j++)
-            {
-                Rectangle rectangle = datas[i].getUnionRectangle(datas[j]);
-                double d = rectangle.getArea() - datas[i].getArea() - datas[j].getArea();
+    protected void removeEntries(int[] indexes, int total) {
+        boolean[] removed = new boolean[total];
+        for (int i = 0; i < indexes.length; i++) {
+            removed[indexes[i]] = true;
+        }
 
-                if (d > inefficiency) {
-                    inefficiency = d;
-                    i1 = i;
-                    i2 = j;
-                }
+        int j = 0;
+        for (int i = 0; i < total; i++) {
+            if (!removed[i]) {
+                moveData(i, j++);
             }
         }
-        return new int[] { i1, i2 };
+        usedSpace = j;
     }
 
     public Rectangle getNodeRectangle() {
-        if (usedSpace > 0) {
-            Rectangle[] rectangles = new Rectangle[usedSpace];
-            System.arraycopy(datas, 0, rectangles, 0, usedSpace);
-            return Rectangle.getUnionRectangle(rectangles);
-        } else {
-            return new Rectangle(new Point(new float[] { 0, 0 }), new Point(new float[] { 0, 0 }));
-        }
+        return MbrKernel.bounds(bounds, stride, usedSpace, bounds.length / (2 * stride));
     }
 
     public boolean isRoot() {
@@ -0,0 +1,878 @@
+package rtree;
+
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import rtree.Constants;
+
+public class RTree {
+    private static final int SEARCH_INTERSECTS = NodeScanner.INTERSECTS;
+    private static final int SEARCH_WITHIN = NodeScanner.WITHIN;
+    private static final int SEARCH_CONTAINS = NodeScanner.CONTAINS;
+
+    private volatile RTNode root;
+    private int tree_type;
+    private int nodeCapacity = -1;
+    private float fillFactor = -1;
+    private int dimension;
+    private int coordinates;
+    private SplitPolicy splitPolicy;
+    private final ThreadLocal<RTNode[]> searchStack = new ThreadLocal<RTNode[]>();
+    private long overflowedLevels;
+    private LongNodeMap idIndex = new LongNodeMap(16);
+    private float[] chooseBuffer;
+    private NodeScanner nodeScanner = NodeScanners.getDefault();
+    private RTreeMetrics metrics;
+    private Rectangle hilbertExtent;
+    private final Set<RTNode> underflows = Collections.newSetFromMap(new IdentityHashMap<RTNode, Boolean>());
+
+    public RTree(int capacity, float fillFactor, int type, int dimension) {
+        this(capacity, fillFactor, type, dimension, defaultSplitPolicy(type));
+    }
+
+    public RTree(int capacity, float fillFactor, int type, int dimension, int coordinates) {
+        this(capacity, fillFactor, type, dimension, defaultSplitPolicy(type), coordinates);
+    }
+
+    public RTree(int capacity, float fillFactor, int type, int dimension, SplitPolicy splitPolicy) {
+        this(capacity, fillFactor, type, dimension, splitPolicy, Constants.FLOAT_COORDINATES);
+    }
+
+    public RTree(int capacity, float fillFactor, int type, int dimension, SplitPolicy splitPolicy,
+            int coordinates) {
+        if (splitPolicy == null)
+            throw new IllegalArgumentException("Split policy cannot be null.");
+        if (dimension < 2)
+            throw new IllegalArgumentException("RTree dimension should be greater than 1.");
+        if (coordinates < Constants.FLOAT_COORDINATES || coordinates > Constants.LONG_COORDINATES)
+            throw new IllegalArgumentException("Invalid coordinate type.");
+        if (type == Constants.HILBERT)
+            HilbertCurve.bits(dimension);
+
+        this.fillFactor = fillFactor;
+        tree_type = type;
+        nodeCapacity = capacity;
+        this.dimension = dimension;
+        this.coordinates = coordinates;
+        this.splitPolicy = splitPolicy;
+        chooseBuffer = new float[4 * dimension];
+        root = new RTDataNode(this, Constants.NULL);
+    }
+
+    static SplitPolicy defaultSplitPolicy(int type) {
+        switch (type) {
+            case Constants.RTREE_LINEAR:
+                return new LinearSplitPolicy();
+            case Constants.RTREE_QUADRATIC:
+                return new QuadraticSplitPolicy();
+            case Constants.RTREE_EXPONENTIAL:
+                return new ExponentialSplitPolicy();
+            case Constants.RSTAR:
+                return new RStarSplitPolicy();
+            case Constants.HILBERT:
+                return new HilbertSplitPolicy();
+            default:
+                throw new IllegalArgumentException("Invalid tree type.");
+        }
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    RTNode getRoot() {
+        return root;
+    }
+
+    public void setRoot(RTNode root) {
+        this.root = root;
+    }
+
+    public Rectangle getHilbertExtent() {
+        return hilbertExtent;
+    }
+
+    public void setHilbertExtent(Rectangle extent) {
+        if (extent == null)
+            throw new IllegalArgumentException("Extent cannot be null.");
+        if (extent.getDimension() != dimension)
+            throw new IllegalArgumentException("Extent dimension different than RTree dimension.");
+        if (!root.isLeaf() || root.usedSpace > 0)
+            throw new IllegalStateException("Extent can only be set on an empty tree.");
+
+        hilbertExtent = extent;
+    }
+
+    long hilbertKey(Rectangle rectangle) {
+        return hilbertExtent == null ? HilbertCurve.key(rectangle) : HilbertCurve.key(rectangle, hilbertExtent);
+    }
+
+    public float getFillFactor() {
+        return fillFactor;
+    }
+
+    public int getNodeCapacity() {
+        return nodeCapacity;
+    }
+
+    public int getCoordinateType() {
+        return coordinates;
+    }
+
+    public int getTreeType() {
+        return tree_type;
+    }
+
+    public SplitPolicy getSplitPolicy() {
+        return splitPolicy;
+    }
+
+    public NodeScanner getNodeScanner() {
+        return nodeScanner;
+    }
+
+    public void setNodeScanner(NodeScanner nodeScanner) {
+        if (nodeScanner == null)
+            throw new IllegalArgumentException("Node scanner cannot be null.");
+        this.nodeScanner = nodeScanner;
+    }
+
+    public RTreeMetrics getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(RTreeMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    void countSplit() {
+        RTreeMetrics m = metrics;
+        if (m != null)
+            m.countSplit();
+    }
+
+    void countReinsertion() {
+        RTreeMetrics m = metrics;
+        if (m != null)
+            m.countReinsertion();
+    }
+
+    void countCondenseTree() {
+        RTreeMetrics m = metrics;
+        if (m != null)
+            m.countCondenseTree();
+    }
+
+    float[] getChooseBuffer() {
+        return chooseBuffer;
+    }
+
+    public boolean insert(Rectangle rectangle) {
+        if (rectangle == null)
+            throw new IllegalArgumentException("Rectangle cannot be null.");
+
+        if (rectangle.getDimension() != getDimension())
+        {
+            throw new IllegalArgumentException("Rectangle dimension different than RTree dimension.");
+        }
+
+        return insertEntry(rectangle, Constants.NIL);
+    }
+
+    public boolean insert(Rectangle rectangle, long id) {
+        if (rectangle == null)
+            throw new IllegalArgumentException("Rectangle cannot be null.");
+
+        if (rectangle.getDimension() != getDimension())
+        {
+            throw new IllegalArgumentException("Rectangle dimension different than RTree dimension.");
+        }
+        checkId(id);
+
+        return insertEntry(rectangle, id);
+    }
+
+    private boolean insertEntry(Rectangle rectangle, long id) {
+        checkCoordinates(rectangle);
+
+        RTreeMetrics m = metrics;
+        long start = (m != null) ? System.nanoTime() : 0;
+        overflowedLevels = 0;
+        boolean inserted = insertData(rectangle, id);
+        if (m != null)
+            m.recordLatency(RTreeMetrics.INSERT, start);
+        return inserted;
+    }
+
+    public void insertAll(Collection<Rectangle> rectangles) {
+        insertAll(rectangles, null);
+    }
+
+    public void insertAll(Collection<Rectangle> rectangles, long[] ids) {
+        if (rectangles == null)
+            throw new IllegalArgumentException("Rectangles cannot be null.");
+
+        if (ids != null && ids.length != rectangles.size())
+            throw new IllegalArgumentException("Ids must match rectangles.");
+
+        for (Rectangle rectangle : rectangles) {
+            if (rectangle == null)
+                throw new IllegalArgumentException("Rectangle cannot be null.");
+
+            if (rectangle.getDimension() != getDimension()) {
+                throw new IllegalArgumentException("Rectangle dimension different than RTree dimension.");
+            }
+            checkCoordinates(rectangle);
+        }
+        checkIds(ids);
+
+        insertEntries(rectangles, ids);
+    }
+
+    private void insertEntries(Collection<Rectangle> rectangles, long[] ids) {
+        if (tree_type == Constants.HILBERT) {
+            int next = 0;
+            for (Rectangle rectangle : rectangles) {
+                overflowedLevels = 0;
+                insertData(rectangle, (ids == null) ? Constants.NIL : ids[next++]);
+            }
+            return;
+        }
+
+        Rectangle[] batch = rectangles.toArray(new Rectangle[rectangles.size()]);
+        int[] order = batchOrder(batch);
+
+        Set<RTNode> touched = Collections.newSetFromMap(new IdentityHashMap<RTNode, Boolean>());
+        float[] leafBox = new float[2 * dimension];
+        float[] box = new float[2 * dimension];
+        RTDataNode leaf = null;
+        for (int i : order) {
+            Rectangle rectangle = batch[i];
+            long id = (ids == null) ? Constants.NIL : ids[i];
+            overflowedLevels = 0;
+            rectangle.copyBounds(box, 1, 0);
+            if (leaf == null || leaf.usedSpace == nodeCapacity || !encloses(leafBox, box)) {
+                leaf = root.chooseLeaf(rectangle);
+                leaf.getNodeRectangle().copyBounds(leafBox, 1, 0);
+            }
+            if (leaf.usedSpace < nodeCapacity) {
+                leaf.setEntry(leaf.usedSpace++, rectangle, id);
+                touched.add(leaf);
+            } else {
+                leaf.insert(rectangle, id);
+                leaf = null;
+            }
+        }
+
+        while (!touched.isEmpty()) {
+            Set<RTNode> parents = Collections.newSetFromMap(new IdentityHashMap<RTNode, Boolean>());
+            for (RTNode node : touched) {
+                RTDirNode parent = (RTDirNode) node.getParent();
+                if (parent == null)
+                    continue;
+
+                int index = parent.children.indexOf(node);
+                if (index < 0)
+                    continue;
+
+                parent.setChildBounds(index, node);
+                parents.add(parent);
+            }
+            touched = parents;
+        }
+    }
+
+    private int[] batchOrder(Rectangle[] batch) {
+        int[] order = new int[batch.length];
+        int indexBits = 64 - Long.numberOfLeadingZeros(Math.max(1, batch.length - 1));
+        int bits = (dimension > 63) ? 0 : Math.min(Math.min(HilbertCurve.bits(dimension),
+                (63 - indexBits) / dimension), (indexBits + dimension - 1) / dimension + 2);
+        if (batch.length < 2 || bits < 1) {
+            for (int i = 0; i < batch.length; i++) {
+                order[i] = i;
+            }
+            return order;
+        }
+
+        Rectangle extent = Rectangle.getUnionRectangle(batch);
+        int[] cell = new int[dimension];
+        long[] keys = new long[batch.length];
+        for (int i = 0; i < batch.length; i++) {
+            for (int d = 0; d < dimension; d++) {
+                cell[d] = HilbertCurve.quantize(batch[i].getCenter(d), extent.getLowCoordinate(d),
+                        extent.getHighCoordinate(d), bits);
+            }
+            keys[i] = HilbertCurve.index(cell, bits) << indexBits | i;
+        }
+        Arrays.sort(keys);
+        long mask = (1L << indexBits) - 1;
+        for (int i = 0; i < batch.length; i++) {
+            order[i] = (int) (keys[i] & mask);
+        }
+        return order;
+    }
+
+    private static boolean encloses(float[] outer, float[] inner) {
+        for (int d = 0; d < outer.length; d += 2) {
+            if (inner[d] < outer[d] || inner[d + 1] > outer[d + 1])
+                return false;
+        }
+        return true;
+    }
+
+    private void checkId(long id) {
+        if (id == Constants.NIL)
+            throw new IllegalArgumentException("Id cannot be NIL.");
+
+        if (idIndex.get(id) != null)
+            throw new IllegalArgumentException("Duplicate id.");
+    }
+
+    private void checkIds(long[] ids) {
+        if (ids == null)
+            return;
+
+        long[] sorted = ids.clone();
+        Arrays.sort(sorted);
+        for (int i = 0; i < sorted.length; i++) {
+            checkId(sorted[i]);
+            if (i > 0 && sorted[i] == sorted[i - 1])
+                throw new IllegalArgumentException("Duplicate id.");
+        }
+    }
+
+    void deferUnderflow(RTNode node) {
+        underflows.add(node);
+    }
+
+    void condenseDeferred() {
+        if (underflows.size() >= Constants.CONDENSE_BATCH)
+            condense();
+    }
+
+    public void condense() {
+        if (underflows.isEmpty())
+            return;
+
+        int min = Math.round(nodeCapacity * fillFactor);
+        List<RTNode> pending = new ArrayList<RTNode>(underflows);
+        underflows.clear();
+        List<RTNode> removed = new ArrayList<RTNode>();
+        for (RTNode node : pending) {
+            if (node.usedSpace >= min || !isAttached(node))
+                continue;
+
+            RTNode child = node;
+            while (!child.isRoot()) {
+                RTDirNode parent = (RTDirNode) child.getParent();
+                int index = parent.children.indexOf(child);
+                if (child.usedSpace < min || child.usedSpace == 0) {
+                    countCondenseTree();
+                    parent.deleteData(index);
+                    parent.children.remove(index);
+                    child.parent = null;
+                    removed.add(child);
+                } else {
+                    parent.setChildBounds(index, child);
+                }
+                child = parent;
+            }
+        }
+
+        while (!root.isLeaf() && root.usedSpace == 1) {
+            RTNode child = ((RTDirNode) root).getChild(0);
+            child.parent = null;
+            setRoot(child);
+        }
+        if (!root.isLeaf() && root.usedSpace == 0)
+            setRoot(new RTDataNode(this, Constants.NULL));
+
+        List<Rectangle> orphans = new ArrayList<Rectangle>();
+        long[] orphanIds = new long[16];
+        while (!removed.isEmpty()) {
+            RTNode node = removed.remove(removed.size() - 1);
+            if (node.isLeaf()) {
+                RTDataNode leaf = (RTDataNode) node;
+                for (int k = 0; k < leaf.usedSpace; k++) {
+                    if (orphans.size() == orphanIds.length) {
+                        long[] grown = new long[orphanIds.length * 2];
+                        System.arraycopy(orphanIds, 0, grown, 0, orphans.size());
+                        orphanIds = grown;
+                    }
+                    unindexId(leaf.ids[k], leaf);
+                    orphanIds[orphans.size()] = leaf.ids[k];
+                    orphans.add(leaf.getData(k));
+                }
+            } else {
+                removed.addAll(((RTDirNode) node).children);
+            }
+        }
+
+        long[] reinsertIds = new long[orphans.size()];
+        System.arraycopy(orphanIds, 0, reinsertIds, 0, reinsertIds.length);
+        insertEntries(orphans, reinsertIds);
+    }
+
+    private boolean isAttached(RTNode node) {
+        while (node.getParent() != null)
+            node = node.getParent();
+        return node == root;
+    }
+
+    private void checkCoordinates(Rectangle rectangle) {
+        if (rectangle instanceof DoubleRectangle) {
+            if (coordinates != Constants.DOUBLE_COORDINATES)
+                throw new IllegalArgumentException("Double rectangles require double coordinates.");
+        } else if (rectangle instanceof LongRectangle) {
+            if (coordinates != Constants.LONG_COORDINATES)
+                throw new IllegalArgumentException("Long rectangles require long coordinates.");
+        } else if (rectangle instanceof IntRectangle) {
+            if (coordinates != Constants.FLOAT_COORDINATES)
+                return;
+            for (int d = 0; d < dimension; d++) {
+                if (rectangle.getLowCoordinate(d) != rectangle.getLowDoubleCoordinate(d)
+                        || rectangle.getHighCoordinate(d) != rectangle.getHighDoubleCoordinate(d))
+                    throw new IllegalArgumentException("Rectangle is not exact in float coordinates.");
+            }
+        } else if (coordinates == Constants.INT_COORDINATES) {
+            for (int d = 0; d < dimension; d++) {
+                if (!IntPoint.onGrid(rectangle.getLowCoordinate(d)) || !IntPoint.onGrid(rectangle.getHighCoordinate(d)))
+                    throw new IllegalArgumentException("Rectangle is not on the int grid.");
+            }
+        } else if (coordinates == Constants.LONG_COORDINATES) {
+            for (int d = 0; d < dimension; d++) {
+                if (!LongPoint.onGrid(rectangle.getLowCoordinate(d)) || !LongPoint.onGrid(rectangle.getHighCoordinate(d)))
+                    throw new IllegalArgumentException("Rectangle is not on the long grid.");
+            }
+        }
+    }
+
+    void relocate(Rectangle rectangle, long id) {
+        overflowedLevels = 0;
+        insertData(rectangle, id);
+        condenseDeferred();
+    }
+
+    boolean insertData(Rectangle rectangle, long id) {
+        RTDataNode leaf = root.chooseLeaf(rectangle);
+
+        return leaf.insert(rectangle, id);
+    }
+
+    void insertNode(RTNode node) {
+        RTDirNode target = ((RTDirNode) root).chooseNode(node.getNodeRectangle(), node.level + 1);
+        target.insert(node);
+    }
+
+    boolean markOverflow(int level) {
+        long bit = 1L << level;
+        if ((overflowedLevels & bit) != 0)
+            return false;
+        overflowedLevels |= bit;
+        return true;
+    }
+
+    public void bulkLoad(Collection<Rectangle> rectangles) {
+        bulkLoad(rectangles, 1.0f);
+    }
+
+    public void bulkLoad(Collection<Rectangle> rectangles, float packingFactor) {
+        bulkLoad(rectangles, null, packingFactor);
+    }
+
+    public void bulkLoad(Collection<Rectangle> rectangles, long[] ids, float packingFactor) {
+        checkBulkLoad(rectangles, ids);
+        idIndex = null;
+        try {
+            root = new BulkLoader(this, packingFactor).load(rectangles, ids);
+        } finally {
+            rebuildIdIndex();
+        }
+    }
+
+    public void bulkLoad(Collection<Rectangle> rectangles, float packingFactor, ForkJoinPool pool) {
+        bulkLoad(rectangles, null, packingFactor, pool);
+    }
+
+    public void bulkLoad(Collection<Rectangle> rectangles, long[] ids, float packingFactor, ForkJoinPool pool) {
+        checkBulkLoad(rectangles, ids);
+        idIndex = null;
+        try {
+            root = new ParallelBulkLoader(this, packingFactor, pool).load(rectangles, ids);
+        } finally {
+            rebuildIdIndex();
+        }
+    }
+
+    private void checkBulkLoad(Collection<Rectangle> rectangles, long[] ids) {
+        if (rectangles == null)
+            throw new IllegalArgumentException("Rectangles cannot be null.");
+
+        if (ids != null && ids.length != rectangles.size())
+            throw new IllegalArgumentException("Ids must match rectangles.");
+
+        if (!root.isLeaf() || root.usedSpace > 0)
+            throw new IllegalStateException("Bulk load requires an empty tree.");
+
+        for (Rectangle rectangle : rectangles) {
+            if (rectangle == null)
+                throw new IllegalArgumentException("Rectangle cannot be null.");
+
+            if (rectangle.getDimension() != getDimension()) {
+                throw new IllegalArgumentException("Rectangle dimension different than RTree dimension.");
+            }
+            checkCoordinates(rectangle);
+        }
+        checkIds(ids);
+    }
+
+    public int delete(Rectangle rectangle) {
+        if (rectangle == null) {
+            throw new IllegalArgumentException("Rectangle cannot be null.");
+        }
+
+        if (rectangle.getDimension() != getDimension()) {
+            throw new IllegalArgumentException("Rectangle dimension different than RTree dimension.");
+        }
+
+        RTreeMetrics m = metrics;
+        long start = (m != null) ? System.nanoTime() : 0;
+        RTDataNode leaf = root.findLeaf(rectangle);
+        int index = (leaf != null) ? leaf.delete(rectangle) : -1;
+        if (m != null)
+            m.recordLatency(RTreeMetrics.DELETE, start);
+        return index;
+    }
+
+    public boolean delete(long id) {
+        RTreeMetrics m = metrics;
+        long start = (m != null) ? System.nanoTime() : 0;
+        RTDataNode leaf = idIndex.get(id);
+        boolean deleted = leaf != null && leaf.delete(id);
+        if (m != null)
+            m.recordLatency(RTreeMetrics.DELETE, start);
+        return deleted;
+    }
+
+    public boolean update(long id, Rectangle rectangle) {
+        if (rectangle == null)
+            throw new IllegalArgumentException("Rectangle cannot be null.");
+
+        if (rectangle.getDimension() != getDimension()) {
+            throw new IllegalArgumentException("Rectangle dimension different than RTree dimension.");
+        }
+        checkCoordinates(rectangle);
+
+        RTreeMetrics m = metrics;
+        long start = (m != null) ? System.nanoTime() : 0;
+        RTDataNode leaf = idIndex.get(id);
+        boolean updated = leaf != null && leaf.update(id, rectangle);
+        if (m != null)
+            m.recordLatency(RTreeMetrics.UPDATE, start);
+        return updated;
+    }
+
+    public boolean contains(long id) {
+        return idIndex.get(id) != null;
+    }
+
+    void indexId(long id, RTDataNode leaf) {
+        if (idIndex != null)
+            idIndex.put(id, leaf);
+    }
+
+    void unindexId(long id, RTDataNode leaf) {
+        if (idIndex != null)
+            idIndex.remove(id, leaf);
+    }
+
+    void rebuildIdIndex() {
+        LongNodeMap index = new LongNodeMap(16);
+        List<RTNode> stack = new ArrayList<RTNode>();
+        stack.add(root);
+        while (!stack.isEmpty()) {
+            RTNode node = stack.remove(stack.size() - 1);
+            if (node.isLeaf()) {
+                RTDataNode leaf = (RTDataNode) node;
+                for (int i = 0; i < leaf.usedSpace; i++) {
+                    index.put(leaf.ids[i], leaf);
+                }
+            } else {
+                stack.addAll(((RTDirNode) node).children);
+            }
+        }
+        idIndex = index;
+    }
+
+    public int search(Rectangle window, Consumer<Rectangle> consumer) {
+        if (consumer == null)
+            throw new IllegalArgumentException("Consumer cannot be null.");
+
+        return search(window, consumer, null, SEARCH_INTERSECTS);
+    }
+
+    public int searchWithin(Rectangle window, Consumer<Rectangle> consumer) {
+        if (consumer == null)
+            throw new IllegalArgumentException("Consumer cannot be null.");
+
+        return search(window, consumer, null, SEARCH_WITHIN);
+    }
+
+    public int searchContaining(Rectangle window, Consumer<Rectangle> consumer) {
+        if (consumer == null)
+            throw new IllegalArgumentException("Consumer cannot be null.");
+
+        return search(window, consumer, null, SEARCH_CONTAINS);
+    }
+
+    public int searchEntries(Rectangle window, EntryConsumer consumer) {
+        if (consumer == null)
+            throw new IllegalArgumentException("Consumer cannot be null.");
+
+        return search(window, null, consumer, SEARCH_INTERSECTS);
+    }
+
+    public int searchEntriesWithin(Rectangle window, EntryConsumer consumer) {
+        if (consumer == null)
+            throw new IllegalArgumentException("Consumer cannot be null.");
+
+        return search(window, null, consumer, SEARCH_WITHIN);
+    }
+
+    public int searchEntriesContaining(Rectangle window, EntryConsumer consumer) {
+        if (consumer == null)
+            throw new IllegalArgumentException("Consumer cannot be null.");
+
+        return search(window, null, consumer, SEARCH_CONTAINS);
+    }
+
+    private int search(Rectangle window, Consumer<Rectangle> consumer, EntryConsumer entryConsumer, int mode) {
+        if (window == null)
+            throw new IllegalArgumentException("Rectangle cannot be null.");
+
+        if (window.getDimension() != getDimension()) {
+            throw new IllegalArgumentException("Rectangle dimension different than RTree dimension.");
+        }
+
+        RTreeMetrics m = metrics;
+        long start = (m != null) ? System.nanoTime() : 0;
+        RTNode[] stack = searchStack.get();
+        searchStack.set(null);
+        if (stack == null)
+            stack = new RTNode[32];
+
+        float[] box = new float[2 * getDimension()];
+        window.copyBounds(box, 1, 0);
+        int[] hits = new int[nodeCapacity + 1];
+        NodeScanner scanner = nodeScanner;
+        boolean exactWindow = window.isExact();
+
+        int top = 0;
+        int found = 0;
+        long visited = 0;
+        long tested = 0;
+        try {
+            stack[top++] = root;
+            while (top > 0) {
+                RTNode node = stack[--top];
+                stack[top] = null;
+                visited++;
+                tested += node.usedSpace;
+
+                if (node.isLeaf()) {
+                    RTDataNode leaf = (RTDataNode) node;
+                    int count = scanner.scan(node.bounds, node.stride, node.usedSpace, box, mode, hits);
+                    if (!exactWindow || !leaf.exactBounds)
+                        count = refine(leaf, window, mode, hits, count);
+                    for (int h = 0; h < count; h++) {
+                        int i = hits[h];
+                        if (entryConsumer != null) {
+                            entryConsumer.accept(leaf.ids[i], leaf.getData(i));
+                        } else {
+                            consumer.accept(leaf.getData(i));
+                        }
+                    }
+                    found += count;
+                } else {
+                    RTDirNode dirNode = (RTDirNode) node;
+                    int count = scanner.scan(node.bounds, node.stride, node.usedSpace, box,
+                            mode == SEARCH_CONTAINS ? SEARCH_CONTAINS : SEARCH_INTERSECTS, hits);
+                    if (top + count > stack.length) {
+                        RTNode[] grown = new RTNode[Math.max(stack.length * 2, top + count)];
+                        System.arraycopy(stack, 0, grown, 0, top);
+                        stack = grown;
+                    }
+                    for (int h = 0; h < count; h++) {
+                        stack[top++] = dirNode.children.get(hits[h]);
+                    }
+                }
+            }
+        } finally {
+            while (top > 0)
+                stack[--top] = null;
+            searchStack.set(stack);
+        }
+        if (m != null)
+            m.recordQuery(RTreeMetrics.SEARCH, start, visited, tested, found);
+        return found;
+    }
+
+    private static int refine(RTDataNode leaf, Rectangle window, int mode, int[] hits, int count) {
+        int n = 0;
+        for (int h = 0; h < count; h++) {
+            if (leaf.matches(hits[h], window, mode))
+                hits[n++] = hits[h];
+        }
+        return n;
+    }
+
+    public List<Rectangle> nearest(Point point, int k) {
+        if (point == null)
+            throw new IllegalArgumentException("Point cannot be null.");
+
+        if (point.getDimension() != getDimension()) {
+            throw new IllegalArgumentException("Point dimension different than RTree dimension.");
+        }
+
+        return nearest(new NearestNeighborIterator(root, point, k), k);
+    }
+
+    public List<Rectangle> nearest(DoublePoint point, int k) {
+        if (point == null)
+            throw new IllegalArgumentException("Point cannot be null.");
+
+        if (point.getDimension() != getDimension()) {
+            throw new IllegalArgumentException("Point dimension different than RTree dimension.");
+        }
+
+        return nearest(new NearestNeighborIterator(root, point, k), k);
+    }
+
+    private List<Rectangle> nearest(NearestNeighborIterator iterator, int k) {
+        RTreeMetrics m = metrics;
+        long start = (m != null) ? System.nanoTime() : 0;
+        List<Rectangle> list = new ArrayList<Rectangle>(Math.min(k, 64));
+        while (iterator.hasNext()) {
+            list.add(iterator.next());
+        }
+        if (m != null)
+            m.recordQuery(RTreeMetrics.NEAREST, start, iterator.getNodesVisited(), iterator.getEntriesTested(),
+                    list.size());
+        return list;
+    }
+
+    public long join(RTree other, BiConsumer<Rectangle, Rectangle> consumer) {
+        checkJoin(other);
+        long start = (metrics != null) ? System.nanoTime() : 0;
+        return recordJoin(start, new SpatialJoin(consumer).join(root, other.root));
+    }
+
+    public long join(RTree other, BiConsumer<Rectangle, Rectangle> consumer, ForkJoinPool pool) {
+        checkJoin(other);
+        long start = (metrics != null) ? System.nanoTime() : 0;
+        return recordJoin(start, new SpatialJoin(consumer).join(root, other.root, pool));
+    }
+
+    public long join(RTree other, float distance, BiConsumer<Rectangle, Rectangle> consumer) {
+        checkJoin(other);
+        long start = (metrics != null) ? System.nanoTime() : 0;
+        return recordJoin(start, new SpatialJoin(consumer, distance).join(root, other.root));
+    }
+
+    public long selfJoin(float distance, BiConsumer<Rectangle, Rectangle> consumer) {
+        long start = (metrics != null) ? System.nanoTime() : 0;
+        return recordJoin(start, new SpatialJoin(consumer, distance).selfJoin(root));
+    }
+
+    public long selfJoin(float distance, BiConsumer<Rectangle, Rectangle> consumer, ForkJoinPool pool) {
+        long start = (metrics != null) ? System.nanoTime() : 0;
+        return recordJoin(start, new SpatialJoin(consumer, distance).selfJoin(root, pool));
+    }
+
+    private long recordJoin(long start, long found) {
+        RTreeMetrics m = metrics;
+        if (m != null && start != 0)
+            m.recordLatency(RTreeMetrics.JOIN, start);
+        return found;
+    }
+
+    private void checkJoin(RTree other) {
+        if (other == null)
+            throw new IllegalArgumentException("RTree cannot be null.");
+
+        if (other.getDimension() != getDimension()) {
+            throw new IllegalArgumentException("RTree dimensions do not match.");
+        }
+    }
+
+    public NearestNeighborIterator nearestIterator(Point point) {
+        if (point == null)
+            throw new IllegalArgumentException("Point cannot be null.");
+
+        if (point.getDimension() != getDimension()) {
+            throw new IllegalArgumentException("Point dimension different than RTree dimension.");
+        }
+
+        return new NearestNeighborIterator(root, point, Integer.MAX_VALUE);
+    }
+
+    public NearestNeighborIterator nearestIterator(DoublePoint point) {
+        if (point == null)
+            throw new IllegalArgumentException("Point cannot be null.");
+
+        if (point.getDimension() != getDimension()) {
+            throw new IllegalArgumentException("Point dimension different than RTree dimension.");
+        }
+
+        return new NearestNeighborIterator(root, point, Integer.MAX_VALUE);
+    }
+
+    public void writeTo(WritableByteChannel channel) throws IOException {
+        if (channel == null)
+            throw new IllegalArgumentException("Channel cannot be null.");
+
+        RTreeSerializer.write(this, channel);
+    }
+
+    public static RTree readFrom(ReadableByteChannel channel) throws IOException {
+        if (channel == null)
+            throw new IllegalArgumentException("Channel cannot be null.");
+
+        return RTreeSerializer.read(channel);
+    }
+
+    public TreeReport analyze() {
+        return TreeAnalyzer.analyze(this);
+    }
+
+    public List<RTNode> traversePostOrder(RTNode root) {
+        if (root == null)
+            throw new IllegalArgumentException("Node cannot be null.");
+
+        List<RTNode> list = new ArrayList<RTNode>();
+        list.add(root);
+
+        if (!root.isLeaf()) {
+            for (int i = 0; i < root.usedSpace; i++) {
+                List<RTNode> a = traversePostOrder(((RTDirNode) root).getChild(i));
+                for (int j = 0; j < a.size(); j++) {
+                    list.add(a.get(j));
+                }
+            }
+        }
+
+        return list;
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,181 @@
+package rtree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+public class RTreeCompactor implements Runnable {
+    private static final double MIN_GAIN = 0.9;
+
+    private final RTree rtree;
+    private final float packingFactor;
+    private final int budget;
+    private final Map<RTNode, Double> settled = new WeakHashMap<RTNode, Double>();
+
+    public RTreeCompactor(RTree rtree) {
+        this(rtree, 1.0f, 4096);
+    }
+
+    public RTreeCompactor(RTree rtree, float packingFactor, int budget) {
+        if (rtree == null)
+            throw new IllegalArgumentException("RTree cannot be null.");
+        if (packingFactor <= 0 || packingFactor > 1)
+            throw new IllegalArgumentException("Packing factor must be in (0, 1].");
+        if (budget < 1)
+            throw new IllegalArgumentException("Budget must be positive.");
+
+        this.rtree = rtree;
+        this.packingFactor = packingFactor;
+        this.budget = budget;
+    }
+
+    @Override
+    public void run() {
+        compact(budget);
+    }
+
+    public int compact(int maxEntries) {
+        if (maxEntries < 1)
+            throw new IllegalArgumentException("Budget must be positive.");
+
+        RTNode root = rtree.getRoot();
+        if (root.isLeaf())
+            return 0;
+
+        List<RTNode> candidates = new ArrayList<RTNode>();
+        collect(root, targetLevel((RTDirNode) root, maxEntries), candidates);
+
+        int n = candidates.size();
+        double[] scores = new double[n];
+        long[] order = new long[n];
+        for (int i = 0; i < n; i++) {
+            scores[i] = TreeAnalyzer.score(candidates.get(i));
+            order[i] = ((long) Float.floatToIntBits((float) scores[i]) << 32) | i;
+        }
+        Arrays.sort(order);
+
+        int spent = 0;
+        int repacked = 0;
+        for (int k = n - 1; k >= 0 && spent < maxEntries; k--) {
+            int i = (int) order[k];
+            RTNode node = candidates.get(i);
+            Double previous = settled.get(node);
+            if (previous != null && scores[i] <= previous / MIN_GAIN)
+                continue;
+
+            List<RTDataNode> leaves = new ArrayList<RTDataNode>();
+            int size = collectLeaves(node, leaves);
+            if (spent > 0 && spent + size > maxEntries)
+                continue;
+
+            spent += size;
+            if (repack(node, leaves, size, scores[i])) {
+                repacked++;
+            } else {
+                settled.put(node, scores[i]);
+            }
+        }
+        return repacked;
+    }
+
+    private int targetLevel(RTDirNode root, int maxEntries) {
+        double used = 0;
+        for (RTNode child : root.children) {
+            used += child.usedSpace;
+        }
+        double fanout = Math.max(2, used / root.usedSpace);
+        int level = 1;
+        while (level < root.level && Math.pow(fanout, level + 2) <= maxEntries) {
+            level++;
+        }
+        return level;
+    }
+
+    private void collect(RTNode node, int level, List<RTNode> out) {
+        if (node.level == level) {
+            out.add(node);
+            return;
+        }
+        for (RTNode child : ((RTDirNode) node).children) {
+            collect(child, level, out);
+        }
+    }
+
+    private static int collectLeaves(RTNode node, List<RTDataNode> out) {
+        if (node.isLeaf()) {
+            out.add((RTDataNode) node);
+            return node.usedSpace;
+        }
+
+        int size = 0;
+        for (RTNode child : ((RTDirNode) node).children) {
+            size += collectLeaves(child, out);
+        }
+        return size;
+    }
+
+    private boolean repack(RTNode node, List<RTDataNode> leaves, int size, double score) {
+        if (size == 0)
+            return false;
+
+        Rectangle[] rects = new Rectangle[size];
+        long[] ids = new long[size];
+        int next = 0;
+        for (RTDataNode leaf : leaves) {
+            for (int i = 0; i < leaf.usedSpace; i++) {
+                rects[next] = leaf.getData(i);
+                ids[next++] = leaf.ids[i];
+            }
+        }
+
+        RTNode parent = node.getParent();
+        RTNode replacement;
+        if (parent == null) {
+            replacement = new BulkLoader(rtree, packingFactor).load(Arrays.asList(rects), ids);
+        } else {
+            RTNode[] nodes = new BulkLoader(rtree, packingFactor).pack(rects, ids, node.level - 1);
+            if (nodes[0].level != node.level - 1 || nodes.length < 2 || nodes.length > rtree.getNodeCapacity()) {
+                reindex(leaves);
+                return false;
+            }
+
+            RTDirNode dirNode = new RTDirNode(rtree, parent, node.level);
+            for (RTNode child : nodes) {
+                dirNode.addChild(child);
+            }
+            replacement = dirNode;
+        }
+
+        if (TreeAnalyzer.score(replacement) >= score * MIN_GAIN) {
+            reindex(leaves);
+            return false;
+        }
+
+        rtree.setRoot(parent == null ? replacement : copyPath((RTDirNode) parent, node, replacement));
+        return true;
+    }
+
+    private static RTNode copyPath(RTDirNode parent, RTNode node, RTNode replacement) {
+        while (parent != null) {
+            RTDirNode copy = parent.copy();
+            copy.children.set(parent.children.indexOf(node), replacement);
+            for (RTNode child : copy.children) {
+                child.parent = copy;
+            }
+            node = parent;
+            replacement = copy;
+            parent = (RTDirNode) parent.parent;
+        }
+        return replacement;
+    }
+
+    private void reindex(List<RTDataNode> leaves) {
+        for (RTDataNode leaf : leaves) {
+            for (int i = 0; i < leaf.usedSpace; i++) {
+                rtree.indexId(leaf.ids[i], leaf);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,76 @@
+package rtree;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class RTreeMetrics {
+    public static final int INSERT = 0;
+    public static final int DELETE = 1;
+    public static final int UPDATE = 2;
+    public static final int SEARCH = 3;
+    public static final int NEAREST = 4;
+    public static final int JOIN = 5;
+
+    static final int OPERATIONS = 6;
+
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder nodesVisited = new LongAdder();
+    private final LongAdder entriesTested = new LongAdder();
+    private final LongAdder results = new LongAdder();
+    private final LongAdder splits = new LongAdder();
+    private final LongAdder reinsertions = new LongAdder();
+    private final LongAdder condenseTrees = new LongAdder();
+    private final LatencyHistogram[] latencies = new LatencyHistogram[OPERATIONS];
+
+    public RTreeMetrics() {
+        for (int i = 0; i < OPERATIONS; i++) {
+            latencies[i] = new LatencyHistogram();
+        }
+    }
+
+    void recordQuery(int operation, long start, long visited, long tested, long found) {
+        long elapsed = System.nanoTime() - start;
+        queries.increment();
+        nodesVisited.add(visited);
+        entriesTested.add(tested);
+        results.add(found);
+        latencies[operation].record(elapsed);
+    }
+
+    void recordLatency(int operation, long start) {
+        latencies[operation].record(System.nanoTime() - start);
+    }
+
+    void countSplit() {
+        splits.increment();
+    }
+
+    void countReinsertion() {
+        reinsertions.increment();
+    }
+
+    void countCondenseTree() {
+        condenseTrees.increment();
+    }
+
+    public RTreeMetricsSnapshot snapshot() {
+        LatencyHistogram[] copies = new LatencyHistogram[OPERATIONS];
+        for (int i = 0; i < OPERATIONS; i++) {
+            copies[i] = latencies[i].copy();
+        }
+        return new RTreeMetricsSnapshot(queries.sum(), nodesVisited.sum(), entriesTested.sum(), results.sum(),
+                splits.sum(), reinsertions.sum(), condenseTrees.sum(), copies);
+    }
+
+    public void reset() {
+        queries.reset();
+        nodesVisited.reset();
+        entriesTested.reset();
+        results.reset();
+        splits.reset();
+        reinsertions.reset();
+        condenseTrees.reset();
+        for (int i = 0; i < OPERATIONS; i++) {
+            latencies[i].reset();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,88 @@
+package rtree;
+
+public class RTreeMetricsSnapshot {
+    private static final String[] NAMES = { "insert", "delete", "update", "search", "nearest", "join" };
+
+    private final long queries;
+    private final long nodesVisited;
+    private final long entriesTested;
+    private final long results;
+    private final long splits;
+    private final long reinsertions;
+    private final long condenseTrees;
+    private final LatencyHistogram[] latencies;
+
+    RTreeMetricsSnapshot(long queries, long nodesVisited, long entriesTested, long results, long splits,
+            long reinsertions, long condenseTrees, LatencyHistogram[] latencies) {
+        this.queries = queries;
+        this.nodesVisited = nodesVisited;
+        this.entriesTested = entriesTested;
+        this.results = results;
+        this.splits = splits;
+        this.reinsertions = reinsertions;
+        this.condenseTrees = condenseTrees;
+        this.latencies = latencies;
+    }
+
+    public long getQueries() {
+        return queries;
+    }
+
+    public long getNodesVisited() {
+        return nodesVisited;
+    }
+
+    public long getEntriesTested() {
+        return entriesTested;
+    }
+
+    public long getResults() {
+        return results;
+    }
+
+    public long getSplits() {
+        return splits;
+    }
+
+    public long getReinsertions() {
+        return reinsertions;
+    }
+
+    public long getCondenseTrees() {
+        return condenseTrees;
+    }
+
+    public double getNodesPerQuery() {
+        return queries == 0 ? 0 : (double) nodesVisited / queries;
+    }
+
+    public double getPruningRatio() {
+        if (entriesTested == 0)
+            return 0;
+
+        long followed = nodesVisited - queries + results;
+        return Math.max(0, 1 - (double) followed / entriesTested);
+    }
+
+    public LatencyHistogram getLatency(int operation) {
+        if (operation < 0 || operation >= RTreeMetrics.OPERATIONS)
+            throw new IllegalArgumentException("Unknown operation.");
+
+        return latencies[operation].copy();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("queries=").append(queries).append(" nodesVisited=").append(nodesVisited)
+                .append(" entriesTested=").append(entriesTested).append(" results=").append(results)
+                .append(" pruningRatio=").append(String.format("%.3f", getPruningRatio()))
+                .append(" splits=").append(splits).append(" reinsertions=").append(reinsertions)
+                .append(" condenseTrees=").append(condenseTrees);
+        for (int i = 0; i < latencies.length; i++) {
+            if (latencies[i].getCount() > 0)
+                sb.append('\n').append(NAMES[i]).append(": ").append(latencies[i]);
+        }
+        return sb.toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,324 @@
+package rtree;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+class RTreeSerializer {
+    private static final int MAGIC = 0x52545253;
+    private static final int VERSION = 5;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private final CRC32 crc = new CRC32();
+    private int checked;
+
+    static void write(RTree rtree, WritableByteChannel channel) throws IOException {
+        new RTreeSerializer().writeTree(rtree, channel);
+    }
+
+    static RTree read(ReadableByteChannel channel) throws IOException {
+        return new RTreeSerializer().readTree(channel);
+    }
+
+    private void writeTree(RTree rtree, WritableByteChannel channel) throws IOException {
+        int dimension = rtree.getDimension();
+        int coordinates = rtree.getCoordinateType();
+
+        List<RTNode> nodes = new ArrayList<RTNode>();
+        nodes.add(rtree.getRoot());
+        for (int i = 0; i < nodes.size(); i++) {
+            RTNode node = nodes.get(i);
+            if (!node.isLeaf()) {
+                nodes.addAll(((RTDirNode) node).children);
+            }
+        }
+
+        buffer.clear();
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putInt(dimension);
+        buffer.putInt(rtree.getNodeCapacity());
+        buffer.putFloat(rtree.getFillFactor());
+        buffer.putInt(rtree.getTreeType());
+        buffer.putInt(coordinates);
+        buffer.putInt(rtree.getRoot().level + 1);
+        buffer.putInt(nodes.size());
+        Rectangle extent = rtree.getHilbertExtent();
+        buffer.putInt(extent == null ? 0 : 1);
+        if (extent != null) {
+            for (int d = 0; d < dimension; d++) {
+                buffer.putFloat(extent.getLowCoordinate(d));
+                buffer.putFloat(extent.getHighCoordinate(d));
+            }
+        }
+
+        int entrySize = 2 * dimension * 4;
+        for (int i = 0; i < nodes.size(); i++) {
+            RTNode node = nodes.get(i);
+            ensure(channel, 4);
+            buffer.putInt(node.usedSpace);
+            for (int j = 0; j < node.usedSpace; j++) {
+                ensure(channel, entrySize);
+                for (int row = 0; row < 2 * dimension; row++) {
+                    buffer.putFloat(node.bounds[row * node.stride + j]);
+                }
+            }
+            if (node.isLeaf()) {
+                RTDataNode leaf = (RTDataNode) node;
+                for (int j = 0; j < node.usedSpace; j++) {
+                    ensure(channel, 8);
+                    buffer.putLong(leaf.ids[j]);
+                }
+                if (coordinates == Constants.DOUBLE_COORDINATES) {
+                    for (int j = 0; j < node.usedSpace; j++) {
+                        ensure(channel, 2 * entrySize);
+                        for (int d = 0; d < dimension; d++) {
+                            buffer.putDouble(leaf.getData(j).getLowDoubleCoordinate(d));
+                            buffer.putDouble(leaf.getData(j).getHighDoubleCoordinate(d));
+                        }
+                    }
+                } else if (coordinates == Constants.INT_COORDINATES) {
+                    for (int j = 0; j < node.usedSpace; j++) {
+                        ensure(channel, entrySize);
+                        IntRectangle rectangle = (IntRectangle) leaf.getData(j);
+                        for (int d = 0; d < dimension; d++) {
+                            buffer.putInt(rectangle.getLowIntCoordinate(d));
+                            buffer.putInt(rectangle.getHighIntCoordinate(d));
+                        }
+                    }
+                } else if (coordinates == Constants.LONG_COORDINATES) {
+                    for (int j = 0; j < node.usedSpace; j++) {
+                        ensure(channel, 2 * entrySize);
+                        LongRectangle rectangle = (LongRectangle) leaf.getData(j);
+                        for (int d = 0; d < dimension; d++) {
+                            buffer.putLong(rectangle.getLowLongCoordinate(d));
+                            buffer.putLong(rectangle.getHighLongCoordinate(d));
+                        }
+                    }
+                }
+            }
+        }
+        flush(channel);
+
+        buffer.putLong(crc.getValue());
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void ensure(WritableByteChannel channel, int bytes) throws IOException {
+        if (buffer.remaining() < bytes)
+            flush(channel);
+    }
+
+    private void flush(WritableByteChannel channel) throws IOException {
+        buffer.flip();
+        crc.update(buffer.array(), 0, buffer.limit());
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private RTree readTree(ReadableByteChannel channel) throws IOException {
+        buffer.clear();
+        buffer.flip();
+        checked = 0;
+
+        if (readInt(channel) != MAGIC)
+            throw new IOException("Not an RTree snapshot.");
+        int version = readInt(channel);
+        if (version < 1 || version > VERSION)
+            throw new IOException("Unsupported RTree snapshot version.");
+
+        int dimension = readInt(channel);
+        int capacity = readInt(channel);
+        float fillFactor = Float.intBitsToFloat(readInt(channel));
+        int type = readInt(channel);
+        int coordinates = (version >= 3) ? readInt(channel) : Constants.FLOAT_COORDINATES;
+        int height = readInt(channel);
+        int nodeCount = readInt(channel);
+
+        if (dimension < 2 || capacity < 2 || height < 1 || nodeCount < 1)
+            throw new IOException("Corrupt RTree snapshot.");
+
+        RTree rtree;
+        try {
+            rtree = new RTree(capacity, fillFactor, type, dimension, coordinates);
+            if (version >= 4 && readInt(channel) != 0) {
+                float[] low = new float[dimension];
+                float[] high = new float[dimension];
+                for (int d = 0; d < dimension; d++) {
+                    low[d] = Float.intBitsToFloat(readInt(channel));
+                    high[d] = Float.intBitsToFloat(readInt(channel));
+                }
+                rtree.setHilbertExtent(new Rectangle(new Point(low), new Point(high)));
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Corrupt RTree snapshot.", e);
+        }
+
+        float[] low = new float[dimension];
+        float[] high = new float[dimension];
+        long[] ids = new long[capacity];
+        List<RTDirNode> parents = new ArrayList<RTDirNode>();
+        int parentIndex = 0;
+        RTNode root = null;
+
+        for (int i = 0; i < nodeCount; i++) {
+            RTDirNode parent = null;
+            int level = height - 1;
+            if (i > 0) {
+                while (parentIndex < parents.size()
+                        && parents.get(parentIndex).children.size() == parents.get(parentIndex).usedSpace) {
+                    parentIndex++;
+                }
+                if (parentIndex == parents.size())
+                    throw new IOException("Corrupt RTree snapshot.");
+                parent = parents.get(parentIndex);
+                level = parent.level - 1;
+            }
+
+            RTNode node = (level == 0) ? new RTDataNode(rtree, parent) : new RTDirNode(rtree, parent, level);
+            int count = readInt(channel);
+            if (count < 0 || count > capacity)
+                throw new IOException("Corrupt RTree snapshot.");
+
+            for (int j = 0; j < count; j++) {
+                for (int d = 0; d < dimension; d++) {
+                    low[d] = Float.intBitsToFloat(readInt(channel));
+                    high[d] = Float.intBitsToFloat(readInt(channel));
+                }
+                try {
+                    node.addData(new Rectangle(new Point(low), new Point(high)));
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("Corrupt RTree snapshot.", e);
+                }
+            }
+            if (version >= 2 && node.isLeaf()) {
+                RTDataNode leaf = (RTDataNode) node;
+                for (int j = 0; j < count; j++) {
+                    ids[j] = readLong(channel);
+                }
+                for (int j = 0; j < count; j++) {
+                    Rectangle rectangle = leaf.getData(j);
+                    if (coordinates == Constants.DOUBLE_COORDINATES)
+                        rectangle = readDoubleRectangle(channel, dimension);
+                    else if (coordinates == Constants.INT_COORDINATES && version >= 5)
+                        rectangle = readIntRectangle(channel, dimension);
+                    else if (coordinates == Constants.LONG_COORDINATES)
+                        rectangle = readLongRectangle(channel, dimension);
+                    leaf.setEntry(j, rectangle, ids[j]);
+                }
+            }
+
+            if (parent == null) {
+                root = node;
+            } else {
+                parent.children.add(node);
+            }
+            if (!node.isLeaf()) {
+                parents.add((RTDirNode) node);
+            }
+        }
+
+        for (int i = parentIndex; i < parents.size(); i++) {
+            if (parents.get(i).children.size() != parents.get(i).usedSpace)
+                throw new IOException("Corrupt RTree snapshot.");
+        }
+        for (int i = parents.size() - 1; i >= 0; i--) {
+            RTDirNode node = parents.get(i);
+            for (int j = 0; j < node.usedSpace; j++) {
+                node.setChildKey(j, node.getChild(j));
+            }
+        }
+
+        updateChecksum();
+        long expected = crc.getValue();
+        if (readLong(channel) != expected)
+            throw new IOException("RTree snapshot checksum mismatch.");
+
+        rtree.setRoot(root);
+        return rtree;
+    }
+
+    private DoubleRectangle readDoubleRectangle(ReadableByteChannel channel, int dimension) throws IOException {
+        double[] low = new double[dimension];
+        double[] high = new double[dimension];
+        for (int d = 0; d < dimension; d++) {
+            low[d] = Double.longBitsToDouble(readLong(channel));
+            high[d] = Double.longBitsToDouble(readLong(channel));
+        }
+        try {
+            return new DoubleRectangle(DoublePoint.wrap(low), DoublePoint.wrap(high));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Corrupt RTree snapshot.", e);
+        }
+    }
+
+    private IntRectangle readIntRectangle(ReadableByteChannel channel, int dimension) throws IOException {
+        int[] low = new int[dimension];
+        int[] high = new int[dimension];
+        for (int d = 0; d < dimension; d++) {
+            low[d] = readInt(channel);
+            high[d] = readInt(channel);
+        }
+        try {
+            return new IntRectangle(IntPoint.wrap(low), IntPoint.wrap(high));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Corrupt RTree snapshot.", e);
+        }
+    }
+
+    private LongRectangle readLongRectangle(ReadableByteChannel channel, int dimension) throws IOException {
+        long[] low = new long[dimension];
+        long[] high = new long[dimension];
+        for (int d = 0; d < dimension; d++) {
+            low[d] = readLong(channel);
+            high[d] = readLong(channel);
+        }
+        try {
+            return new LongRectangle(LongPoint.wrap(low), LongPoint.wrap(high));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Corrupt RTree snapshot.", e);
+        }
+    }
+
+    private int readInt(ReadableByteChannel channel) throws IOException {
+        fill(channel, 4);
+        return buffer.getInt();
+    }
+
+    private long readLong(ReadableByteChannel channel) throws IOException {
+        fill(channel, 8);
+        return buffer.getLong();
+    }
+
+    private void updateChecksum() {
+        crc.update(buffer.array(), checked, buffer.position() - checked);
+        checked = buffer.position();
+    }
+
+    private void fill(ReadableByteChannel channel, int bytes) throws IOException {
+        if (buffer.remaining() >= bytes)
+            return;
+
+        updateChecksum();
+        buffer.compact();
+        checked = 0;
+        while (buffer.position() < bytes) {
+            if (channel.read(buffer) < 0)
+                throw new EOFException("Truncated RTree snapshot.");
+        }
+        buffer.flip();
+    }
+}
\ No newline at end of file
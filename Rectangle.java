@@ -5,6 +5,18 @@ public class Rectangle implements Cloneable
     private Point low;
     private Point high;
 
+    Rectangle() {
+    }
+
+    Rectangle(float[] low, float[] high) {
+        this.low = Point.wrap(low);
+        this.high = Point.wrap(high);
+    }
+
+    static Rectangle wrap(float[] low, float[] high) {
+        return new Rectangle(low, high);
+    }
+
     public Rectangle(Point p1, Point p2)
     {
         if (p1 == null || p2 == null)
@@ -33,6 +45,42 @@ public class Rectangle implements Cloneable
         return high;
     }
 
+    public float getLowCoordinate(int index) {
+        return low.getFloatCoordinate(index);
+    }
+
+    public float getHighCoordinate(int index) {
+        return high.getFloatCoordinate(index);
+    }
+
+    public double getLowDoubleCoordinate(int index) {
+        return low.getFloatCoordinate(index);
+    }
+
+    public double getHighDoubleCoordinate(int index) {
+        return high.getFloatCoordinate(index);
+    }
+
+    boolean isFloat() {
+        return true;
+    }
+
+    boolean isExact() {
+        for (int i = 0; i < getDimension(); i++) {
+            if (getLowCoordinate(i) != getLowDoubleCoordinate(i)
+                    || getHighCoordinate(i) != getHighDoubleCoordinate(i))
+                return false;
+        }
+        return true;
+    }
+
+    public void copyBounds(float[] bounds, int stride, int slot) {
+        for (int i = 0, row = slot; i < getDimension(); i++, row += 2 * stride) {
+            bounds[row] = getLowCoordinate(i);
+            bounds[row + stride] = getHighCoordinate(i);
+        }
+    }
+
     public Rectangle getUnionRectangle(Rectangle rectangle) {
         if (rectangle == null)
             throw new IllegalArgumentException("Rectangle cannot be null.");
@@ -46,17 +94,21 @@ public class Rectangle implements Cloneable
         float[] max = new float[getDimension()];
 
         for (int i = 0; i < getDimension(); i++) {
-            min[i] = Math.min(low.getFloatCoordinate(i), rectangle.low.getFloatCoordinate(i));
-            max[i] = Math.max(high.getFloatCoordinate(i), rectangle.high.getFloatCoordinate(i));
+            min[i] = Math.min(getLowCoordinate(i), rectangle.getLowCoordinate(i));
+            max[i] = Math.max(getHighCoordinate(i), rectangle.getHighCoordinate(i));
         }
 
-        return new Rectangle(new Point(min), new Point(max));
+        return wrap(min, max);
+    }
+
+    public float getCenter(int index) {
+        return (getLowCoordinate(index) + getHighCoordinate(index)) / 2;
     }
 
     public float getArea() {
         float area = 1;
         for (int i = 0; i < getDimension(); i++) {
-            area *= high.getFloatCoordinate(i) - low.getFloatCoordinate(i);
+            area *= getHighCoordinate(i) - getLowCoordinate(i);
         }
 
         return area;
@@ -66,19 +118,33 @@ public class Rectangle implements Cloneable
         if (rectangles == null || rectangles.length == 0)
             throw new IllegalArgumentException("Rectangle array is empty.");
 
-        Rectangle r0 = (Rectangle) rectangles[0].clone();
-        for (int i = 1; i < rectangles.length; i++) {
-            r0 = r0.getUnionRectangle(rectangles[i]);
+        int dims = rectangles[0].getDimension();
+        float[] min = new float[dims];
+        float[] max = new float[dims];
+        for (int d = 0; d < dims; d++) {
+            min[d] = Float.POSITIVE_INFINITY;
+            max[d] = Float.NEGATIVE_INFINITY;
         }
 
-        return r0;
+        for (int i = 0; i < rectangles.length; i++) {
+            if (rectangles[i].getDimension() != dims)
+                throw new IllegalArgumentException("Rectangle must be of same dimension.");
+
+            for (int d = 0; d < dims; d++) {
+                min[d] = Math.min(min[d], rectangles[i].getLowCoordinate(d));
+                max[d] = Math.max(max[d], rectangles[i].getHighCoordinate(d));
+            }
+        }
+
+        return wrap(min, max);
     }
 
     @Override
     protected Object clone() {
-        Point p1 = (Point) low.clone();
-        Point p2 = (Point) high.clone();
-        return new Rectangle(p1, p2);
+        Rectangle rectangle = new Rectangle();
+        rectangle.low = (Point) low.clone();
+        rectangle.high = (Point) high.clone();
+        return rectangle;
     }
 
     @Override
@@ -128,10 +194,10 @@ public class Rectangle implements Cloneable
 
         float ret = 1;
         for (int i = 0; i < rectangle.getDimension(); i++) {
-            float l1 = this.low.getFloatCoordinate(i);
-            float h1 = this.high.getFloatCoordinate(i);
-            float l2 = rectangle.low.getFloatCoordinate(i);
-            float h2 = rectangle.high.getFloatCoordinate(i);
+            float l1 = getLowCoordinate(i);
+            float h1 = getHighCoordinate(i);
+            float l2 = rectangle.getLowCoordinate(i);
+            float h2 = rectangle.getHighCoordinate(i);
 
             if (l1 <= l2 && h1 <= h2) {
                 ret *= (h1 - l1) - (l2 - l1);
@@ -159,15 +225,85 @@ public class Rectangle implements Cloneable
         }
 
         for (int i = 0; i < getDimension(); i++) {
-            if (low.getFloatCoordinate(i) > rectangle.high.getFloatCoordinate(i)
-                    || high.getFloatCoordinate(i) < rectangle.low.getFloatCoordinate(i)) {
+            if (getLowCoordinate(i) > rectangle.getHighCoordinate(i)
+                    || getHighCoordinate(i) < rectangle.getLowCoordinate(i)) {
                 return false;
             }
         }
         return true;
     }
 
-    private int getDimension() {
+    public double minDistance(Point point) {
+        if (point == null)
+            throw new IllegalArgumentException("Point cannot be null.");
+
+        if (point.getDimension() != getDimension())
+            throw new IllegalArgumentException("Point dimension is different from current dimension.");
+
+        double distance = 0;
+        for (int i = 0; i < getDimension(); i++) {
+            float p = point.getFloatCoordinate(i);
+            float l = getLowCoordinate(i);
+            float h = getHighCoordinate(i);
+            double d = 0;
+            if (p < l) {
+                d = l - p;
+            } else if (p > h) {
+                d = p - h;
+            }
+            distance += d * d;
+        }
+        return distance;
+    }
+
+    public double minDistance(DoublePoint point) {
+        if (point == null)
+            throw new IllegalArgumentException("Point cannot be null.");
+
+        if (point.getDimension() != getDimension())
+            throw new IllegalArgumentException("Point dimension is different from current dimension.");
+
+        double distance = 0;
+        for (int i = 0; i < getDimension(); i++) {
+            double p = point.getDoubleCoordinate(i);
+            double gap = Math.max(getLowDoubleCoordinate(i) - p, p - getHighDoubleCoordinate(i));
+            if (gap > 0)
+                distance += gap * gap;
+        }
+        return distance;
+    }
+
+    public double minMaxDistance(Point point) {
+        if (point == null)
+            throw new IllegalArgumentException("Point cannot be null.");
+
+        if (point.getDimension() != getDimension())
+            throw new IllegalArgumentException("Point dimension is different from current dimension.");
+
+        double farSum = 0;
+        for (int i = 0; i < getDimension(); i++) {
+            float p = point.getFloatCoordinate(i);
+            float l = getLowCoordinate(i);
+            float h = getHighCoordinate(i);
+            double far = (p >= (l + h) / 2) ? p - l : h - p;
+            farSum += far * far;
+        }
+
+        double distance = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < getDimension(); i++) {
+            float p = point.getFloatCoordinate(i);
+            float l = getLowCoordinate(i);
+            float h = getHighCoordinate(i);
+            double near = (p <= (l + h) / 2) ? p - l : h - p;
+            double far = (p >= (l + h) / 2) ? p - l : h - p;
+            double d = farSum - far * far + near * near;
+            if (d < distance)
+                distance = d;
+        }
+        return distance;
+    }
+
+    int getDimension() {
         return low.getDimension();
     }
 
@@ -178,8 +314,8 @@ public class Rectangle implements Cloneable
         if (rectangle.getDimension() != getDimension())
             throw new IllegalArgumentException("Rectangle dimension is different from current dimension.");
         for (int i = 0; i < getDimension(); i++) {
-            if (rectangle.low.getFloatCoordinate(i) < low.getFloatCoordinate(i)
-                    || rectangle.high.getFloatCoordinate(i) > high.getFloatCoordinate(i))
+            if (rectangle.getLowCoordinate(i) < getLowCoordinate(i)
+                    || rectangle.getHighCoordinate(i) > getHighCoordinate(i))
                 return false;
         }
         return true;
@@ -189,9 +325,21 @@ public class Rectangle implements Cloneable
     public boolean equals(Object obj) {
         if (obj instanceof Rectangle) {
             Rectangle rectangle = (Rectangle) obj;
-            if (low.equals(rectangle.getLow()) && high.equals(rectangle.getHigh()))
+            if (!rectangle.isFloat())
+                return rectangle.equals(this);
+            if (low.equals(rectangle.low) && high.equals(rectangle.high))
                 return true;
         }
         return false;
     }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = 0; i < getDimension(); i++) {
+            hash = 31 * hash + Double.hashCode(getLowDoubleCoordinate(i) + 0.0);
+            hash = 31 * hash + Double.hashCode(getHighDoubleCoordinate(i) + 0.0);
+        }
+        return hash;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,148 @@
+package rtree;
+
+public class ScalarNodeScanner implements NodeScanner {
+
+    @Override
+    public int scan(float[] bounds, int stride, int count, float[] box, int mode, int[] hits) {
+        switch (bounds.length / (2 * stride)) {
+            case 2:
+                return scan2(bounds, stride, count, box, mode, hits);
+            case 3:
+                return scan3(bounds, stride, count, box, mode, hits);
+            default:
+                int n = 0;
+                for (int i = 0; i < count; i++) {
+                    if (matches(bounds, stride, i, box, mode))
+                        hits[n++] = i;
+                }
+                return n;
+        }
+    }
+
+    private static int scan2(float[] b, int s, int count, float[] box, int mode, int[] hits) {
+        float xl = box[0], xh = box[1], yl = box[2], yh = box[3];
+        int n = 0;
+        switch (mode) {
+            case WITHIN:
+                for (int i = 0; i < count; i++) {
+                    hits[n] = i;
+                    n += (b[i] < xl || b[s + i] > xh || b[2 * s + i] < yl || b[3 * s + i] > yh) ? 0 : 1;
+                }
+                break;
+            case CONTAINS:
+                for (int i = 0; i < count; i++) {
+                    hits[n] = i;
+                    n += (xl < b[i] || xh > b[s + i] || yl < b[2 * s + i] || yh > b[3 * s + i]) ? 0 : 1;
+                }
+                break;
+            default:
+                for (int i = 0; i < count; i++) {
+                    hits[n] = i;
+                    n += (b[i] > xh || b[s + i] < xl || b[2 * s + i] > yh || b[3 * s + i] < yl) ? 0 : 1;
+                }
+        }
+        return n;
+    }
+
+    private static int scan3(float[] b, int s, int count, float[] box, int mode, int[] hits) {
+        float xl = box[0], xh = box[1], yl = box[2], yh = box[3], zl = box[4], zh = box[5];
+        int n = 0;
+        switch (mode) {
+            case WITHIN:
+                for (int i = 0; i < count; i++) {
+                    hits[n] = i;
+                    n += (b[i] < xl || b[s + i] > xh || b[2 * s + i] < yl || b[3 * s + i] > yh
+                            || b[4 * s + i] < zl || b[5 * s + i] > zh) ? 0 : 1;
+                }
+                break;
+            case CONTAINS:
+                for (int i = 0; i < count; i++) {
+                    hits[n] = i;
+                    n += (xl < b[i] || xh > b[s + i] || yl < b[2 * s + i] || yh > b[3 * s + i]
+                            || zl < b[4 * s + i] || zh > b[5 * s + i]) ? 0 : 1;
+                }
+                break;
+            default:
+                for (int i = 0; i < count; i++) {
+                    hits[n] = i;
+                    n += (b[i] > xh || b[s + i] < xl || b[2 * s + i] > yh || b[3 * s + i] < yl
+                            || b[4 * s + i] > zh || b[5 * s + i] < zl) ? 0 : 1;
+                }
+        }
+        return n;
+    }
+
+    private static boolean matches(float[] bounds, int stride, int i, float[] box, int mode) {
+        for (int d = 0, row = 0; row < bounds.length; d += 2, row += 2 * stride) {
+            float lo = bounds[row + i];
+            float hi = bounds[row + stride + i];
+            switch (mode) {
+                case WITHIN:
+                    if (lo < box[d] || hi > box[d + 1])
+                        return false;
+                    break;
+                case CONTAINS:
+                    if (box[d] < lo || box[d + 1] > hi)
+                        return false;
+                    break;
+                default:
+                    if (lo > box[d + 1] || hi < box[d])
+                        return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int leastEnlargement(float[] bounds, int stride, int count, float[] box) {
+        int dims = bounds.length / (2 * stride);
+        if (dims == 2)
+            return leastEnlargement2(bounds, stride, count, box);
+        if (dims == 3)
+            return leastEnlargement3(bounds, stride, count, box);
+
+        return MbrKernel.leastEnlargement(bounds, stride, count, box, 1, 0, dims);
+    }
+
+    private static int leastEnlargement2(float[] b, int s, int count, float[] box) {
+        float xl = box[0], xh = box[1], yl = box[2], yh = box[3];
+        double best = Double.POSITIVE_INFINITY;
+        double bestArea = 0;
+        int sel = -1;
+
+        for (int i = 0; i < count; i++) {
+            float lx = b[i], hx = b[s + i], ly = b[2 * s + i], hy = b[3 * s + i];
+            double area = (double) (hx - lx) * (hy - ly);
+            double union = (double) (Math.max(hx, xh) - Math.min(lx, xl)) * (Math.max(hy, yh) - Math.min(ly, yl));
+            double enlargement = union - area;
+            if (enlargement < best || (enlargement == best && area <= bestArea)) {
+                best = enlargement;
+                bestArea = area;
+                sel = i;
+            }
+        }
+        return sel;
+    }
+
+    private static int leastEnlargement3(float[] b, int s, int count, float[] box) {
+        float xl = box[0], xh = box[1], yl = box[2], yh = box[3], zl = box[4], zh = box[5];
+        double best = Double.POSITIVE_INFINITY;
+        double bestArea = 0;
+        int sel = -1;
+
+        for (int i = 0; i < count; i++) {
+            float lx = b[i], hx = b[s + i], ly = b[2 * s + i], hy = b[3 * s + i], lz = b[4 * s + i],
+                    hz = b[5 * s + i];
+            double area = (double) (hx - lx) * (hy - ly) * (hz - lz);
+            double union = (double) (Math.max(hx, xh) - Math.min(lx, xl)) * (Math.max(hy, yh) - Math.min(ly, yl))
+                    * (Math.max(hz, zh) - Math.min(lz, zl));
+            double enlargement = union - area;
+            if (enlargement < best || (enlargement == best && area <= bestArea)) {
+                best = enlargement;
+                bestArea = area;
+                sel = i;
+            }
+        }
+        return sel;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,310 @@
+package rtree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiConsumer;
+
+public class SpatialJoin {
+    private final BiConsumer<Rectangle, Rectangle> consumer;
+    private final float distance;
+    private final double distanceSquared;
+    private boolean self;
+    private boolean exact;
+    private int[][] leftOrder = new int[8][];
+    private int[][] rightOrder = new int[8][];
+    private float[][] leftBoxes = new float[8][];
+    private float[][] rightBoxes = new float[8][];
+    private List<RTNode[]> frontier;
+    private long found;
+
+    public SpatialJoin(BiConsumer<Rectangle, Rectangle> consumer) {
+        this(consumer, 0);
+    }
+
+    public SpatialJoin(BiConsumer<Rectangle, Rectangle> consumer, float distance) {
+        if (consumer == null)
+            throw new IllegalArgumentException("Consumer cannot be null.");
+        if (!(distance >= 0))
+            throw new IllegalArgumentException("Distance cannot be negative.");
+        this.consumer = consumer;
+        this.distance = distance;
+        distanceSquared = (double) distance * distance;
+    }
+
+    public long selfJoin(RTNode root) {
+        self = true;
+        return join(root, root);
+    }
+
+    public long selfJoin(RTNode root, ForkJoinPool pool) {
+        self = true;
+        return join(root, root, pool);
+    }
+
+    public long join(RTNode left, RTNode right) {
+        if (left == null || right == null)
+            throw new IllegalArgumentException("Node cannot be null.");
+
+        found = 0;
+        exact = isExact(left, right);
+        if (left.usedSpace > 0 && right.usedSpace > 0)
+            joinNodes(left, right, 0);
+        return found;
+    }
+
+    public long join(RTNode left, RTNode right, ForkJoinPool pool) {
+        if (left == null || right == null)
+            throw new IllegalArgumentException("Node cannot be null.");
+        if (pool == null)
+            throw new IllegalArgumentException("Pool cannot be null.");
+
+        found = 0;
+        exact = isExact(left, right);
+        if (left.usedSpace == 0 || right.usedSpace == 0)
+            return 0;
+
+        List<RTNode[]> pairs = new ArrayList<RTNode[]>();
+        pairs.add(new RTNode[] { left, right });
+        int target = pool.getParallelism() * 4;
+        while (pairs.size() < target) {
+            frontier = new ArrayList<RTNode[]>();
+            boolean expanded = false;
+            for (RTNode[] pair : pairs) {
+                if (pair[0].isLeaf() && pair[1].isLeaf()) {
+                    frontier.add(pair);
+                } else {
+                    joinNodes(pair[0], pair[1], 0);
+                    expanded = true;
+                }
+            }
+            pairs = frontier;
+            frontier = null;
+            if (!expanded)
+                break;
+        }
+
+        final List<RTNode[]> tasks = pairs;
+        long local = found;
+        return local + pool.invoke(new RecursiveTask<Long>() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected Long compute() {
+                List<RecursiveTask<Long>> joins = new ArrayList<RecursiveTask<Long>>();
+                for (final RTNode[] pair : tasks) {
+                    joins.add(new RecursiveTask<Long>() {
+                        private static final long serialVersionUID = 1L;
+
+                        @Override
+                        protected Long compute() {
+                            return copy().join(pair[0], pair[1]);
+                        }
+                    });
+                }
+                invokeAll(joins);
+
+                long total = 0;
+                for (RecursiveTask<Long> join : joins) {
+                    total += join.join();
+                }
+                return total;
+            }
+        });
+    }
+
+    private static boolean isExact(RTNode left, RTNode right) {
+        return left.rtree.getCoordinateType() != Constants.FLOAT_COORDINATES
+                || right.rtree.getCoordinateType() != Constants.FLOAT_COORDINATES;
+    }
+
+    protected SpatialJoin copy() {
+        SpatialJoin join = new SpatialJoin(consumer, distance);
+        join.self = self;
+        return join;
+    }
+
+    private void joinNodes(RTNode left, RTNode right, int depth) {
+        if (depth == leftOrder.length)
+            grow();
+
+        if (self && left == right) {
+            selfNodes(left, depth);
+            return;
+        }
+
+        float[] leftBox = nodeBox(left, leftBoxes, depth);
+        float[] rightBox = nodeBox(right, rightBoxes, depth);
+
+        if (left.level > right.level) {
+            for (int i = 0; i < left.usedSpace; i++) {
+                if (left.intersects(i, rightBox))
+                    visit(((RTDirNode) left).getChild(i), right, depth);
+            }
+            return;
+        }
+        if (right.level > left.level) {
+            for (int j = 0; j < right.usedSpace; j++) {
+                if (right.intersects(j, leftBox))
+                    visit(left, ((RTDirNode) right).getChild(j), depth);
+            }
+            return;
+        }
+
+        int[] a = order(leftOrder, depth, left);
+        int[] b = order(rightOrder, depth, right);
+        int na = restrict(left, rightBox, a);
+        int nb = restrict(right, leftBox, b);
+
+        int ia = 0;
+        int ib = 0;
+        while (ia < na && ib < nb) {
+            int i = a[ia];
+            int j = b[ib];
+            if (left.bounds[i] <= right.bounds[j]) {
+                float high = left.bounds[left.stride + i] + distance;
+                for (int k = ib; k < nb && right.bounds[b[k]] <= high; k++) {
+                    if (overlaps(left, i, right, b[k]))
+                        pair(left, i, right, b[k], depth);
+                }
+                ia++;
+            } else {
+                float high = right.bounds[right.stride + j] + distance;
+                for (int k = ia; k < na && left.bounds[a[k]] <= high; k++) {
+                    if (overlaps(left, a[k], right, j))
+                        pair(left, a[k], right, j, depth);
+                }
+                ib++;
+            }
+        }
+    }
+
+    private void selfNodes(RTNode node, int depth) {
+        int[] a = order(leftOrder, depth, node);
+        int n = node.usedSpace;
+        for (int i = 0; i < n; i++) {
+            a[i] = i;
+        }
+        sort(node, a, n);
+
+        for (int x = 0; x < n; x++) {
+            int i = a[x];
+            if (!node.isLeaf())
+                visit(((RTDirNode) node).getChild(i), ((RTDirNode) node).getChild(i), depth);
+
+            float high = node.bounds[node.stride + i] + distance;
+            for (int k = x + 1; k < n && node.bounds[a[k]] <= high; k++) {
+                if (overlaps(node, i, node, a[k]))
+                    pair(node, i, node, a[k], depth);
+            }
+        }
+    }
+
+    private void pair(RTNode left, int i, RTNode right, int j, int depth) {
+        if (left.isLeaf()) {
+            if (!exact && distance > 0 && distanceSquared(left, i, right, j) > distanceSquared)
+                return;
+            Rectangle a = ((RTDataNode) left).getData(i);
+            Rectangle b = ((RTDataNode) right).getData(j);
+            if (exact && DoubleRectangle.distanceSquared(a, b) > distanceSquared)
+                return;
+            consumer.accept(a, b);
+            found++;
+        } else {
+            visit(((RTDirNode) left).getChild(i), ((RTDirNode) right).getChild(j), depth);
+        }
+    }
+
+    private void visit(RTNode left, RTNode right, int depth) {
+        if (frontier != null) {
+            frontier.add(new RTNode[] { left, right });
+        } else {
+            joinNodes(left, right, depth + 1);
+        }
+    }
+
+    private static int restrict(RTNode node, float[] box, int[] order) {
+        int n = 0;
+        for (int i = 0; i < node.usedSpace; i++) {
+            if (node.intersects(i, box))
+                order[n++] = i;
+        }
+        sort(node, order, n);
+        return n;
+    }
+
+    private static void sort(RTNode node, int[] order, int n) {
+        float[] bounds = node.bounds;
+        for (int i = 1; i < n; i++) {
+            int index = order[i];
+            float key = bounds[index];
+            int k = i - 1;
+            while (k >= 0 && bounds[order[k]] > key) {
+                order[k + 1] = order[k];
+                k--;
+            }
+            order[k + 1] = index;
+        }
+    }
+
+    private boolean overlaps(RTNode left, int i, RTNode right, int j) {
+        for (int row = 0, other = 0; row < left.bounds.length; row += 2 * left.stride, other += 2 * right.stride) {
+            if (left.bounds[row + i] - distance > right.bounds[other + right.stride + j]
+                    || right.bounds[other + j] - distance > left.bounds[row + left.stride + i])
+                return false;
+        }
+        return true;
+    }
+
+    private static double distanceSquared(RTNode left, int i, RTNode right, int j) {
+        double sum = 0;
+        for (int row = 0, other = 0; row < left.bounds.length; row += 2 * left.stride, other += 2 * right.stride) {
+            double gap = Math.max(right.bounds[other + j] - left.bounds[row + left.stride + i],
+                    left.bounds[row + i] - right.bounds[other + right.stride + j]);
+            if (gap > 0)
+                sum += gap * gap;
+        }
+        return sum;
+    }
+
+    private float[] nodeBox(RTNode node, float[][] boxes, int depth) {
+        int dims = node.bounds.length / (2 * node.stride);
+        float[] box = boxes[depth];
+        if (box == null || box.length != 2 * dims) {
+            box = new float[2 * dims];
+            boxes[depth] = box;
+        }
+
+        for (int d = 0; d < dims; d++) {
+            int row = 2 * d * node.stride;
+            float lo = Float.POSITIVE_INFINITY;
+            float hi = Float.NEGATIVE_INFINITY;
+            for (int i = 0; i < node.usedSpace; i++) {
+                lo = Math.min(lo, node.bounds[row + i]);
+                hi = Math.max(hi, node.bounds[row + node.stride + i]);
+            }
+            box[2 * d] = lo - distance;
+            box[2 * d + 1] = hi + distance;
+        }
+        return box;
+    }
+
+    private static int[] order(int[][] orders, int depth, RTNode node) {
+        int[] order = orders[depth];
+        if (order == null || order.length < node.usedSpace) {
+            order = new int[node.stride];
+            orders[depth] = order;
+        }
+        return order;
+    }
+
+    private void grow() {
+        int n = leftOrder.length * 2;
+        leftOrder = Arrays.copyOf(leftOrder, n);
+        rightOrder = Arrays.copyOf(rightOrder, n);
+        leftBoxes = Arrays.copyOf(leftBoxes, n);
+        rightBoxes = Arrays.copyOf(rightBoxes, n);
+    }
+}
\ No newline at end of file
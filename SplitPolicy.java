@@ -0,0 +1,5 @@
+package rtree;
+
+public interface SplitPolicy {
+    int[][] split(float[] bounds, int stride, int total, int minNodeSize);
+}
\ No newline at end of file
@@ -0,0 +1,88 @@
+package rtree;
+
+import java.util.List;
+
+public final class TreeAnalyzer {
+
+    private TreeAnalyzer() {
+    }
+
+    public static TreeReport analyze(RTree rtree) {
+        if (rtree == null)
+            throw new IllegalArgumentException("RTree cannot be null.");
+
+        RTNode root = rtree.getRoot();
+        int height = root.level + 1;
+        long[] nodes = new long[height];
+        long[] entries = new long[height];
+        double[] area = new double[height];
+        double[] overlap = new double[height];
+        double[] deadSpace = new double[height];
+
+        List<RTNode> list = rtree.traversePostOrder(root);
+        for (RTNode node : list) {
+            int level = node.level;
+            nodes[level]++;
+            entries[level] += node.usedSpace;
+            area[level] += area(node);
+            overlap[level] += overlap(node);
+            deadSpace[level] += deadSpace(node);
+        }
+        return new TreeReport(rtree.getNodeCapacity(), nodes, entries, area, overlap, deadSpace);
+    }
+
+    static double area(RTNode node) {
+        if (node.usedSpace == 0)
+            return 0;
+
+        int dims = node.rtree.getDimension();
+        float[] mbr = new float[2 * dims];
+        MbrKernel.reset(mbr, 1, 0, dims);
+        for (int i = 0; i < node.usedSpace; i++) {
+            MbrKernel.include(mbr, 1, 0, node.bounds, node.stride, i, dims);
+        }
+        return MbrKernel.area(mbr, 1, 0, dims);
+    }
+
+    static double overlap(RTNode node) {
+        int dims = node.rtree.getDimension();
+        double overlap = 0;
+        for (int i = 0; i < node.usedSpace; i++) {
+            for (int j = i + 1; j < node.usedSpace; j++) {
+                overlap += MbrKernel.overlap(node.bounds, node.stride, i, node.bounds, node.stride, j, dims);
+            }
+        }
+        return overlap;
+    }
+
+    static double deadSpace(RTNode node) {
+        double area = area(node);
+        if (area == 0)
+            return 0;
+
+        int dims = node.rtree.getDimension();
+        double sum = 0;
+        double largest = 0;
+        for (int i = 0; i < node.usedSpace; i++) {
+            double a = MbrKernel.area(node.bounds, node.stride, i, dims);
+            sum += a;
+            largest = Math.max(largest, a);
+        }
+        double covered = Math.min(area, Math.max(largest, sum - overlap(node)));
+        return area - covered;
+    }
+
+    static double score(RTNode node) {
+        double area = area(node);
+        double waste = (area == 0) ? 0 : (overlap(node) + deadSpace(node)) / area;
+        if (node.isLeaf())
+            return waste;
+
+        long used = 0;
+        for (RTNode child : ((RTDirNode) node).children) {
+            used += child.usedSpace;
+        }
+        double fill = (double) used / ((long) node.usedSpace * node.rtree.getNodeCapacity());
+        return waste + (1 - fill);
+    }
+}
\ No newline at end of file
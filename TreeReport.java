@@ -0,0 +1,89 @@
+package rtree;
+
+public class TreeReport {
+    private final int capacity;
+    private final long[] nodes;
+    private final long[] entries;
+    private final double[] area;
+    private final double[] overlap;
+    private final double[] deadSpace;
+
+    TreeReport(int capacity, long[] nodes, long[] entries, double[] area, double[] overlap, double[] deadSpace) {
+        this.capacity = capacity;
+        this.nodes = nodes;
+        this.entries = entries;
+        this.area = area;
+        this.overlap = overlap;
+        this.deadSpace = deadSpace;
+    }
+
+    public int getHeight() {
+        return nodes.length;
+    }
+
+    public long getSize() {
+        return entries[0];
+    }
+
+    public long getNodeCount(int level) {
+        return nodes[checkLevel(level)];
+    }
+
+    public long getEntryCount(int level) {
+        return entries[checkLevel(level)];
+    }
+
+    public double getFillFactor(int level) {
+        checkLevel(level);
+        return nodes[level] == 0 ? 0 : (double) entries[level] / (nodes[level] * capacity);
+    }
+
+    public double getArea(int level) {
+        return area[checkLevel(level)];
+    }
+
+    public double getOverlap(int level) {
+        return overlap[checkLevel(level)];
+    }
+
+    public double getDeadSpace(int level) {
+        return deadSpace[checkLevel(level)];
+    }
+
+    public double getOverlap() {
+        double total = 0;
+        for (double o : overlap) {
+            total += o;
+        }
+        return total;
+    }
+
+    public double getDeadSpace() {
+        double total = 0;
+        for (double d : deadSpace) {
+            total += d;
+        }
+        return total;
+    }
+
+    private int checkLevel(int level) {
+        if (level < 0 || level >= nodes.length)
+            throw new IllegalArgumentException("Level out of range.");
+        return level;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("height=").append(getHeight()).append(" size=").append(getSize());
+        for (int level = nodes.length - 1; level >= 0; level--) {
+            sb.append('\n').append("level ").append(level).append(": nodes=").append(nodes[level])
+                    .append(" entries=").append(entries[level])
+                    .append(" fill=").append(String.format("%.3f", getFillFactor(level)))
+                    .append(" area=").append(String.format("%.4g", area[level]))
+                    .append(" overlap=").append(String.format("%.4g", overlap[level]))
+                    .append(" deadSpace=").append(String.format("%.4g", deadSpace[level]));
+        }
+        return sb.toString();
+    }
+}
\ No newline at end of file
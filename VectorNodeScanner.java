@@ -0,0 +1,93 @@
+package rtree;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+public class VectorNodeScanner implements NodeScanner {
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Double> DOUBLES = VectorSpecies.of(double.class, SPECIES.vectorShape());
+
+    @Override
+    public int scan(float[] bounds, int stride, int count, float[] box, int mode, int[] hits) {
+        int rows = bounds.length / stride;
+        int n = 0;
+        for (int i = 0; i < count; i += SPECIES.length()) {
+            VectorMask<Float> mask = SPECIES.indexInRange(i, count);
+            for (int row = 0; row < rows && mask.anyTrue(); row += 2) {
+                FloatVector lo = FloatVector.fromArray(SPECIES, bounds, row * stride + i, mask);
+                FloatVector hi = FloatVector.fromArray(SPECIES, bounds, (row + 1) * stride + i, mask);
+                switch (mode) {
+                    case WITHIN:
+                        mask = mask.and(lo.compare(VectorOperators.GE, box[row]))
+                                .and(hi.compare(VectorOperators.LE, box[row + 1]));
+                        break;
+                    case CONTAINS:
+                        mask = mask.and(lo.compare(VectorOperators.LE, box[row]))
+                                .and(hi.compare(VectorOperators.GE, box[row + 1]));
+                        break;
+                    default:
+                        mask = mask.and(lo.compare(VectorOperators.LE, box[row + 1]))
+                                .and(hi.compare(VectorOperators.GE, box[row]));
+                }
+            }
+
+            long bits = mask.toLong();
+            while (bits != 0) {
+                hits[n++] = i + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+            }
+        }
+        return n;
+    }
+
+    @Override
+    public int leastEnlargement(float[] bounds, int stride, int count, float[] box) {
+        int rows = bounds.length / stride;
+        double best = Double.POSITIVE_INFINITY;
+        double bestArea = Double.POSITIVE_INFINITY;
+        int sel = -1;
+
+        for (int i = 0; i < count; i += SPECIES.length()) {
+            VectorMask<Float> mask = SPECIES.indexInRange(i, count);
+            DoubleVector union0 = DoubleVector.broadcast(DOUBLES, 1);
+            DoubleVector union1 = union0;
+            DoubleVector area0 = union0;
+            DoubleVector area1 = union0;
+            for (int row = 0; row < rows; row += 2) {
+                FloatVector lo = FloatVector.fromArray(SPECIES, bounds, row * stride + i, mask);
+                FloatVector hi = FloatVector.fromArray(SPECIES, bounds, (row + 1) * stride + i, mask);
+                FloatVector extent = hi.max(box[row + 1]).sub(lo.min(box[row]));
+                FloatVector side = hi.sub(lo);
+                union0 = union0.mul((DoubleVector) extent.convertShape(VectorOperators.F2D, DOUBLES, 0));
+                union1 = union1.mul((DoubleVector) extent.convertShape(VectorOperators.F2D, DOUBLES, 1));
+                area0 = area0.mul((DoubleVector) side.convertShape(VectorOperators.F2D, DOUBLES, 0));
+                area1 = area1.mul((DoubleVector) side.convertShape(VectorOperators.F2D, DOUBLES, 1));
+            }
+
+            for (int part = 0; part < 2; part++) {
+                int first = i + part * DOUBLES.length();
+                VectorMask<Double> lanes = DOUBLES.indexInRange(first, count);
+                if (!lanes.anyTrue())
+                    break;
+
+                DoubleVector area = (part == 0) ? area0 : area1;
+                DoubleVector enlargement = ((part == 0) ? union0 : union1).sub(area);
+                double min = enlargement.reduceLanes(VectorOperators.MIN, lanes);
+                if (min > best)
+                    continue;
+
+                VectorMask<Double> ties = enlargement.compare(VectorOperators.EQ, min, lanes);
+                double minArea = area.reduceLanes(VectorOperators.MIN, ties);
+                if (min < best || minArea <= bestArea) {
+                    best = min;
+                    bestArea = minArea;
+                    sel = first + area.compare(VectorOperators.EQ, minArea, ties).lastTrue();
+                }
+            }
+        }
+        return sel;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,60 @@
+package rtree.benchmarks;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import rtree.Constants;
+import rtree.RTree;
+import rtree.Rectangle;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class BulkLoadBenchmark {
+    @Param({ Datasets.UNIFORM, Datasets.CLUSTERED, Datasets.REAL })
+    public String dataset;
+
+    @Param({ "100000", "1000000" })
+    public int size;
+
+    @Param({ "16" })
+    public int capacity;
+
+    private List<Rectangle> data;
+
+    @Setup
+    public void setup() {
+        data = Arrays.asList(Datasets.generate(dataset, size, 42));
+    }
+
+    @Benchmark
+    public RTree sequential() {
+        RTree tree = new RTree(capacity, 0.4f, Constants.RSTAR, 2);
+        tree.bulkLoad(data);
+        return tree;
+    }
+
+    @Benchmark
+    public RTree parallel() {
+        RTree tree = new RTree(capacity, 0.4f, Constants.RSTAR, 2);
+        tree.bulkLoad(data, 1.0f, ForkJoinPool.commonPool());
+        return tree;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,87 @@
+package rtree.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import rtree.RLinkRTree;
+import rtree.Rectangle;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class ConcurrentInsertBenchmark {
+    @Param({ "1", "2", "4", "8" })
+    public int writers;
+
+    @Param({ "QUADRATIC", "RSTAR" })
+    public String policy;
+
+    @Param({ "16" })
+    public int capacity;
+
+    @Param({ "200000" })
+    public int size;
+
+    private Rectangle[][] regions;
+    private ExecutorService executor;
+
+    @Setup
+    public void setup() {
+        List<List<Rectangle>> strips = new ArrayList<List<Rectangle>>();
+        for (int t = 0; t < writers; t++) {
+            strips.add(new ArrayList<Rectangle>());
+        }
+        for (Rectangle rectangle : Datasets.generate(Datasets.UNIFORM, size, 42)) {
+            int t = (int) (rectangle.getCenter(0) / Datasets.EXTENT * writers);
+            strips.get(Math.max(0, Math.min(writers - 1, t))).add(rectangle);
+        }
+
+        regions = new Rectangle[writers][];
+        for (int t = 0; t < writers; t++) {
+            regions[t] = strips.get(t).toArray(new Rectangle[0]);
+        }
+        executor = Executors.newFixedThreadPool(writers);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public RLinkRTree insert() throws Exception {
+        RLinkRTree tree = new RLinkRTree(capacity, 0.4f, Datasets.treeType(policy), 2);
+        List<Future<?>> tasks = new ArrayList<Future<?>>();
+        for (Rectangle[] region : regions) {
+            tasks.add(executor.submit(() -> {
+                for (Rectangle rectangle : region) {
+                    tree.insert(rectangle);
+                }
+            }));
+        }
+        for (Future<?> task : tasks) {
+            task.get();
+        }
+        return tree;
+    }
+}
\ No newline at end of file
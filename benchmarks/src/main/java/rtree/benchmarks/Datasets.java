@@ -0,0 +1,140 @@
+package rtree.benchmarks;
+
+import java.util.Random;
+
+import rtree.Constants;
+import rtree.Point;
+import rtree.Rectangle;
+
+public final class Datasets {
+    public static final String UNIFORM = "uniform";
+    public static final String CLUSTERED = "clustered";
+    public static final String REAL = "real";
+
+    public static final float EXTENT = 10000;
+
+    private static final int CLUSTERS = 64;
+
+    private Datasets() {
+    }
+
+    public static Rectangle[] generate(String kind, int size, long seed) {
+        Random random = new Random(seed);
+        Rectangle[] data = new Rectangle[size];
+        switch (kind) {
+            case UNIFORM:
+                for (int i = 0; i < size; i++) {
+                    float w = random.nextFloat() * EXTENT * 0.001f;
+                    float h = random.nextFloat() * EXTENT * 0.001f;
+                    data[i] = box(random.nextFloat() * EXTENT, random.nextFloat() * EXTENT, w, h);
+                }
+                break;
+            case CLUSTERED: {
+                float[] centers = centers(random);
+                for (int i = 0; i < size; i++) {
+                    int c = random.nextInt(CLUSTERS);
+                    float sigma = EXTENT * 0.01f;
+                    float w = random.nextFloat() * EXTENT * 0.0005f;
+                    float h = random.nextFloat() * EXTENT * 0.0005f;
+                    data[i] = box(centers[2 * c] + (float) random.nextGaussian() * sigma,
+                            centers[2 * c + 1] + (float) random.nextGaussian() * sigma, w, h);
+                }
+                break;
+            }
+            case REAL: {
+                float[] centers = centers(random);
+                double[] weights = new double[CLUSTERS];
+                double total = 0;
+                for (int c = 0; c < CLUSTERS; c++) {
+                    weights[c] = 1.0 / (c + 1);
+                    total += weights[c];
+                }
+                for (int i = 0; i < size; i++) {
+                    double pick = random.nextDouble() * total;
+                    int c = 0;
+                    while (c < CLUSTERS - 1 && pick > weights[c]) {
+                        pick -= weights[c];
+                        c++;
+                    }
+
+                    float spread = EXTENT * 0.04f / (float) Math.sqrt(c + 1);
+                    float x = centers[2 * c] + (float) random.nextGaussian() * spread;
+                    float y = centers[2 * c + 1] + (float) random.nextGaussian() * spread;
+                    float size0 = (float) Math.exp(random.nextGaussian() * 1.2) * EXTENT * 0.0002f;
+                    float w;
+                    float h;
+                    int shape = random.nextInt(10);
+                    if (shape < 3) {
+                        float aspect = 5 + random.nextFloat() * 45;
+                        w = size0 * aspect;
+                        h = size0;
+                    } else if (shape < 6) {
+                        float aspect = 5 + random.nextFloat() * 45;
+                        w = size0;
+                        h = size0 * aspect;
+                    } else {
+                        w = size0;
+                        h = size0 * (0.5f + random.nextFloat());
+                    }
+                    data[i] = box(x, y, w, h);
+                }
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown dataset.");
+        }
+        return data;
+    }
+
+    public static Rectangle[] windows(Rectangle[] data, double selectivity, int count, long seed) {
+        Random random = new Random(seed);
+        float side = (float) (EXTENT * Math.sqrt(selectivity));
+        Rectangle[] windows = new Rectangle[count];
+        for (int i = 0; i < count; i++) {
+            Rectangle anchor = data[random.nextInt(data.length)];
+            windows[i] = box(anchor.getCenter(0) - side / 2, anchor.getCenter(1) - side / 2, side, side);
+        }
+        return windows;
+    }
+
+    public static Point[] points(Rectangle[] data, int count, long seed) {
+        Random random = new Random(seed);
+        Point[] points = new Point[count];
+        for (int i = 0; i < count; i++) {
+            Rectangle anchor = data[random.nextInt(data.length)];
+            float jitter = EXTENT * 0.001f;
+            points[i] = new Point(new float[] { anchor.getCenter(0) + (random.nextFloat() - 0.5f) * jitter,
+                    anchor.getCenter(1) + (random.nextFloat() - 0.5f) * jitter });
+        }
+        return points;
+    }
+
+    public static int treeType(String policy) {
+        switch (policy) {
+            case "LINEAR":
+                return Constants.RTREE_LINEAR;
+            case "QUADRATIC":
+                return Constants.RTREE_QUADRATIC;
+            case "EXPONENTIAL":
+                return Constants.RTREE_EXPONENTIAL;
+            case "RSTAR":
+                return Constants.RSTAR;
+            case "HILBERT":
+                return Constants.HILBERT;
+            default:
+                throw new IllegalArgumentException("Unknown split policy.");
+        }
+    }
+
+    private static float[] centers(Random random) {
+        float[] centers = new float[2 * CLUSTERS];
+        for (int i = 0; i < centers.length; i++) {
+            centers[i] = EXTENT * (0.05f + 0.9f * random.nextFloat());
+        }
+        return centers;
+    }
+
+    private static Rectangle box(float x, float y, float w, float h) {
+        return new Rectangle(new Point(new float[] { x, y }), new Point(new float[] { x + w, y + h }));
+    }
+}
\ No newline at end of file
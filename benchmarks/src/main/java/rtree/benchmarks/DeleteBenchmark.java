@@ -0,0 +1,86 @@
+package rtree.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import rtree.RTree;
+import rtree.Rectangle;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class DeleteBenchmark {
+    private static final int DELETES = 5000;
+
+    @Param({ "QUADRATIC", "RSTAR", "HILBERT" })
+    public String policy;
+
+    @Param({ Datasets.UNIFORM, Datasets.CLUSTERED, Datasets.REAL })
+    public String dataset;
+
+    @Param({ "20000" })
+    public int size;
+
+    private Rectangle[] data;
+    private int[] victims;
+    private RTree tree;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        data = Datasets.generate(dataset, size, 42);
+        victims = new int[DELETES];
+        Random random = new Random(13);
+        boolean[] taken = new boolean[size];
+        for (int i = 0; i < DELETES; i++) {
+            int v;
+            do {
+                v = random.nextInt(size);
+            } while (taken[v]);
+            taken[v] = true;
+            victims[i] = v;
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void build() {
+        tree = new RTree(16, 0.4f, Datasets.treeType(policy), 2);
+        for (int i = 0; i < data.length; i++) {
+            tree.insert(data[i], i);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DELETES)
+    public RTree deleteByRectangle() {
+        for (int v : victims) {
+            tree.delete(data[v]);
+        }
+        return tree;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DELETES)
+    public RTree deleteById() {
+        for (int v : victims) {
+            tree.delete((long) v);
+        }
+        return tree;
+    }
+}
\ No newline at end of file
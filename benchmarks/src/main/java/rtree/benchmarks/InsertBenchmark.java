@@ -0,0 +1,62 @@
+package rtree.benchmarks;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import rtree.RTree;
+import rtree.Rectangle;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class InsertBenchmark {
+    @Param({ "LINEAR", "QUADRATIC", "EXPONENTIAL", "RSTAR", "HILBERT" })
+    public String policy;
+
+    @Param({ Datasets.UNIFORM, Datasets.CLUSTERED, Datasets.REAL })
+    public String dataset;
+
+    @Param({ "16" })
+    public int capacity;
+
+    @Param({ "100000" })
+    public int size;
+
+    private Rectangle[] data;
+
+    @Setup
+    public void setup() {
+        data = Datasets.generate(dataset, size, 42);
+    }
+
+    @Benchmark
+    public RTree insert() {
+        RTree tree = new RTree(capacity, 0.4f, Datasets.treeType(policy), 2);
+        for (Rectangle rectangle : data) {
+            tree.insert(rectangle);
+        }
+        return tree;
+    }
+
+    @Benchmark
+    public RTree insertAll() {
+        RTree tree = new RTree(capacity, 0.4f, Datasets.treeType(policy), 2);
+        tree.insertAll(Arrays.asList(data));
+        return tree;
+    }
+}
\ No newline at end of file
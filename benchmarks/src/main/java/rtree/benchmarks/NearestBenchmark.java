@@ -0,0 +1,60 @@
+package rtree.benchmarks;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import rtree.Constants;
+import rtree.Point;
+import rtree.RTree;
+import rtree.Rectangle;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class NearestBenchmark {
+    private static final int POINTS = 1024;
+
+    @Param({ Datasets.UNIFORM, Datasets.CLUSTERED, Datasets.REAL })
+    public String dataset;
+
+    @Param({ "1", "10", "100" })
+    public int k;
+
+    @Param({ "100000" })
+    public int size;
+
+    private RTree tree;
+    private Point[] points;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Rectangle[] data = Datasets.generate(dataset, size, 42);
+        tree = new RTree(16, 0.4f, Constants.RSTAR, 2);
+        tree.bulkLoad(Arrays.asList(data));
+        points = Datasets.points(data, POINTS, 11);
+    }
+
+    @Benchmark
+    public List<Rectangle> nearest() {
+        Point point = points[next];
+        next = (next + 1) & (POINTS - 1);
+        return tree.nearest(point, k);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,90 @@
+package rtree.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import rtree.NodeScanner;
+import rtree.ScalarNodeScanner;
+import rtree.VectorNodeScanner;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class NodeScanBenchmark {
+    private static final int NODES = 256;
+
+    @Param({ "16", "32", "64", "128" })
+    public int capacity;
+
+    @Param({ "2", "3", "8" })
+    public int dimension;
+
+    @Param({ "scalar", "vector" })
+    public String scanner;
+
+    private NodeScanner nodeScanner;
+    private float[][] nodes;
+    private float[][] boxes;
+    private int[] hits;
+    private int stride;
+    private int next;
+
+    @Setup
+    public void setup() {
+        nodeScanner = scanner.equals("vector") ? new VectorNodeScanner() : new ScalarNodeScanner();
+        stride = capacity + 1;
+        hits = new int[stride];
+        nodes = new float[NODES][];
+        boxes = new float[NODES][];
+
+        Random random = new Random(42);
+        for (int n = 0; n < NODES; n++) {
+            float[] bounds = new float[2 * dimension * stride];
+            for (int i = 0; i < capacity; i++) {
+                for (int d = 0; d < dimension; d++) {
+                    float lo = random.nextFloat() * 1000;
+                    bounds[2 * d * stride + i] = lo;
+                    bounds[(2 * d + 1) * stride + i] = lo + random.nextFloat() * 100;
+                }
+            }
+            nodes[n] = bounds;
+
+            float[] box = new float[2 * dimension];
+            for (int d = 0; d < dimension; d++) {
+                float lo = random.nextFloat() * 1000;
+                box[2 * d] = lo;
+                box[2 * d + 1] = lo + 150;
+            }
+            boxes[n] = box;
+        }
+    }
+
+    @Benchmark
+    public int scan() {
+        int n = next;
+        next = (n + 1) & (NODES - 1);
+        return nodeScanner.scan(nodes[n], stride, capacity, boxes[n], NodeScanner.INTERSECTS, hits);
+    }
+
+    @Benchmark
+    public int leastEnlargement() {
+        int n = next;
+        next = (n + 1) & (NODES - 1);
+        return nodeScanner.leastEnlargement(nodes[n], stride, capacity, boxes[n]);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,74 @@
+package rtree.benchmarks;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import rtree.Constants;
+import rtree.RTree;
+import rtree.Rectangle;
+import rtree.ScalarNodeScanner;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class WindowQueryBenchmark {
+    private static final int WINDOWS = 1024;
+
+    @Param({ Datasets.UNIFORM, Datasets.CLUSTERED, Datasets.REAL })
+    public String dataset;
+
+    @Param({ "0.00001", "0.0001", "0.001", "0.01" })
+    public double selectivity;
+
+    @Param({ "insert", "bulk" })
+    public String loading;
+
+    @Param({ "default", "scalar" })
+    public String scanner;
+
+    @Param({ "100000" })
+    public int size;
+
+    private RTree tree;
+    private Rectangle[] windows;
+    private int next;
+
+    @Setup
+    public void setup() {
+        Rectangle[] data = Datasets.generate(dataset, size, 42);
+        tree = new RTree(16, 0.4f, Constants.RSTAR, 2);
+        if (loading.equals("bulk")) {
+            tree.bulkLoad(Arrays.asList(data));
+        } else {
+            for (Rectangle rectangle : data) {
+                tree.insert(rectangle);
+            }
+        }
+        if (scanner.equals("scalar"))
+            tree.setNodeScanner(new ScalarNodeScanner());
+        windows = Datasets.windows(data, selectivity, WINDOWS, 7);
+    }
+
+    @Benchmark
+    public int search(Blackhole blackhole) {
+        Rectangle window = windows[next];
+        next = (next + 1) & (WINDOWS - 1);
+        return tree.search(window, blackhole::consume);
+    }
+}
\ No newline at end of file
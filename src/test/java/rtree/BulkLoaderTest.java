@@ -0,0 +1,73 @@
+package rtree;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+class BulkLoaderTest {
+
+    private static Map<Long, Rectangle> live(List<Rectangle> rectangles, long[] ids) {
+        Map<Long, Rectangle> live = new HashMap<Long, Rectangle>();
+        for (int i = 0; i < ids.length; i++) {
+            live.put(ids[i], rectangles.get(i));
+        }
+        return live;
+    }
+
+    @Test
+    void bulkLoadMatchesBruteForce() {
+        for (int type : Fixtures.TREE_TYPES) {
+            for (float packing : new float[] { 1.0f, 0.7f }) {
+                Random random = new Random(71 + type);
+                List<Rectangle> rectangles = Fixtures.rectangles(random, 5000, 2);
+                long[] ids = Fixtures.ids(rectangles.size());
+                RTree rtree = new RTree(16, 0.4f, type, 2);
+                rtree.bulkLoad(rectangles, ids, packing);
+
+                Map<Long, Rectangle> live = live(rectangles, ids);
+                assertEquals(live.size(), Fixtures.checkInvariants(rtree));
+                Fixtures.assertSearches(rtree, live, random, 40);
+
+                for (long id = 0; id < 1000; id++) {
+                    rtree.delete(id);
+                    live.remove(id);
+                }
+                Rectangle extra = Fixtures.rectangle(random, 2, 1000, 20);
+                rtree.insert(extra, 9999);
+                live.put(9999L, extra);
+                assertEquals(live.size(), Fixtures.checkInvariants(rtree));
+                Fixtures.assertSearches(rtree, live, random, 20);
+            }
+        }
+    }
+
+    @Test
+    void parallelBulkLoadMatchesBruteForce() {
+        for (int dims : new int[] { 2, 3 }) {
+            Random random = new Random(73 + dims);
+            List<Rectangle> rectangles = Fixtures.rectangles(random, 20000, dims);
+            long[] ids = Fixtures.ids(rectangles.size());
+            RTree rtree = new RTree(20, 0.4f, Constants.RSTAR, dims);
+            rtree.bulkLoad(rectangles, ids, 1.0f, ForkJoinPool.commonPool());
+
+            Map<Long, Rectangle> live = live(rectangles, ids);
+            assertEquals(live.size(), Fixtures.checkInvariants(rtree));
+            Fixtures.assertSearches(rtree, live, random, 30);
+        }
+    }
+
+    @Test
+    void bulkLoadRequiresEmptyTree() {
+        RTree rtree = new RTree(8, 0.4f, Constants.RSTAR, 2);
+        rtree.insert(new Rectangle(new Point(new float[] { 0, 0 }), new Point(new float[] { 1, 1 })));
+        assertThrows(IllegalStateException.class,
+                () -> rtree.bulkLoad(Fixtures.rectangles(new Random(1), 10, 2)));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,242 @@
+package rtree;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class CoordinateTypesTest {
+    private static final long INT_BASE = 1L << 30;
+    private static final long LONG_BASE = 1L << 60;
+
+    @Test
+    void doubleNearestRanksByExactDistance() {
+        for (int type : Fixtures.TREE_TYPES) {
+            Random random = new Random(211 + type);
+            RTree rtree = new RTree(8, 0.4f, type, 2, Constants.DOUBLE_COORDINATES);
+            Map<Long, Rectangle> live = new HashMap<Long, Rectangle>();
+            for (long id = 0; id < 1500; id++) {
+                double x = 1 + random.nextInt(1000) * 1e-12;
+                double y = 1 + random.nextInt(1000) * 1e-12;
+                Rectangle rectangle = new DoubleRectangle(new DoublePoint(new double[] { x, y }),
+                        new DoublePoint(new double[] { x + 1e-13, y + 1e-13 }));
+                rtree.insert(rectangle, id);
+                live.put(id, rectangle);
+            }
+
+            for (int q = 0; q < 30; q++) {
+                DoublePoint point = new DoublePoint(new double[] { 1 + random.nextInt(1000) * 1e-12,
+                        1 + random.nextInt(1000) * 1e-12 });
+                double[] expected = new double[live.size()];
+                int n = 0;
+                for (Rectangle rectangle : live.values()) {
+                    expected[n++] = rectangle.minDistance(point);
+                }
+                Arrays.sort(expected);
+
+                List<Rectangle> nearest = rtree.nearest(point, 10);
+                assertEquals(10, nearest.size());
+                for (int i = 0; i < nearest.size(); i++) {
+                    assertEquals(expected[i], nearest.get(i).minDistance(point), "rank " + i);
+                }
+
+                NearestNeighborIterator iterator = rtree.nearestIterator(point);
+                for (int i = 0; i < 10; i++) {
+                    Rectangle next = iterator.next();
+                    assertEquals(live.get(iterator.id()), next);
+                    assertEquals(Math.sqrt(expected[i]), iterator.distance());
+                }
+            }
+        }
+    }
+
+    @Test
+    void equalRectanglesHashAlike() {
+        Rectangle floats = new Rectangle(new Point(new float[] { 1, -0f }), new Point(new float[] { 2.5f, 3 }));
+        Rectangle doubles = new DoubleRectangle(new DoublePoint(new double[] { 1, 0 }),
+                new DoublePoint(new double[] { 2.5, 3 }));
+        assertEquals(floats, doubles);
+        assertEquals(doubles, floats);
+        assertEquals(floats.hashCode(), doubles.hashCode());
+
+        Rectangle ints = new IntRectangle(new IntPoint(new int[] { 1, 0 }), new IntPoint(new int[] { 2, 3 }));
+        Rectangle longs = new LongRectangle(new LongPoint(new long[] { 1, 0 }), new LongPoint(new long[] { 2, 3 }));
+        Rectangle whole = new Rectangle(new Point(new float[] { 1, 0 }), new Point(new float[] { 2, 3 }));
+        assertEquals(ints, longs);
+        assertEquals(longs, ints);
+        assertEquals(whole, longs);
+        assertEquals(ints.hashCode(), longs.hashCode());
+        assertEquals(whole.hashCode(), longs.hashCode());
+
+        Rectangle big = longRectangle(LONG_BASE, LONG_BASE, LONG_BASE + 1, LONG_BASE + 1);
+        Rectangle bigger = longRectangle(LONG_BASE, LONG_BASE, LONG_BASE + 2, LONG_BASE + 2);
+        Rectangle rounded = new DoubleRectangle(new DoublePoint(new double[] { LONG_BASE, LONG_BASE }),
+                new DoublePoint(new double[] { LONG_BASE, LONG_BASE }));
+        assertNotEquals(big, bigger);
+        assertNotEquals(big, rounded);
+        assertNotEquals(rounded, big);
+        assertEquals(big, big.clone());
+        assertEquals(big.hashCode(), big.clone().hashCode());
+
+        Set<Rectangle> set = new HashSet<Rectangle>();
+        set.add(doubles);
+        assertTrue(set.contains(floats));
+    }
+
+    @Test
+    void intGridBeyondFloatPrecisionMatchesBruteForce() throws IOException {
+        checkGrid(Constants.INT_COORDINATES, INT_BASE);
+    }
+
+    @Test
+    void intGridWithinFloatPrecisionMatchesBruteForce() throws IOException {
+        checkGrid(Constants.INT_COORDINATES, 1 << 20);
+    }
+
+    @Test
+    void longGridBeyondDoublePrecisionMatchesBruteForce() throws IOException {
+        checkGrid(Constants.LONG_COORDINATES, LONG_BASE);
+    }
+
+    @Test
+    void rectanglesMustFitTheCoordinateType() {
+        RTree ints = new RTree(8, 0.4f, Constants.RSTAR, 2, Constants.INT_COORDINATES);
+        assertThrows(IllegalArgumentException.class, () -> ints.insert(longRectangle(0, 0, 1, 1), 0));
+        assertThrows(IllegalArgumentException.class, () -> ints.insert(
+                new Rectangle(new Point(new float[] { 0.5f, 0 }), new Point(new float[] { 1, 1 })), 0));
+
+        RTree floats = new RTree(8, 0.4f, Constants.RSTAR, 2);
+        assertThrows(IllegalArgumentException.class, () -> floats.insert(
+                new IntRectangle(new IntPoint(new int[] { 0, 0 }), new IntPoint(new int[] { (1 << 24) + 1, 1 })), 0));
+
+        RTree longs = new RTree(8, 0.4f, Constants.RSTAR, 2, Constants.LONG_COORDINATES);
+        longs.insert(new IntRectangle(new IntPoint(new int[] { 0, 0 }), new IntPoint(new int[] { 1, 1 })), 0);
+        assertThrows(IllegalArgumentException.class, () -> longs.insert(new DoubleRectangle(
+                new DoublePoint(new double[] { 0, 0 }), new DoublePoint(new double[] { 1, 1 })), 1));
+        assertThrows(IllegalArgumentException.class, () -> MappedRTree.write(longs, null));
+    }
+
+    private static void checkGrid(int coordinates, long base) throws IOException {
+        for (int type : Fixtures.TREE_TYPES) {
+            Random random = new Random(223 + type);
+            RTree rtree = new RTree(8, 0.4f, type, 2, coordinates);
+            Map<Long, long[]> live = new HashMap<Long, long[]>();
+            for (long id = 0; id < 2000; id++) {
+                long[] box = box(random, base, 4);
+                rtree.insert(rectangle(coordinates, box), id);
+                live.put(id, box);
+            }
+            assertGridSearches(rtree, coordinates, live, random, base);
+            assertEquals(base < 1 << 24, exactLeaves(rtree));
+
+            List<Long> ids = new ArrayList<Long>(live.keySet());
+            for (int i = 0; i < 600; i++) {
+                long id = ids.get(i);
+                if (i % 3 == 0 || (i % 3 == 1 && !unique(live, live.get(id)))) {
+                    assertTrue(rtree.delete(id));
+                    live.remove(id);
+                } else if (i % 3 == 1) {
+                    assertTrue(rtree.delete(rectangle(coordinates, live.remove(id))) >= 0);
+                } else {
+                    long[] box = box(random, base, 4);
+                    assertTrue(rtree.update(id, rectangle(coordinates, box)));
+                    live.put(id, box);
+                }
+            }
+            assertEquals(live.size(), Fixtures.checkInvariants(rtree));
+            assertGridSearches(rtree, coordinates, live, random, base);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            rtree.writeTo(Channels.newChannel(out));
+            RTree copy = RTree.readFrom(Channels.newChannel(new ByteArrayInputStream(out.toByteArray())));
+            assertGridSearches(copy, coordinates, live, random, base);
+        }
+    }
+
+    private static void assertGridSearches(RTree rtree, int coordinates, Map<Long, long[]> live, Random random,
+            long base) {
+        for (int q = 0; q < 40; q++) {
+            long[] window = box(random, base, 12);
+            for (int mode = 0; mode < 3; mode++) {
+                Set<Long> expected = new HashSet<Long>();
+                for (Map.Entry<Long, long[]> entry : live.entrySet()) {
+                    if (matches(entry.getValue(), window, mode))
+                        expected.add(entry.getKey());
+                }
+                assertEquals(expected, Fixtures.search(rtree, rectangle(coordinates, window), mode), "mode " + mode);
+            }
+        }
+    }
+
+    private static boolean exactLeaves(RTree rtree) {
+        for (RTNode node : rtree.traversePostOrder(rtree.getRoot())) {
+            if (node.isLeaf() && !((RTDataNode) node).exactBounds)
+                return false;
+        }
+        return true;
+    }
+
+    private static boolean unique(Map<Long, long[]> live, long[] box) {
+        int count = 0;
+        for (long[] other : live.values()) {
+            if (Arrays.equals(box, other))
+                count++;
+        }
+        return count == 1;
+    }
+
+    private static long[] box(Random random, long base, int size) {
+        long x = base + random.nextInt(64);
+        long y = base + random.nextInt(64);
+        return new long[] { x, y, x + random.nextInt(size), y + random.nextInt(size) };
+    }
+
+    private static boolean matches(long[] entry, long[] window, int mode) {
+        for (int d = 0; d < 2; d++) {
+            long lo = entry[d];
+            long hi = entry[d + 2];
+            long wlo = window[d];
+            long whi = window[d + 2];
+            switch (mode) {
+                case NodeScanner.WITHIN:
+                    if (lo < wlo || hi > whi)
+                        return false;
+                    break;
+                case NodeScanner.CONTAINS:
+                    if (wlo < lo || whi > hi)
+                        return false;
+                    break;
+                default:
+                    if (lo > whi || hi < wlo)
+                        return false;
+            }
+        }
+        return true;
+    }
+
+    private static Rectangle rectangle(int coordinates, long[] box) {
+        if (coordinates == Constants.LONG_COORDINATES)
+            return longRectangle(box[0], box[1], box[2], box[3]);
+        return new IntRectangle(new IntPoint(new int[] { (int) box[0], (int) box[1] }),
+                new IntPoint(new int[] { (int) box[2], (int) box[3] }));
+    }
+
+    private static Rectangle longRectangle(long x1, long y1, long x2, long y2) {
+        return new LongRectangle(new LongPoint(new long[] { x1, y1 }), new LongPoint(new long[] { x2, y2 }));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,79 @@
+package rtree;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class CopyOnWriteRTreeTest {
+
+    private static Set<Rectangle> search(CopyOnWriteRTree rtree, Rectangle window) {
+        Set<Rectangle> found = Collections.newSetFromMap(new IdentityHashMap<Rectangle, Boolean>());
+        int count = rtree.search(window, found::add);
+        assertEquals(found.size(), count);
+        return found;
+    }
+
+    @Test
+    void searchMatchesBruteForce() {
+        for (int type : Fixtures.TREE_TYPES) {
+            Random random = new Random(101 + type);
+            CopyOnWriteRTree rtree = new CopyOnWriteRTree(8, 0.4f, type, 2);
+            List<Rectangle> live = new ArrayList<Rectangle>(Fixtures.rectangles(random, 2000, 2));
+            live.forEach(rtree::insert);
+            for (int i = live.size() - 1; i >= 0; i -= 3) {
+                assertTrue(rtree.delete(live.remove(i)));
+            }
+            assertEquals(live.size(), rtree.size());
+
+            for (int q = 0; q < 50; q++) {
+                Rectangle window = Fixtures.rectangle(random, 2, 1000, 150);
+                Set<Rectangle> expected = Collections.newSetFromMap(new IdentityHashMap<Rectangle, Boolean>());
+                for (Rectangle rectangle : live) {
+                    if (rectangle.isIntersection(window))
+                        expected.add(rectangle);
+                }
+                assertEquals(expected, search(rtree, window));
+            }
+        }
+    }
+
+    @Test
+    void readersSeeConsistentSnapshots() throws Exception {
+        Random random = new Random(103);
+        CopyOnWriteRTree rtree = new CopyOnWriteRTree(8, 0.4f, Constants.RSTAR, 2);
+        List<Rectangle> rectangles = Fixtures.rectangles(random, 4000, 2);
+        Rectangle window = new Rectangle(new Point(new float[] { 0, 0 }), new Point(new float[] { 1100, 1100 }));
+        List<Throwable> failures = Collections.synchronizedList(new ArrayList<Throwable>());
+
+        Thread writer = new Thread(() -> rectangles.forEach(rtree::insert));
+        Thread reader = new Thread(() -> {
+            try {
+                int previous = 0;
+                while (previous < rectangles.size()) {
+                    Set<Rectangle> found = search(rtree, window);
+                    int n = found.size();
+                    assertTrue(n >= previous, "snapshot went backwards");
+                    for (int i = 0; i < n; i++) {
+                        assertTrue(found.contains(rectangles.get(i)), "snapshot is not a prefix");
+                    }
+                    previous = n;
+                }
+            } catch (Throwable t) {
+                failures.add(t);
+            }
+        });
+        reader.start();
+        writer.start();
+        writer.join();
+        reader.join(60000);
+        assertTrue(failures.isEmpty(), () -> failures.get(0).toString());
+    }
+}
\ No newline at end of file
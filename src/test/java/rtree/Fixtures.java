@@ -0,0 +1,171 @@
+package rtree;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+final class Fixtures {
+    static final int[] TREE_TYPES = { Constants.RTREE_LINEAR, Constants.RTREE_QUADRATIC,
+            Constants.RTREE_EXPONENTIAL, Constants.RSTAR, Constants.HILBERT };
+
+    private Fixtures() {
+    }
+
+    static Rectangle rectangle(Random random, int dims, float world, float size) {
+        float[] low = new float[dims];
+        float[] high = new float[dims];
+        for (int d = 0; d < dims; d++) {
+            low[d] = random.nextFloat() * world;
+            high[d] = low[d] + random.nextFloat() * size;
+        }
+        return new Rectangle(new Point(low), new Point(high));
+    }
+
+    static Point point(Random random, int dims, float world) {
+        float[] p = new float[dims];
+        for (int d = 0; d < dims; d++) {
+            p[d] = random.nextFloat() * world;
+        }
+        return new Point(p);
+    }
+
+    static List<Rectangle> rectangles(Random random, int n, int dims) {
+        List<Rectangle> list = new ArrayList<Rectangle>(n);
+        for (int i = 0; i < n; i++) {
+            list.add(rectangle(random, dims, 1000, 20));
+        }
+        return list;
+    }
+
+    static long[] ids(int n) {
+        long[] ids = new long[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = i;
+        }
+        return ids;
+    }
+
+    static boolean matches(Rectangle entry, Rectangle window, int mode) {
+        int dims = window.getHigh().getDimension();
+        for (int d = 0; d < dims; d++) {
+            float lo = entry.getLowCoordinate(d);
+            float hi = entry.getHighCoordinate(d);
+            float wlo = window.getLowCoordinate(d);
+            float whi = window.getHighCoordinate(d);
+            switch (mode) {
+                case NodeScanner.WITHIN:
+                    if (lo < wlo || hi > whi)
+                        return false;
+                    break;
+                case NodeScanner.CONTAINS:
+                    if (wlo < lo || whi > hi)
+                        return false;
+                    break;
+                default:
+                    if (lo > whi || hi < wlo)
+                        return false;
+            }
+        }
+        return true;
+    }
+
+    static Set<Long> expected(Map<Long, Rectangle> live, Rectangle window, int mode) {
+        Set<Long> ids = new HashSet<Long>();
+        for (Map.Entry<Long, Rectangle> entry : live.entrySet()) {
+            if (matches(entry.getValue(), window, mode))
+                ids.add(entry.getKey());
+        }
+        return ids;
+    }
+
+    static Set<Long> search(RTree rtree, Rectangle window, int mode) {
+        Set<Long> ids = new HashSet<Long>();
+        EntryConsumer consumer = (id, rectangle) -> assertTrue(ids.add(id), "duplicate result " + id);
+        int count;
+        switch (mode) {
+            case NodeScanner.WITHIN:
+                count = rtree.searchEntriesWithin(window, consumer);
+                break;
+            case NodeScanner.CONTAINS:
+                count = rtree.searchEntriesContaining(window, consumer);
+                break;
+            default:
+                count = rtree.searchEntries(window, consumer);
+        }
+        assertEquals(ids.size(), count);
+        return ids;
+    }
+
+    static void assertSearches(RTree rtree, Map<Long, Rectangle> live, Random random, int queries) {
+        int dims = rtree.getDimension();
+        for (int q = 0; q < queries; q++) {
+            Rectangle window = rectangle(random, dims, 1000, 150);
+            for (int mode = 0; mode < 3; mode++) {
+                assertEquals(expected(live, window, mode), search(rtree, window, mode), "mode " + mode);
+            }
+        }
+    }
+
+    static double[] distances(Map<Long, Rectangle> live, Point point) {
+        double[] distances = new double[live.size()];
+        int n = 0;
+        for (Rectangle rectangle : live.values()) {
+            distances[n++] = rectangle.minDistance(point);
+        }
+        Arrays.sort(distances);
+        return distances;
+    }
+
+    static void assertNearest(RTree rtree, Map<Long, Rectangle> live, Point point, int k) {
+        double[] expected = distances(live, point);
+        List<Rectangle> nearest = rtree.nearest(point, k);
+        assertEquals(Math.min(k, expected.length), nearest.size());
+        for (int i = 0; i < nearest.size(); i++) {
+            assertEquals(expected[i], nearest.get(i).minDistance(point), "rank " + i);
+        }
+    }
+
+    static long checkInvariants(RTree rtree) {
+        RTNode root = rtree.getRoot();
+        assertTrue(root.isRoot());
+        return checkNode(rtree, root, root.level);
+    }
+
+    private static long checkNode(RTree rtree, RTNode node, int level) {
+        assertEquals(level, node.level);
+        assertTrue(node.usedSpace <= rtree.getNodeCapacity());
+        if (node.isLeaf()) {
+            RTDataNode leaf = (RTDataNode) node;
+            for (int i = 0; i < leaf.usedSpace; i++) {
+                if (leaf.ids[i] != Constants.NIL)
+                    assertTrue(rtree.contains(leaf.ids[i]), "unindexed id " + leaf.ids[i]);
+            }
+            return leaf.usedSpace;
+        }
+
+        RTDirNode dir = (RTDirNode) node;
+        assertEquals(dir.usedSpace, dir.children.size());
+        long size = 0;
+        int dims = rtree.getDimension();
+        for (int i = 0; i < dir.usedSpace; i++) {
+            RTNode child = dir.getChild(i);
+            assertSame(dir, child.getParent());
+            assertTrue(child.usedSpace > 0, "empty child");
+            Rectangle mbr = child.getNodeRectangle();
+            for (int d = 0; d < dims; d++) {
+                assertEquals(mbr.getLowCoordinate(d), dir.bounds[2 * d * dir.stride + i], "loose low bound");
+                assertEquals(mbr.getHighCoordinate(d), dir.bounds[(2 * d + 1) * dir.stride + i], "loose high bound");
+            }
+            size += checkNode(rtree, child, level - 1);
+        }
+        return size;
+    }
+}
\ No newline at end of file
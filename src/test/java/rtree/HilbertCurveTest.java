@@ -0,0 +1,170 @@
+package rtree;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class HilbertCurveTest {
+
+    private static Rectangle cube(int dims, float low, float high) {
+        float[] lo = new float[dims];
+        float[] hi = new float[dims];
+        for (int d = 0; d < dims; d++) {
+            lo[d] = low;
+            hi[d] = high;
+        }
+        return new Rectangle(new Point(lo), new Point(hi));
+    }
+
+    @Test
+    void keysStayDistinctInHighDimensions() {
+        for (int dims : new int[] { 6, 8 }) {
+            Random random = new Random(113 + dims);
+            Rectangle extent = cube(dims, 100, 1000);
+            Set<Long> keys = new HashSet<Long>();
+            int n = 100000;
+            for (int i = 0; i < n; i++) {
+                float[] p = new float[dims];
+                for (int d = 0; d < dims; d++) {
+                    p[d] = 100 + random.nextFloat() * 900;
+                }
+                Point point = new Point(p);
+                keys.add(HilbertCurve.key(new Rectangle(point, point), extent));
+            }
+            assertTrue(keys.size() > n * 0.99, dims + "-D: " + keys.size() + " distinct keys");
+        }
+    }
+
+    @Test
+    void valuesOutsideTheExtentAreClamped() {
+        Rectangle extent = cube(2, 0, 10);
+        assertEquals(HilbertCurve.key(cube(2, -5, -5), extent), HilbertCurve.key(cube(2, 0, 0), extent));
+        assertEquals(HilbertCurve.key(cube(2, 50, 50), extent), HilbertCurve.key(cube(2, 10, 10), extent));
+        assertThrows(IllegalArgumentException.class, () -> HilbertCurve.bits(64));
+    }
+
+    @Test
+    void highDimensionalTreeMatchesBruteForce() throws IOException {
+        for (int dims : new int[] { 6, 8 }) {
+            Random random = new Random(127 + dims);
+            RTree rtree = new RTree(12, 0.4f, Constants.HILBERT, dims);
+            Map<Long, Rectangle> live = new HashMap<Long, Rectangle>();
+            for (long id = 0; id < 4000; id++) {
+                Rectangle rectangle = Fixtures.rectangle(random, dims, 1000, 60);
+                rtree.insert(rectangle, id);
+                live.put(id, rectangle);
+            }
+            assertNull(rtree.getHilbertExtent());
+            assertEquals(live.size(), Fixtures.checkInvariants(rtree));
+            assertKeysInOrder(rtree);
+            Fixtures.assertSearches(rtree, live, random, 20);
+            for (int q = 0; q < 20; q++) {
+                Fixtures.assertNearest(rtree, live, Fixtures.point(random, dims, 1000), 5);
+            }
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            rtree.writeTo(Channels.newChannel(out));
+            RTree copy = RTree.readFrom(Channels.newChannel(new ByteArrayInputStream(out.toByteArray())));
+            assertNull(copy.getHilbertExtent());
+            for (long id = 4000; id < 4500; id++) {
+                Rectangle rectangle = Fixtures.rectangle(random, dims, 1000, 60);
+                copy.insert(rectangle, id);
+                live.put(id, rectangle);
+            }
+            assertKeysInOrder(copy);
+            Fixtures.assertSearches(copy, live, random, 20);
+        }
+    }
+
+    @Test
+    void bulkLoadKeepsTheFullRangeKey() {
+        Random random = new Random(131);
+        RTree rtree = new RTree(10, 0.4f, Constants.HILBERT, 6);
+        List<Rectangle> rectangles = Fixtures.rectangles(random, 3000, 6);
+        rtree.bulkLoad(rectangles, Fixtures.ids(3000), 1.0f);
+
+        assertNull(rtree.getHilbertExtent());
+        assertKeysInOrder(rtree);
+        assertThrows(IllegalStateException.class, () -> rtree.setHilbertExtent(cube(6, 0, 1)));
+        assertThrows(IllegalArgumentException.class, () -> new RTree(10, 0.4f, Constants.HILBERT, 64));
+    }
+
+    @Test
+    void centresBeyondTheFirstEntriesKeepDistinctKeys() {
+        Random random = new Random(137);
+        RTree rtree = new RTree(8, 0.4f, Constants.HILBERT, 2);
+        Map<Long, Rectangle> live = new HashMap<Long, Rectangle>();
+        for (long id = 0; id < 200; id++) {
+            Rectangle rectangle = Fixtures.rectangle(random, 2, 10, 1);
+            rtree.insert(rectangle, id);
+            live.put(id, rectangle);
+        }
+
+        Set<Long> keys = new HashSet<Long>();
+        for (long id = 200; id < 1200; id++) {
+            float x = 200 + (id % 40) * 20;
+            float y = 200 + (id / 40) * 30;
+            Rectangle rectangle = new Rectangle(new Point(new float[] { x, y }), new Point(new float[] { x + 1, y + 1 }));
+            rtree.insert(rectangle, id);
+            live.put(id, rectangle);
+            keys.add(rtree.hilbertKey(rectangle));
+        }
+        assertNull(rtree.getHilbertExtent());
+        assertEquals(1000, keys.size());
+        assertEquals(live.size(), Fixtures.checkInvariants(rtree));
+        assertKeysInOrder(rtree);
+        Fixtures.assertSearches(rtree, live, random, 20);
+
+        for (long id = 0; id < 1200; id += 3) {
+            assertTrue(rtree.delete(id));
+            live.remove(id);
+            Rectangle rectangle = Fixtures.rectangle(random, 2, 1000, 20);
+            assertTrue(rtree.update(id + 1, rectangle));
+            live.put(id + 1, rectangle);
+        }
+        assertEquals(live.size(), Fixtures.checkInvariants(rtree));
+        assertKeysInOrder(rtree);
+        Fixtures.assertSearches(rtree, live, random, 20);
+    }
+
+    private static void assertKeysInOrder(RTree rtree) {
+        List<RTDataNode> leaves = new ArrayList<RTDataNode>();
+        for (RTNode node : rtree.traversePostOrder(rtree.getRoot())) {
+            if (node.isLeaf()) {
+                leaves.add((RTDataNode) node);
+                continue;
+            }
+            RTDirNode dirNode = (RTDirNode) node;
+            for (int i = 0; i < dirNode.usedSpace; i++) {
+                RTNode child = dirNode.getChild(i);
+                while (!child.isLeaf()) {
+                    child = ((RTDirNode) child).getChild(child.usedSpace - 1);
+                }
+                assertEquals(((RTDataNode) child).keys[child.usedSpace - 1], dirNode.largestKeys[i], "stale LHV");
+            }
+        }
+        long previous = Long.MIN_VALUE;
+        for (RTDataNode leaf : leaves) {
+            for (int i = 0; i < leaf.usedSpace; i++) {
+                assertEquals(rtree.hilbertKey(leaf.getData(i)), leaf.keys[i]);
+                assertTrue(leaf.keys[i] >= previous, "keys out of order");
+                previous = leaf.keys[i];
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,50 @@
+package rtree;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+    @Test
+    void percentilesStayWithinOnePercent() {
+        Random random = new Random(107);
+        LatencyHistogram histogram = new LatencyHistogram();
+        long[] values = new long[200000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) Math.pow(2, random.nextDouble() * 40);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        assertEquals(values.length, histogram.getCount());
+        assertEquals(values[0], histogram.getMin());
+        assertEquals(values[values.length - 1], histogram.getMax());
+        for (double percentile : new double[] { 0, 1, 10, 25, 50, 75, 90, 99, 99.9, 99.99, 100 }) {
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * values.length));
+            long exact = values[(int) rank - 1];
+            long reported = histogram.getValueAtPercentile(percentile);
+            assertTrue(reported >= exact, percentile + ": " + reported + " < " + exact);
+            assertTrue(reported - exact <= exact / 100, percentile + ": " + reported + " vs " + exact);
+        }
+    }
+
+    @Test
+    void smallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long v = 0; v < 256; v++) {
+            histogram.record(v);
+        }
+        for (int p = 1; p <= 100; p++) {
+            long rank = (long) Math.ceil(p / 100.0 * 256);
+            assertEquals(rank - 1, histogram.getValueAtPercentile(p));
+        }
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getValueAtPercentile(50));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,179 @@
+package rtree;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MappedRTreeTest {
+
+    @TempDir
+    Path directory;
+
+    static void assertSearches(MappedRTree mapped, Map<Long, Rectangle> live, Random random, int dims) {
+        for (int q = 0; q < 50; q++) {
+            Rectangle window = Fixtures.rectangle(random, dims, 1000, 150);
+            Set<Long> found = new HashSet<Long>();
+            long count = mapped.searchEntries(window, (id, rectangle) -> found.add(id));
+            assertEquals(Fixtures.expected(live, window, NodeScanner.INTERSECTS), found);
+            assertEquals(found.size(), count);
+        }
+    }
+
+    static void assertNearest(MappedRTree mapped, Map<Long, Rectangle> live, Random random, int dims) {
+        for (int q = 0; q < 20; q++) {
+            Point point = Fixtures.point(random, dims, 1000);
+            double[] expected = Fixtures.distances(live, point);
+            for (int k : new int[] { 1, 5, 40 }) {
+                List<Rectangle> nearest = new ArrayList<Rectangle>();
+                int count = mapped.nearestEntries(point, k, (id, rectangle) -> {
+                    assertEquals(live.get(id), rectangle);
+                    nearest.add(rectangle);
+                });
+                assertEquals(Math.min(k, expected.length), count);
+                for (int i = 0; i < count; i++) {
+                    assertEquals(expected[i], nearest.get(i).minDistance(point), "rank " + i);
+                }
+            }
+        }
+    }
+
+    @Test
+    void writtenTreeMatchesBruteForce() throws IOException {
+        for (int type : Fixtures.TREE_TYPES) {
+            Random random = new Random(97 + type);
+            RTree rtree = new RTree(12, 0.4f, type, 2);
+            Map<Long, Rectangle> live = new HashMap<Long, Rectangle>();
+            for (long id = 0; id < 3000; id++) {
+                Rectangle rectangle = Fixtures.rectangle(random, 2, 1000, 20);
+                rtree.insert(rectangle, id);
+                live.put(id, rectangle);
+            }
+
+            Path file = Files.createTempFile(directory, "tree", ".pages");
+            MappedRTree.write(rtree, file);
+            try (MappedRTree mapped = MappedRTree.open(file)) {
+                assertEquals(live.size(), mapped.size());
+                assertEquals(rtree.getRoot().level + 1, mapped.getHeight());
+                assertSearches(mapped, live, random, 2);
+                assertNearest(mapped, live, random, 2);
+            }
+        }
+    }
+
+    @Test
+    void builtTreeMatchesBruteForce() throws IOException {
+        for (int dims : new int[] { 2, 3 }) {
+            for (int n : new int[] { 0, 1, 12, 13, 145, 6000 }) {
+                Random random = new Random(139 + n + dims);
+                List<Rectangle> rectangles = Fixtures.rectangles(random, n, dims);
+                Map<Long, Rectangle> live = new HashMap<Long, Rectangle>();
+                for (int i = 0; i < n; i++) {
+                    live.put((long) i, rectangles.get(i));
+                }
+                List<Long> order = new ArrayList<Long>(live.keySet());
+                if (n > 0) {
+                    Rectangle extent = Rectangle.getUnionRectangle(rectangles.toArray(new Rectangle[0]));
+                    order.sort(Comparator.comparingLong(id -> HilbertCurve.key(live.get(id), extent)));
+                }
+
+                Path file = Files.createTempFile(directory, "built", ".pages");
+                try (MappedRTree.Builder builder = MappedRTree.builder(file, dims, 12)) {
+                    for (long id : order) {
+                        builder.add(live.get(id), id);
+                    }
+                    builder.finish();
+                }
+                try (MappedRTree mapped = MappedRTree.open(file)) {
+                    assertEquals(n, mapped.size());
+                    assertSearches(mapped, live, random, dims);
+                    assertNearest(mapped, live, random, dims);
+                }
+            }
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assertFalse(files.anyMatch(path -> path.toString().endsWith(".level")), "leftover level files");
+        }
+    }
+
+    @Test
+    void editsMatchBruteForce() throws IOException {
+        Random random = new Random(151);
+        RTree rtree = new RTree(12, 0.4f, Constants.RSTAR, 2);
+        Map<Long, Rectangle> live = new HashMap<Long, Rectangle>();
+        for (long id = 0; id < 3000; id++) {
+            Rectangle rectangle = Fixtures.rectangle(random, 2, 1000, 20);
+            rtree.insert(rectangle, id);
+            live.put(id, rectangle);
+        }
+        Path file = Files.createTempFile(directory, "edited", ".pages");
+        MappedRTree.write(rtree, file);
+
+        Path rebuilt = Files.createTempFile(directory, "rebuilt", ".pages");
+        try (MappedRTree mapped = MappedRTree.open(file)) {
+            assertThrows(IllegalArgumentException.class, () -> mapped.insert(live.get(7L), 7));
+            for (long id = 3000; id < 4000; id++) {
+                Rectangle rectangle = Fixtures.rectangle(random, 2, 1000, 20);
+                mapped.insert(rectangle, id);
+                live.put(id, rectangle);
+            }
+            for (long id = 0; id < 4000; id += 5) {
+                switch ((int) (id % 3)) {
+                    case 0:
+                        assertTrue(mapped.delete(id));
+                        live.remove(id);
+                        break;
+                    case 1:
+                        assertTrue(mapped.delete(live.remove(id)));
+                        break;
+                    default:
+                        Rectangle rectangle = Fixtures.rectangle(random, 2, 1000, 20);
+                        assertTrue(mapped.update(id, rectangle));
+                        live.put(id, rectangle);
+                }
+            }
+            assertFalse(mapped.delete(0));
+            assertFalse(mapped.contains(10));
+            assertTrue(mapped.contains(5));
+            assertTrue(mapped.contains(3));
+            assertEquals(live.size(), mapped.size());
+            assertSearches(mapped, live, random, 2);
+            assertNearest(mapped, live, random, 2);
+            mapped.writeTo(rebuilt);
+        }
+
+        try (MappedRTree mapped = MappedRTree.open(rebuilt)) {
+            assertEquals(live.size(), mapped.size());
+            assertSearches(mapped, live, random, 2);
+            assertNearest(mapped, live, random, 2);
+        }
+    }
+
+    @Test
+    void abandonedBuilderRemovesFile() throws IOException {
+        Path file = directory.resolve("abandoned.pages");
+        Random random = new Random(149);
+        try (MappedRTree.Builder builder = MappedRTree.builder(file, 2, 8)) {
+            for (long id = 0; id < 500; id++) {
+                builder.add(Fixtures.rectangle(random, 2, 1000, 20), id);
+            }
+        }
+        assertFalse(Files.exists(file));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,76 @@
+package rtree;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class NearestNeighborTest {
+
+    @Test
+    void nearestMatchesBruteForce() {
+        for (int type : Fixtures.TREE_TYPES) {
+            Random random = new Random(17 + type);
+            RTree rtree = new RTree(10, 0.4f, type, 2);
+            Map<Long, Rectangle> live = new HashMap<Long, Rectangle>();
+            for (long id = 0; id < 3000; id++) {
+                Rectangle rectangle = Fixtures.rectangle(random, 2, 1000, 10);
+                rtree.insert(rectangle, id);
+                live.put(id, rectangle);
+            }
+            for (int q = 0; q < 100; q++) {
+                Point point = Fixtures.point(random, 2, 1000);
+                for (int k : new int[] { 1, 2, 10, 50 }) {
+                    Fixtures.assertNearest(rtree, live, point, k);
+                }
+            }
+        }
+    }
+
+    @Test
+    void iteratorStreamsInDistanceOrder() {
+        Random random = new Random(3);
+        RTree rtree = new RTree(8, 0.4f, Constants.RTREE_QUADRATIC, 3);
+        Map<Long, Rectangle> live = new HashMap<Long, Rectangle>();
+        for (long id = 0; id < 800; id++) {
+            Rectangle rectangle = Fixtures.rectangle(random, 3, 1000, 30);
+            rtree.insert(rectangle, id);
+            live.put(id, rectangle);
+        }
+        Point point = Fixtures.point(random, 3, 1000);
+        double[] expected = Fixtures.distances(live, point);
+        NearestNeighborIterator iterator = rtree.nearestIterator(point);
+        int n = 0;
+        while (iterator.hasNext()) {
+            Rectangle rectangle = iterator.next();
+            assertEquals(expected[n], rectangle.minDistance(point));
+            assertEquals(Math.sqrt(expected[n]), iterator.distance());
+            assertEquals(live.get(iterator.id()), rectangle);
+            n++;
+        }
+        assertEquals(live.size(), n);
+    }
+
+    @Test
+    void hugeKDoesNotPreallocate() {
+        RTree rtree = new RTree(8, 0.4f, Constants.RSTAR, 2);
+        Rectangle only = new Rectangle(new Point(new float[] { 1, 1 }), new Point(new float[] { 2, 2 }));
+        rtree.insert(only, 7);
+        List<Rectangle> nearest = rtree.nearest(new Point(new float[] { 0, 0 }), Integer.MAX_VALUE - 1);
+        assertEquals(1, nearest.size());
+        assertEquals(only, nearest.get(0));
+    }
+
+    @Test
+    void emptyTreeHasNoNeighbours() {
+        RTree rtree = new RTree(8, 0.4f, Constants.RSTAR, 2);
+        assertTrue(rtree.nearest(new Point(new float[] { 1, 2 }), 5).isEmpty());
+        assertFalse(rtree.nearestIterator(new Point(new float[] { 1, 2 })).hasNext());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,87 @@
+package rtree;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class NodeScannerTest {
+
+    @Test
+    void scannersAgreeWithBruteForce() {
+        NodeScanner[] scanners = { new ScalarNodeScanner(), new VectorNodeScanner() };
+        Random random = new Random(79);
+        for (int dims : new int[] { 2, 3, 4, 8 }) {
+            for (int round = 0; round < 300; round++) {
+                int stride = 1 + random.nextInt(40);
+                int count = random.nextInt(stride + 1);
+                float[] bounds = new float[2 * dims * stride];
+                boolean grid = round % 2 == 0;
+                for (int i = 0; i < stride; i++) {
+                    for (int d = 0; d < dims; d++) {
+                        float lo = grid ? random.nextInt(100) : random.nextFloat() * 100;
+                        bounds[2 * d * stride + i] = lo;
+                        bounds[(2 * d + 1) * stride + i] = lo + (grid ? random.nextInt(30) : random.nextFloat() * 30);
+                    }
+                }
+                float[] box = new float[2 * dims];
+                for (int d = 0; d < dims; d++) {
+                    box[2 * d] = grid ? random.nextInt(100) : random.nextFloat() * 100;
+                    box[2 * d + 1] = box[2 * d] + (grid ? random.nextInt(60) : random.nextFloat() * 60);
+                }
+
+                for (int mode = 0; mode < 3; mode++) {
+                    int[] expected = new int[count];
+                    int n = 0;
+                    for (int i = 0; i < count; i++) {
+                        if (matches(bounds, stride, i, box, mode))
+                            expected[n++] = i;
+                    }
+                    for (NodeScanner scanner : scanners) {
+                        int[] hits = new int[stride + 1];
+                        int found = scanner.scan(bounds, stride, count, box, mode, hits);
+                        assertEquals(n, found, scanner.getClass().getSimpleName());
+                        assertArrayEquals(Arrays.copyOf(expected, n), Arrays.copyOf(hits, found));
+                    }
+                }
+
+                if (count > 0) {
+                    double best = Double.POSITIVE_INFINITY;
+                    for (int i = 0; i < count; i++) {
+                        best = Math.min(best, MbrKernel.enlargement(bounds, stride, i, box, 1, 0, dims));
+                    }
+                    int expected = MbrKernel.leastEnlargement(bounds, stride, count, box, 1, 0, dims);
+                    assertEquals(best, MbrKernel.enlargement(bounds, stride, expected, box, 1, 0, dims));
+                    for (NodeScanner scanner : scanners) {
+                        assertEquals(expected, scanner.leastEnlargement(bounds, stride, count, box),
+                                scanner.getClass().getSimpleName());
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean matches(float[] bounds, int stride, int i, float[] box, int mode) {
+        for (int d = 0; d < box.length / 2; d++) {
+            float lo = bounds[2 * d * stride + i];
+            float hi = bounds[(2 * d + 1) * stride + i];
+            boolean ok;
+            switch (mode) {
+                case NodeScanner.WITHIN:
+                    ok = lo >= box[2 * d] && hi <= box[2 * d + 1];
+                    break;
+                case NodeScanner.CONTAINS:
+                    ok = lo <= box[2 * d] && hi >= box[2 * d + 1];
+                    break;
+                default:
+                    ok = lo <= box[2 * d + 1] && hi >= box[2 * d];
+            }
+            if (!ok)
+                return false;
+        }
+        return true;
+    }
+}
\ No newline at end of file
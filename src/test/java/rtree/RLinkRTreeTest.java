@@ -0,0 +1,197 @@
+package rtree;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.jupiter.api.Test;
+
+class RLinkRTreeTest {
+    private static final int WRITERS = 8;
+    private static final int READERS = 2;
+    private static final int PER_WRITER = 6000;
+
+    @Test
+    void concurrentSearchesMatchBruteForce() throws Exception {
+        for (int type : new int[] { Constants.RTREE_LINEAR, Constants.RTREE_QUADRATIC, Constants.RSTAR }) {
+            RLinkRTree tree = new RLinkRTree(8, 0.4f, type, 2);
+            Rectangle[][] data = new Rectangle[WRITERS][PER_WRITER];
+            Map<Rectangle, int[]> index = new IdentityHashMap<Rectangle, int[]>();
+            Random random = new Random(71 + type);
+            for (int t = 0; t < WRITERS; t++) {
+                for (int i = 0; i < PER_WRITER; i++) {
+                    data[t][i] = Fixtures.rectangle(random, 2, 1000, 20);
+                    index.put(data[t][i], new int[] { t, i });
+                }
+            }
+
+            AtomicIntegerArray started = new AtomicIntegerArray(WRITERS);
+            AtomicIntegerArray completed = new AtomicIntegerArray(WRITERS);
+            run(tree, data, index, started, completed, false);
+            assertEquals(WRITERS * PER_WRITER, tree.size());
+            assertFinalSearches(tree, data, false, random);
+
+            started = new AtomicIntegerArray(WRITERS);
+            completed = new AtomicIntegerArray(WRITERS);
+            run(tree, data, index, started, completed, true);
+            assertEquals(WRITERS * PER_WRITER / 2, tree.size());
+            assertFinalSearches(tree, data, true, random);
+        }
+    }
+
+    @Test
+    void deletesTightenBoundsAndUnlinkEmptyLeaves() {
+        RLinkRTree tree = new RLinkRTree(8, 0.4f, Constants.RSTAR, 2);
+        Random random = new Random(89);
+        List<Rectangle> left = new ArrayList<Rectangle>();
+        List<Rectangle> right = new ArrayList<Rectangle>();
+        for (int i = 0; i < 4000; i++) {
+            Rectangle rectangle = Fixtures.rectangle(random, 2, 1000, 20);
+            assertTrue(tree.insert(rectangle));
+            (rectangle.getHighCoordinate(0) < 500 ? left : right).add(rectangle);
+        }
+
+        int leaves = tree.countLeaves();
+        for (Rectangle rectangle : left) {
+            assertTrue(tree.delete(rectangle));
+        }
+        assertTrue(tree.countLeaves() < leaves);
+        assertEquals(Rectangle.getUnionRectangle(right.toArray(new Rectangle[0])), tree.getBounds());
+
+        for (Rectangle rectangle : left) {
+            assertTrue(tree.insert(rectangle));
+        }
+        for (Rectangle rectangle : right) {
+            assertTrue(tree.delete(rectangle));
+        }
+        assertEquals(left.size(), tree.size());
+        assertEquals(Rectangle.getUnionRectangle(left.toArray(new Rectangle[0])), tree.getBounds());
+        for (int q = 0; q < 40; q++) {
+            Rectangle window = Fixtures.rectangle(random, 2, 1000, 150);
+            Set<Rectangle> expected = Collections.newSetFromMap(new IdentityHashMap<Rectangle, Boolean>());
+            for (Rectangle rectangle : left) {
+                if (Fixtures.matches(rectangle, window, NodeScanner.INTERSECTS))
+                    expected.add(rectangle);
+            }
+            Set<Rectangle> found = Collections.newSetFromMap(new IdentityHashMap<Rectangle, Boolean>());
+            assertEquals(expected.size(), tree.search(window, found::add));
+            assertEquals(expected, found);
+        }
+    }
+
+    private static void run(RLinkRTree tree, Rectangle[][] data, Map<Rectangle, int[]> index,
+            AtomicIntegerArray started, AtomicIntegerArray completed, boolean delete) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS + READERS);
+        try {
+            AtomicBoolean done = new AtomicBoolean();
+            List<Future<?>> readers = new ArrayList<Future<?>>();
+            for (int r = 0; r < READERS; r++) {
+                long seed = 83 + r;
+                readers.add(executor.submit(() -> {
+                    Random random = new Random(seed);
+                    int searches = 0;
+                    while (!done.get() || searches < 20) {
+                        checkSearch(tree, data, index, started, completed, delete, random);
+                        searches++;
+                    }
+                    return null;
+                }));
+            }
+
+            List<Future<?>> writers = new ArrayList<Future<?>>();
+            for (int t = 0; t < WRITERS; t++) {
+                int writer = t;
+                writers.add(executor.submit(() -> {
+                    for (int i = 0; i < PER_WRITER; i++) {
+                        if (delete && i % 2 != 0)
+                            continue;
+                        started.set(writer, i + 1);
+                        if (delete)
+                            assertTrue(tree.delete(data[writer][i]), "missing entry");
+                        else
+                            assertTrue(tree.insert(data[writer][i]));
+                        completed.set(writer, i + 1);
+                    }
+                    return null;
+                }));
+            }
+
+            for (Future<?> writer : writers)
+                writer.get();
+            done.set(true);
+            for (Future<?> reader : readers)
+                reader.get();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void checkSearch(RLinkRTree tree, Rectangle[][] data, Map<Rectangle, int[]> index,
+            AtomicIntegerArray started, AtomicIntegerArray completed, boolean delete, Random random) {
+        Rectangle window = Fixtures.rectangle(random, 2, 1000, 150);
+        int[] completedBefore = new int[WRITERS];
+        for (int t = 0; t < WRITERS; t++) {
+            completedBefore[t] = completed.get(t);
+        }
+
+        Set<Rectangle> found = Collections.newSetFromMap(new IdentityHashMap<Rectangle, Boolean>());
+        int count = tree.search(window, r -> assertTrue(found.add(r), "duplicate result " + r));
+        assertEquals(found.size(), count);
+
+        int[] startedAfter = new int[WRITERS];
+        for (int t = 0; t < WRITERS; t++) {
+            startedAfter[t] = started.get(t);
+        }
+
+        for (Rectangle rectangle : found) {
+            int[] position = index.get(rectangle);
+            assertNotNull(position, "unknown result");
+            assertTrue(Fixtures.matches(rectangle, window, NodeScanner.INTERSECTS), "result outside window");
+            int t = position[0];
+            int i = position[1];
+            if (delete)
+                assertFalse(i % 2 == 0 && i < completedBefore[t], "deleted entry returned");
+            else
+                assertTrue(i < startedAfter[t], "entry returned before its insert started");
+        }
+
+        for (int t = 0; t < WRITERS; t++) {
+            for (int i = 0; i < PER_WRITER; i++) {
+                boolean live = delete ? (i % 2 != 0 || i >= startedAfter[t]) : i < completedBefore[t];
+                if (live && Fixtures.matches(data[t][i], window, NodeScanner.INTERSECTS))
+                    assertTrue(found.contains(data[t][i]), "live entry missing");
+            }
+        }
+    }
+
+    private static void assertFinalSearches(RLinkRTree tree, Rectangle[][] data, boolean deleted, Random random) {
+        for (int q = 0; q < 40; q++) {
+            Rectangle window = Fixtures.rectangle(random, 2, 1000, 150);
+            Set<Rectangle> expected = Collections.newSetFromMap(new IdentityHashMap<Rectangle, Boolean>());
+            for (int t = 0; t < WRITERS; t++) {
+                for (int i = deleted ? 1 : 0; i < PER_WRITER; i += deleted ? 2 : 1) {
+                    if (Fixtures.matches(data[t][i], window, NodeScanner.INTERSECTS))
+                        expected.add(data[t][i]);
+                }
+            }
+
+            Set<Rectangle> found = Collections.newSetFromMap(new IdentityHashMap<Rectangle, Boolean>());
+            assertEquals(expected.size(), tree.search(window, found::add));
+            assertEquals(expected, found);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,132 @@
+package rtree;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+class RTreeCompactorTest {
+
+    private static RTree churned(int type, Random random, Map<Long, Rectangle> live) {
+        RTree rtree = new RTree(10, 0.3f, type, 2);
+        long next = 0;
+        for (int round = 0; round < 6000; round++) {
+            if (live.size() > 500 && random.nextInt(3) == 0) {
+                long id = live.keySet().iterator().next();
+                rtree.delete(id);
+                live.remove(id);
+            } else {
+                Rectangle rectangle = Fixtures.rectangle(random, 2, 1000, 30);
+                rtree.insert(rectangle, next);
+                live.put(next++, rectangle);
+            }
+        }
+        return rtree;
+    }
+
+    @Test
+    void compactionPreservesEntries() {
+        for (int type : Fixtures.TREE_TYPES) {
+            Random random = new Random(83 + type);
+            Map<Long, Rectangle> live = new HashMap<Long, Rectangle>();
+            RTree rtree = churned(type, random, live);
+
+            RTreeCompactor compactor = new RTreeCompactor(rtree, 1.0f, 400);
+            for (int pass = 0; pass < 3; pass++) {
+                compactor.compact(400);
+                assertEquals(live.size(), Fixtures.checkInvariants(rtree));
+                Fixtures.assertSearches(rtree, live, random, 20);
+            }
+            for (int q = 0; q < 20; q++) {
+                Fixtures.assertNearest(rtree, live, Fixtures.point(random, 2, 1000), 5);
+            }
+
+            for (long id : live.keySet().toArray(new Long[0])) {
+                if (id % 3 == 0) {
+                    assertTrue(rtree.delete(id));
+                    live.remove(id);
+                }
+            }
+            assertEquals(live.size(), Fixtures.checkInvariants(rtree));
+            Fixtures.assertSearches(rtree, live, random, 20);
+        }
+    }
+
+    @Test
+    void compactionLeavesPublishedTreeIntact() {
+        for (int type : Fixtures.TREE_TYPES) {
+            Random random = new Random(97 + type);
+            Map<Long, Rectangle> live = new HashMap<Long, Rectangle>();
+            RTree rtree = churned(type, random, live);
+
+            RTNode before = rtree.getRoot();
+            assertTrue(new RTreeCompactor(rtree, 1.0f, 400).compact(400) > 0);
+            assertTrue(before != rtree.getRoot());
+            assertEquals(live.size(), Fixtures.checkInvariants(rtree));
+
+            RTNode after = rtree.getRoot();
+            rtree.setRoot(before);
+            Fixtures.assertSearches(rtree, live, random, 20);
+            rtree.setRoot(after);
+            Fixtures.assertSearches(rtree, live, random, 20);
+        }
+    }
+
+    @Test
+    void readersRunDuringCompaction() throws InterruptedException {
+        Random random = new Random(101);
+        Map<Long, Rectangle> live = new HashMap<Long, Rectangle>();
+        RTree rtree = churned(Constants.RSTAR, random, live);
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+
+        Thread reader = new Thread(() -> {
+            Random queries = new Random(103);
+            try {
+                while (!done.get()) {
+                    Fixtures.assertSearches(rtree, live, queries, 1);
+                }
+            } catch (Throwable t) {
+                failure.set(t);
+            }
+        });
+        reader.start();
+        RTreeCompactor compactor = new RTreeCompactor(rtree, 1.0f, 200);
+        for (int pass = 0; pass < 20; pass++) {
+            compactor.compact(200);
+            Thread.yield();
+        }
+        done.set(true);
+        reader.join();
+
+        if (failure.get() != null)
+            throw new AssertionError(failure.get());
+        assertEquals(live.size(), Fixtures.checkInvariants(rtree));
+    }
+
+    @Test
+    void analyzerCountsEveryEntry() {
+        Random random = new Random(89);
+        Map<Long, Rectangle> live = new HashMap<Long, Rectangle>();
+        RTree rtree = churned(Constants.RSTAR, random, live);
+        TreeReport report = rtree.analyze();
+
+        assertEquals(rtree.getRoot().level + 1, report.getHeight());
+        assertEquals(live.size(), report.getSize());
+        assertEquals(live.size(), report.getEntryCount(0));
+        for (int level = 0; level < report.getHeight(); level++) {
+            double fill = report.getFillFactor(level);
+            assertTrue(fill > 0 && fill <= 1, "fill " + fill);
+            assertTrue(report.getOverlap(level) >= 0);
+            assertTrue(report.getDeadSpace(level) >= 0);
+            if (level > 0)
+                assertEquals(report.getNodeCount(level - 1), report.getEntryCount(level));
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,52 @@
+package rtree;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class RTreeMetricsTest {
+
+    @Test
+    void countersTrackOperations() {
+        Random random = new Random(109);
+        RTree rtree = new RTree(8, 0.4f, Constants.RSTAR, 2);
+        RTreeMetrics metrics = new RTreeMetrics();
+        rtree.setMetrics(metrics);
+        for (long id = 0; id < 2000; id++) {
+            rtree.insert(Fixtures.rectangle(random, 2, 1000, 20), id);
+        }
+        for (long id = 0; id < 500; id++) {
+            rtree.delete(id);
+        }
+        for (long id = 500; id < 600; id++) {
+            assertTrue(rtree.update(id, Fixtures.rectangle(random, 2, 1000, 20)));
+        }
+
+        long results = 0;
+        for (int q = 0; q < 100; q++) {
+            results += rtree.search(Fixtures.rectangle(random, 2, 1000, 100), r -> { });
+        }
+        rtree.nearest(Fixtures.point(random, 2, 1000), 5);
+
+        RTreeMetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(101, snapshot.getQueries());
+        assertEquals(results + 5, snapshot.getResults());
+        assertTrue(snapshot.getSplits() > 0);
+        assertTrue(snapshot.getReinsertions() > 0);
+        long condensed = snapshot.getCondenseTrees();
+        assertTrue(condensed > 0 && condensed < 100, "condensed " + condensed);
+        assertEquals(2000, snapshot.getLatency(RTreeMetrics.INSERT).getCount());
+        assertEquals(500, snapshot.getLatency(RTreeMetrics.DELETE).getCount());
+        assertEquals(100, snapshot.getLatency(RTreeMetrics.UPDATE).getCount());
+        assertEquals(100, snapshot.getLatency(RTreeMetrics.SEARCH).getCount());
+        assertEquals(1, snapshot.getLatency(RTreeMetrics.NEAREST).getCount());
+        double ratio = snapshot.getPruningRatio();
+        assertTrue(ratio > 0 && ratio < 1, "ratio " + ratio);
+
+        metrics.reset();
+        assertEquals(0, metrics.snapshot().getQueries());
+    }
+}
\ No newline at end of file
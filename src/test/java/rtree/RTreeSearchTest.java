@@ -0,0 +1,124 @@
+package rtree;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class RTreeSearchTest {
+
+    @Test
+    void searchMatchesBruteForce() {
+        for (int dims : new int[] { 2, 3, 5 }) {
+            for (int type : Fixtures.TREE_TYPES) {
+                Random random = new Random(31 * dims + type);
+                RTree rtree = new RTree(12, 0.4f, type, dims);
+                Map<Long, Rectangle> live = new HashMap<Long, Rectangle>();
+                for (long id = 0; id < 2000; id++) {
+                    Rectangle rectangle = Fixtures.rectangle(random, dims, 1000, 40);
+                    rtree.insert(rectangle, id);
+                    live.put(id, rectangle);
+                }
+                assertEquals(live.size(), Fixtures.checkInvariants(rtree));
+                Fixtures.assertSearches(rtree, live, random, 60);
+            }
+        }
+    }
+
+    @Test
+    void rectangleConsumerSeesSameResults() {
+        Random random = new Random(5);
+        RTree rtree = new RTree(8, 0.4f, Constants.RSTAR, 2);
+        List<Rectangle> rectangles = Fixtures.rectangles(random, 1000, 2);
+        for (Rectangle rectangle : rectangles) {
+            rtree.insert(rectangle);
+        }
+        for (int q = 0; q < 50; q++) {
+            Rectangle window = Fixtures.rectangle(random, 2, 1000, 200);
+            List<Rectangle> found = new ArrayList<Rectangle>();
+            int count = rtree.search(window, found::add);
+            long expected = rectangles.stream().filter(r -> Fixtures.matches(r, window, NodeScanner.INTERSECTS)).count();
+            assertEquals(expected, count);
+            assertEquals(expected, found.size());
+        }
+    }
+
+    @Test
+    void insertAllMatchesBruteForce() {
+        for (int type : Fixtures.TREE_TYPES) {
+            Random random = new Random(type);
+            RTree rtree = new RTree(10, 0.4f, type, 2);
+            Map<Long, Rectangle> live = new HashMap<Long, Rectangle>();
+            for (int batch = 0; batch < 4; batch++) {
+                List<Rectangle> rectangles = Fixtures.rectangles(random, 500, 2);
+                long[] ids = new long[rectangles.size()];
+                for (int i = 0; i < ids.length; i++) {
+                    ids[i] = batch * 1000L + i;
+                    live.put(ids[i], rectangles.get(i));
+                }
+                rtree.insertAll(rectangles, ids);
+            }
+            assertEquals(live.size(), Fixtures.checkInvariants(rtree));
+            Fixtures.assertSearches(rtree, live, random, 40);
+        }
+    }
+
+    @Test
+    void concurrentSearchesMatchBruteForce() throws Exception {
+        Random random = new Random(11);
+        RTree rtree = new RTree(8, 0.4f, Constants.RSTAR, 2);
+        Map<Long, Rectangle> live = new HashMap<Long, Rectangle>();
+        for (long id = 0; id < 5000; id++) {
+            Rectangle rectangle = Fixtures.rectangle(random, 2, 1000, 20);
+            rtree.insert(rectangle, id);
+            live.put(id, rectangle);
+        }
+
+        List<Throwable> failures = Collections.synchronizedList(new ArrayList<Throwable>());
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            long seed = t;
+            threads[t] = new Thread(() -> {
+                try {
+                    Fixtures.assertSearches(rtree, live, new Random(seed), 150);
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(failures.isEmpty(), () -> failures.get(0).toString());
+    }
+
+    @Test
+    void nestedSearchFromConsumer() {
+        Random random = new Random(13);
+        RTree rtree = new RTree(6, 0.4f, Constants.RTREE_QUADRATIC, 2);
+        Map<Long, Rectangle> live = new HashMap<Long, Rectangle>();
+        for (long id = 0; id < 500; id++) {
+            Rectangle rectangle = Fixtures.rectangle(random, 2, 1000, 40);
+            rtree.insert(rectangle, id);
+            live.put(id, rectangle);
+        }
+        Rectangle window = Fixtures.rectangle(random, 2, 1000, 300);
+        Set<Long> outer = new HashSet<Long>();
+        rtree.searchEntries(window, (id, rectangle) -> {
+            outer.add(id);
+            assertEquals(Fixtures.expected(live, rectangle, NodeScanner.INTERSECTS),
+                    Fixtures.search(rtree, rectangle, NodeScanner.INTERSECTS));
+        });
+        assertEquals(Fixtures.expected(live, window, NodeScanner.INTERSECTS), outer);
+    }
+}
\ No newline at end of file
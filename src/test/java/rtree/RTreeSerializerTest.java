@@ -0,0 +1,67 @@
+package rtree;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class RTreeSerializerTest {
+
+    private static byte[] write(RTree rtree) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        rtree.writeTo(Channels.newChannel(out));
+        return out.toByteArray();
+    }
+
+    private static RTree read(byte[] bytes) throws IOException {
+        return RTree.readFrom(Channels.newChannel(new ByteArrayInputStream(bytes)));
+    }
+
+    @Test
+    void roundTripPreservesEntries() throws IOException {
+        for (int type : Fixtures.TREE_TYPES) {
+            Random random = new Random(67 + type);
+            RTree rtree = new RTree(11, 0.4f, type, 3);
+            Map<Long, Rectangle> live = new HashMap<Long, Rectangle>();
+            for (long id = 0; id < 2500; id++) {
+                Rectangle rectangle = Fixtures.rectangle(random, 3, 1000, 40);
+                rtree.insert(rectangle, id);
+                live.put(id, rectangle);
+            }
+
+            RTree copy = read(write(rtree));
+            assertEquals(rtree.getTreeType(), copy.getTreeType());
+            assertEquals(rtree.getNodeCapacity(), copy.getNodeCapacity());
+            assertEquals(live.size(), Fixtures.checkInvariants(copy));
+            Fixtures.assertSearches(copy, live, random, 40);
+
+            for (long id = 0; id < 2500; id += 5) {
+                copy.delete(id);
+                live.remove(id);
+            }
+            Fixtures.assertSearches(copy, live, random, 20);
+        }
+    }
+
+    @Test
+    void corruptSnapshotIsRejected() throws IOException {
+        RTree rtree = new RTree(8, 0.4f, Constants.RSTAR, 2);
+        Random random = new Random(1);
+        for (int i = 0; i < 100; i++) {
+            rtree.insert(Fixtures.rectangle(random, 2, 100, 5), i);
+        }
+        byte[] bytes = write(rtree);
+        bytes[bytes.length / 2] ^= 0x5a;
+        assertThrows(IOException.class, () -> read(bytes));
+        byte[] truncated = java.util.Arrays.copyOf(write(rtree), 40);
+        assertThrows(IOException.class, () -> read(truncated));
+    }
+}
\ No newline at end of file
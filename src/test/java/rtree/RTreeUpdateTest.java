@@ -0,0 +1,205 @@
+package rtree;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class RTreeUpdateTest {
+
+    @Test
+    void deleteByIdMatchesBruteForce() {
+        for (int type : Fixtures.TREE_TYPES) {
+            Random random = new Random(41 + type);
+            RTree rtree = new RTree(8, 0.4f, type, 2);
+            Map<Long, Rectangle> live = new HashMap<Long, Rectangle>();
+            for (long id = 0; id < 3000; id++) {
+                Rectangle rectangle = Fixtures.rectangle(random, 2, 1000, 20);
+                rtree.insert(rectangle, id);
+                live.put(id, rectangle);
+            }
+            for (long id = 0; id < 3000; id += 2) {
+                assertTrue(rtree.delete(id));
+                live.remove(id);
+                assertFalse(rtree.contains(id));
+            }
+            assertFalse(rtree.delete(0L));
+            assertEquals(live.size(), Fixtures.checkInvariants(rtree));
+            Fixtures.assertSearches(rtree, live, random, 40);
+        }
+    }
+
+    @Test
+    void deleteByRectangleMatchesBruteForce() {
+        for (int type : Fixtures.TREE_TYPES) {
+            Random random = new Random(43 + type);
+            RTree rtree = new RTree(8, 0.4f, type, 2);
+            Map<Long, Rectangle> live = new HashMap<Long, Rectangle>();
+            List<Long> order = new ArrayList<Long>();
+            for (long id = 0; id < 2000; id++) {
+                Rectangle rectangle = Fixtures.rectangle(random, 2, 1000, 20);
+                rtree.insert(rectangle, id);
+                live.put(id, rectangle);
+                order.add(id);
+            }
+            for (int i = 0; i < order.size(); i += 3) {
+                assertTrue(rtree.delete(live.remove(order.get(i))) >= 0);
+            }
+            assertEquals(live.size(), Fixtures.checkInvariants(rtree));
+            Fixtures.assertSearches(rtree, live, random, 40);
+        }
+    }
+
+    @Test
+    void updateMatchesBruteForce() {
+        for (int type : Fixtures.TREE_TYPES) {
+            Random random = new Random(47 + type);
+            RTree rtree = new RTree(8, 0.4f, type, 2);
+            Map<Long, Rectangle> live = new HashMap<Long, Rectangle>();
+            for (long id = 0; id < 2000; id++) {
+                Rectangle rectangle = Fixtures.rectangle(random, 2, 1000, 20);
+                rtree.insert(rectangle, id);
+                live.put(id, rectangle);
+            }
+            for (int round = 0; round < 4000; round++) {
+                long id = random.nextInt(2000);
+                Rectangle old = live.get(id);
+                float[] low = new float[2];
+                float[] high = new float[2];
+                for (int d = 0; d < 2; d++) {
+                    float shift = (random.nextFloat() - 0.5f) * (round % 5 == 0 ? 400 : 4);
+                    low[d] = old.getLowCoordinate(d) + shift;
+                    high[d] = low[d] + random.nextFloat() * 20;
+                }
+                Rectangle moved = new Rectangle(new Point(low), new Point(high));
+                assertTrue(rtree.update(id, moved));
+                live.put(id, moved);
+            }
+            assertFalse(rtree.update(-5, live.get(0L)));
+            assertEquals(live.size(), Fixtures.checkInvariants(rtree));
+            Fixtures.assertSearches(rtree, live, random, 40);
+        }
+    }
+
+    @Test
+    void shrinkingUpdatesKeepBoundsTight() {
+        for (int type : Fixtures.TREE_TYPES) {
+            for (int seed = 0; seed < 20; seed++) {
+                Random random = new Random(seed * 7919L + type);
+                RTree rtree = new RTree(8, 0.4f, type, 2);
+                Map<Long, Rectangle> live = new HashMap<Long, Rectangle>();
+                for (long id = 0; id < 600; id++) {
+                    Rectangle rectangle = Fixtures.rectangle(random, 2, 1000, 60);
+                    rtree.insert(rectangle, id);
+                    live.put(id, rectangle);
+                }
+                for (int round = 0; round < 600; round++) {
+                    long id = random.nextInt(600);
+                    Rectangle old = live.get(id);
+                    float[] low = new float[2];
+                    float[] high = new float[2];
+                    for (int d = 0; d < 2; d++) {
+                        float lo = old.getLowCoordinate(d);
+                        float hi = old.getHighCoordinate(d);
+                        low[d] = lo + (hi - lo) * random.nextFloat() * 0.5f;
+                        high[d] = hi - (hi - low[d]) * random.nextFloat() * 0.5f;
+                    }
+                    Rectangle shrunk = new Rectangle(new Point(low), new Point(high));
+                    assertTrue(rtree.update(id, shrunk));
+                    live.put(id, shrunk);
+                }
+                assertEquals(live.size(), Fixtures.checkInvariants(rtree));
+                for (int q = 0; q < 200; q++) {
+                    Fixtures.assertNearest(rtree, live, Fixtures.point(random, 2, 1000), 1);
+                }
+            }
+        }
+    }
+
+    @Test
+    void underflowsAreCondensedInBatches() {
+        for (int type : Fixtures.TREE_TYPES) {
+            Random random = new Random(59 + type);
+            RTree rtree = new RTree(8, 0.5f, type, 2);
+            Map<Long, Rectangle> live = new HashMap<Long, Rectangle>();
+            for (long id = 0; id < 3000; id++) {
+                Rectangle rectangle = Fixtures.rectangle(random, 2, 1000, 20);
+                rtree.insert(rectangle, id);
+                live.put(id, rectangle);
+            }
+
+            List<Long> ids = new ArrayList<Long>(live.keySet());
+            Collections.shuffle(ids, random);
+            boolean deferred = false;
+            for (int i = 0; i < 2700; i++) {
+                assertTrue(rtree.delete(ids.get(i)));
+                live.remove(ids.get(i));
+                deferred |= minFill(rtree.getRoot()) < 4;
+                if (i % 300 == 0) {
+                    assertEquals(live.size(), Fixtures.checkInvariants(rtree));
+                    Fixtures.assertSearches(rtree, live, random, 5);
+                }
+            }
+            assertTrue(deferred, "no underfull node was deferred");
+
+            rtree.condense();
+            assertTrue(minFill(rtree.getRoot()) >= 4);
+            assertEquals(live.size(), Fixtures.checkInvariants(rtree));
+            Fixtures.assertSearches(rtree, live, random, 40);
+
+            for (int i = 2700; i < ids.size(); i++) {
+                assertTrue(rtree.delete(ids.get(i)));
+            }
+            rtree.condense();
+            assertEquals(0, Fixtures.checkInvariants(rtree));
+            assertTrue(rtree.getRoot().isLeaf());
+        }
+    }
+
+    @Test
+    void idsMustBeUniqueAndNotNil() {
+        Random random = new Random(61);
+        RTree rtree = new RTree(8, 0.4f, Constants.RSTAR, 2);
+        Rectangle rectangle = Fixtures.rectangle(random, 2, 1000, 20);
+        assertThrows(IllegalArgumentException.class, () -> rtree.insert(rectangle, Constants.NIL));
+        rtree.insert(rectangle, 5);
+        assertThrows(IllegalArgumentException.class, () -> rtree.insert(rectangle, 5));
+        rtree.insert(rectangle);
+        rtree.insert(rectangle);
+
+        List<Rectangle> rectangles = Arrays.asList(rectangle, rectangle, rectangle);
+        assertThrows(IllegalArgumentException.class, () -> rtree.insertAll(rectangles, new long[] { 6, 7, 6 }));
+        assertThrows(IllegalArgumentException.class, () -> rtree.insertAll(rectangles, new long[] { 6, 7, 5 }));
+        assertThrows(IllegalArgumentException.class,
+                () -> rtree.insertAll(rectangles, new long[] { 6, 7, Constants.NIL }));
+        assertEquals(3, Fixtures.checkInvariants(rtree));
+        assertFalse(rtree.contains(6));
+
+        RTree empty = new RTree(8, 0.4f, Constants.RSTAR, 2);
+        assertThrows(IllegalArgumentException.class, () -> empty.bulkLoad(rectangles, new long[] { 1, 2, 1 }, 1.0f));
+        assertTrue(rtree.delete(5));
+        rtree.insert(rectangle, 5);
+        assertTrue(rtree.contains(5));
+    }
+
+    private static int minFill(RTNode node) {
+        if (node.isLeaf())
+            return node.isRoot() ? Integer.MAX_VALUE : node.usedSpace;
+
+        int min = node.isRoot() ? Integer.MAX_VALUE : node.usedSpace;
+        for (RTNode child : ((RTDirNode) node).children) {
+            min = Math.min(min, minFill(child));
+        }
+        return min;
+    }
+}
\ No newline at end of file
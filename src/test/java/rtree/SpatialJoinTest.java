@@ -0,0 +1,98 @@
+package rtree;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+class SpatialJoinTest {
+
+    private static Map<Rectangle, Integer> index(List<Rectangle> rectangles, int offset) {
+        Map<Rectangle, Integer> index = new HashMap<Rectangle, Integer>();
+        for (int i = 0; i < rectangles.size(); i++) {
+            index.put(rectangles.get(i), offset + i);
+        }
+        return index;
+    }
+
+    private static double gap(Rectangle a, Rectangle b) {
+        double sum = 0;
+        for (int d = 0; d < a.getHigh().getDimension(); d++) {
+            double gap = Math.max(b.getLowCoordinate(d) - a.getHighCoordinate(d),
+                    a.getLowCoordinate(d) - b.getHighCoordinate(d));
+            if (gap > 0)
+                sum += gap * gap;
+        }
+        return sum;
+    }
+
+    @Test
+    void joinMatchesBruteForce() {
+        for (int type : Fixtures.TREE_TYPES) {
+            Random random = new Random(59 + type);
+            List<Rectangle> left = Fixtures.rectangles(random, 1500, 2);
+            List<Rectangle> right = Fixtures.rectangles(random, 1200, 2);
+            RTree a = new RTree(10, 0.4f, type, 2);
+            RTree b = new RTree(7, 0.4f, type, 2);
+            left.forEach(a::insert);
+            right.forEach(b::insert);
+
+            Set<Long> expected = new HashSet<Long>();
+            for (int i = 0; i < left.size(); i++) {
+                for (int j = 0; j < right.size(); j++) {
+                    if (left.get(i).isIntersection(right.get(j)))
+                        expected.add((long) i << 32 | j);
+                }
+            }
+
+            Map<Rectangle, Integer> li = index(left, 0);
+            Map<Rectangle, Integer> ri = index(right, 0);
+            Set<Long> found = new HashSet<Long>();
+            long count = a.join(b, (x, y) -> found.add((long) li.get(x) << 32 | ri.get(y)));
+            assertEquals(expected, found);
+            assertEquals(expected.size(), count);
+
+            Set<Long> parallel = java.util.Collections.synchronizedSet(new HashSet<Long>());
+            long parallelCount = a.join(b, (x, y) -> parallel.add((long) li.get(x) << 32 | ri.get(y)),
+                    ForkJoinPool.commonPool());
+            assertEquals(expected, parallel);
+            assertEquals(expected.size(), parallelCount);
+        }
+    }
+
+    @Test
+    void selfJoinMatchesBruteForce() {
+        for (int type : Fixtures.TREE_TYPES) {
+            Random random = new Random(61 + type);
+            List<Rectangle> rectangles = Fixtures.rectangles(random, 1500, 2);
+            RTree rtree = new RTree(9, 0.4f, type, 2);
+            rectangles.forEach(rtree::insert);
+            float distance = 5;
+
+            Set<Long> expected = new HashSet<Long>();
+            for (int i = 0; i < rectangles.size(); i++) {
+                for (int j = i + 1; j < rectangles.size(); j++) {
+                    if (gap(rectangles.get(i), rectangles.get(j)) <= (double) distance * distance)
+                        expected.add((long) i << 32 | j);
+                }
+            }
+
+            Map<Rectangle, Integer> index = index(rectangles, 0);
+            Set<Long> found = new HashSet<Long>();
+            long count = rtree.selfJoin(distance, (x, y) -> {
+                int i = index.get(x);
+                int j = index.get(y);
+                found.add((long) Math.min(i, j) << 32 | Math.max(i, j));
+            });
+            assertEquals(expected, found);
+            assertEquals(expected.size(), count);
+        }
+    }
+}
\ No newline at end of file